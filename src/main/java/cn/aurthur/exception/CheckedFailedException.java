@@ -40,4 +40,17 @@ public class CheckedFailedException extends RuntimeException {
     public CheckedFailedException(String message, Throwable cause) {
         super(message, cause);
     }
+
+    /**
+     * 构造一个异常, 可以关闭 suppressed 异常和异常栈.
+     *
+     * @param message            详细信息
+     * @param cause              异常的起因
+     * @param enableSuppression  是否允许添加 suppressed 异常
+     * @param writableStackTrace 是否记录异常栈
+     */
+    protected CheckedFailedException(String message, Throwable cause, boolean enableSuppression,
+            boolean writableStackTrace) {
+        super(message, cause, enableSuppression, writableStackTrace);
+    }
 }
@@ -0,0 +1,24 @@
+package cn.aurthur.exception;
+
+/**
+ * 不记录异常栈的<code>CheckedFailedException</code>，创建时不调用<code>fillInStackTrace</code>。
+ * <div>
+ * 适用于把校验失败当作控制流的场景，例如大量非法输入；由于没有异常栈，也不能添加 suppressed 异常，
+ * 同一个实例可以在多线程之间共享重复抛出。
+ * </div>
+ */
+public class StacklessCheckedFailedException extends CheckedFailedException {
+    /**
+     *
+     */
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 构造一个异常, 指明异常的详细信息.
+     *
+     * @param message 详细信息
+     */
+    public StacklessCheckedFailedException(String message) {
+        super(message, null, false, false);
+    }
+}
@@ -0,0 +1,407 @@
+package cn.aurthur.lang.collection;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.LongBinaryOperator;
+
+/**
+ * 以数组形式存储的不可变树（森林）。
+ * <div>
+ * 节点用 <code>0 ~ size-1</code> 的整数表示，内部保存 parent、firstChild、nextSibling
+ * 以及先序遍历序号，因此：
+ * </div>
+ * <ul>
+ * <li>子树判断、祖先判断、深度、子树大小为 <code>O(1)</code></li>
+ * <li>最近公共祖先（LCA）、指定深度的祖先为 <code>O(log n)</code>（跳跃指针，额外空间 <code>O(n)</code>）</li>
+ * <li>某节点的所有后代是先序数组中连续的一段</li>
+ * </ul>
+ * <div>
+ * 另外提供基于 Fork/Join 的自底向上并行聚合，例如计算每个子树的权值和。
+ * </div>
+ */
+public final class CompactTree {
+
+    /**
+     * 表示不存在的节点
+     */
+    public static final int NONE = -1;
+
+    /**
+     * 单层节点数小于该值时串行聚合
+     */
+    private static final int PARALLEL_THRESHOLD = 8192;
+
+    private final int size;
+    private final int[] parent;
+    private final int[] firstChild;
+    private final int[] nextSibling;
+    private final int[] depth;
+    private final int[] jump;
+    /**
+     * 节点的先序序号
+     */
+    private final int[] pre;
+    /**
+     * 子树大小
+     */
+    private final int[] subtreeSize;
+    /**
+     * 先序序号对应的节点
+     */
+    private final int[] order;
+    private final int[] roots;
+    private final int maxDepth;
+
+    private CompactTree(int[] parent) {
+        int n = parent.length;
+        this.size = n;
+        this.parent = parent;
+        this.firstChild = new int[n];
+        this.nextSibling = new int[n];
+        this.depth = new int[n];
+        this.jump = new int[n];
+        this.pre = new int[n];
+        this.subtreeSize = new int[n];
+        this.order = new int[n];
+
+        Arrays.fill(firstChild, NONE);
+        Arrays.fill(nextSibling, NONE);
+
+        // 倒序插入，保证子节点按编号升序排列
+        int rootCount = 0;
+        int firstRoot = NONE;
+        for (int i = n - 1; i >= 0; i--) {
+            int p = parent[i];
+            if (p == NONE) {
+                nextSibling[i] = firstRoot;
+                firstRoot = i;
+                rootCount++;
+            } else {
+                if (p < 0 || p >= n) {
+                    throw new IllegalArgumentException("Illegal parent of node " + i + ": " + p);
+                }
+                nextSibling[i] = firstChild[p];
+                firstChild[p] = i;
+            }
+        }
+
+        this.roots = new int[rootCount];
+        for (int r = firstRoot, i = 0; r != NONE; r = nextSibling[r]) {
+            roots[i++] = r;
+        }
+
+        // 非递归的先序遍历
+        int index = 0;
+        int max = 0;
+        for (int root : roots) {
+            int v = root;
+            depth[v] = 0;
+            jump[v] = v;
+
+            while (true) {
+                pre[v] = index;
+                order[index++] = v;
+
+                if (v != root) {
+                    int p = parent[v];
+                    depth[v] = depth[p] + 1;
+
+                    int j = jump[p];
+                    jump[v] = depth[p] - depth[j] == depth[j] - depth[jump[j]] ? jump[j] : p;
+                }
+
+                if (depth[v] > max) {
+                    max = depth[v];
+                }
+
+                if (firstChild[v] != NONE) {
+                    v = firstChild[v];
+                    continue;
+                }
+
+                while (v != root && nextSibling[v] == NONE) {
+                    v = parent[v];
+                }
+
+                if (v == root) {
+                    break;
+                }
+
+                v = nextSibling[v];
+            }
+        }
+
+        if (index != n) {
+            throw new IllegalArgumentException("Tree contains cycle");
+        }
+
+        this.maxDepth = max;
+
+        for (int i = n - 1; i >= 0; i--) {
+            int v = order[i];
+            subtreeSize[v] += 1;
+            if (parent[v] != NONE) {
+                subtreeSize[parent[v]] += subtreeSize[v];
+            }
+        }
+    }
+
+    /**
+     * 根据父节点数组创建树。
+     *
+     * @param parent <code>parent[i]</code>为节点<code>i</code>的父节点，根节点为{@link #NONE}
+     * @return 树
+     * @throws IllegalArgumentException 父节点越界或存在环
+     */
+    public static CompactTree of(int[] parent) {
+        return new CompactTree(parent.clone());
+    }
+
+    /**
+     * 节点个数
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * 所有根节点
+     */
+    public int[] roots() {
+        return roots.clone();
+    }
+
+    /**
+     * 父节点，根节点返回{@link #NONE}
+     */
+    public int parent(int node) {
+        return parent[node];
+    }
+
+    /**
+     * 第一个子节点，没有则返回{@link #NONE}
+     */
+    public int firstChild(int node) {
+        return firstChild[node];
+    }
+
+    /**
+     * 下一个兄弟节点，没有则返回{@link #NONE}
+     */
+    public int nextSibling(int node) {
+        return nextSibling[node];
+    }
+
+    /**
+     * 节点深度，根节点为<code>0</code>
+     */
+    public int depth(int node) {
+        return depth[node];
+    }
+
+    /**
+     * 最大深度
+     */
+    public int maxDepth() {
+        return maxDepth;
+    }
+
+    /**
+     * 子树大小（包括节点自身）
+     */
+    public int subtreeSize(int node) {
+        return subtreeSize[node];
+    }
+
+    /**
+     * 节点的先序序号
+     */
+    public int preorderIndex(int node) {
+        return pre[node];
+    }
+
+    /**
+     * 先序序号对应的节点
+     */
+    public int nodeAt(int preorderIndex) {
+        return order[preorderIndex];
+    }
+
+    /**
+     * 判断<code>ancestor</code>是否为<code>node</code>的祖先，节点自身也视为自己的祖先。
+     *
+     * @param ancestor 祖先节点
+     * @param node     节点
+     * @return 如果<code>node</code>在<code>ancestor</code>的子树中, 则返回<code>true</code>
+     */
+    public boolean isAncestor(int ancestor, int node) {
+        int p = pre[ancestor];
+        int q = pre[node];
+        return p <= q && q < p + subtreeSize[ancestor];
+    }
+
+    /**
+     * 取得<code>node</code>在指定深度上的祖先。
+     *
+     * @param node  节点
+     * @param level 深度
+     * @return 祖先节点，如果<code>level</code>大于节点深度或小于<code>0</code>则返回{@link #NONE}
+     */
+    public int ancestorAtDepth(int node, int level) {
+        if (level < 0 || level > depth[node]) {
+            return NONE;
+        }
+
+        int v = node;
+        while (depth[v] > level) {
+            v = depth[jump[v]] >= level ? jump[v] : parent[v];
+        }
+        return v;
+    }
+
+    /**
+     * 最近公共祖先。
+     *
+     * @param a 节点
+     * @param b 节点
+     * @return 最近公共祖先，如果两个节点不在同一棵树中则返回{@link #NONE}
+     */
+    public int lca(int a, int b) {
+        if (isAncestor(a, b)) {
+            return a;
+        }
+        if (isAncestor(b, a)) {
+            return b;
+        }
+
+        int v = a;
+        while (parent[v] != NONE && !isAncestor(parent[v], b)) {
+            v = isAncestor(jump[v], b) ? parent[v] : jump[v];
+        }
+        return parent[v];
+    }
+
+    /**
+     * 节点的所有后代（不含自身），按先序排列。
+     */
+    public int[] descendants(int node) {
+        int from = pre[node] + 1;
+        return Arrays.copyOfRange(order, from, from + subtreeSize[node] - 1);
+    }
+
+    /**
+     * 从节点到根节点的路径（含自身和根节点）。
+     */
+    public int[] pathToRoot(int node) {
+        int[] path = new int[depth[node] + 1];
+        for (int i = 0, v = node; v != NONE; v = parent[v]) {
+            path[i++] = v;
+        }
+        return path;
+    }
+
+    /**
+     * 计算每个子树的权值和。
+     *
+     * @param values 每个节点的权值
+     * @return <code>r[i]</code>为以<code>i</code>为根的子树的权值和
+     */
+    public long[] subtreeSum(long[] values) {
+        return aggregate(values, Long::sum);
+    }
+
+    /**
+     * 自底向上聚合每个子树的值，节点数量较多时按层使用 Fork/Join 并行计算。
+     *
+     * @param values 每个节点的值
+     * @param op     满足结合律和交换律的聚合函数
+     * @return <code>r[i]</code>为以<code>i</code>为根的子树的聚合结果
+     */
+    public long[] aggregate(long[] values, LongBinaryOperator op) {
+        if (values.length != size) {
+            throw new IllegalArgumentException("Values length " + values.length + " != tree size " + size);
+        }
+
+        long[] r = values.clone();
+
+        if (size < PARALLEL_THRESHOLD) {
+            for (int i = size - 1; i >= 0; i--) {
+                int v = order[i];
+                if (parent[v] != NONE) {
+                    r[parent[v]] = op.applyAsLong(r[parent[v]], r[v]);
+                }
+            }
+            return r;
+        }
+
+        // 按深度分桶，同一层的节点互不依赖
+        int[] levelStart = new int[maxDepth + 2];
+        for (int v = 0; v < size; v++) {
+            levelStart[depth[v] + 1]++;
+        }
+        for (int d = 1; d < levelStart.length; d++) {
+            levelStart[d] += levelStart[d - 1];
+        }
+        int[] byLevel = new int[size];
+        int[] cursor = Arrays.copyOf(levelStart, maxDepth + 1);
+        for (int i = 0; i < size; i++) {
+            int v = order[i];
+            byLevel[cursor[depth[v]]++] = v;
+        }
+
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        for (int d = maxDepth - 1; d >= 0; d--) {
+            int from = levelStart[d];
+            int to = levelStart[d + 1];
+            if (to - from < PARALLEL_THRESHOLD) {
+                foldChildren(byLevel, from, to, r, op);
+            } else {
+                pool.invoke(new LevelTask(byLevel, from, to, r, op));
+            }
+        }
+        return r;
+    }
+
+    private void foldChildren(int[] nodes, int from, int to, long[] r, LongBinaryOperator op) {
+        for (int i = from; i < to; i++) {
+            int v = nodes[i];
+            long acc = r[v];
+            for (int c = firstChild[v]; c != NONE; c = nextSibling[c]) {
+                acc = op.applyAsLong(acc, r[c]);
+            }
+            r[v] = acc;
+        }
+    }
+
+    /**
+     * 并行处理同一层的节点
+     */
+    private class LevelTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int[] nodes;
+        private final int from;
+        private final int to;
+        private final long[] r;
+        private final LongBinaryOperator op;
+
+        LevelTask(int[] nodes, int from, int to, long[] r, LongBinaryOperator op) {
+            this.nodes = nodes;
+            this.from = from;
+            this.to = to;
+            this.r = r;
+            this.op = op;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from < PARALLEL_THRESHOLD) {
+                foldChildren(nodes, from, to, r, op);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new LevelTask(nodes, from, mid, r, op), new LevelTask(nodes, mid, to, r, op));
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package cn.aurthur.lang.collection;
+
+import java.util.Arrays;
+
+/**
+ * 可增长的<code>int</code>数组，容量不足时按两倍扩容，用于在循环中逐个构建数组，避免装箱和反复复制。
+ * <div>
+ * 非线程安全。
+ * </div>
+ */
+public class IntArrayBuilder {
+    /**
+     * 默认的初始容量
+     */
+    private static final int DEFAULT_INITIAL_CAPACITY = 16;
+
+    /**
+     * 数组的最大长度，部分虚拟机会在数组头部保留几个字
+     */
+    private static final int MAX_ARRAY_SIZE = Integer.MAX_VALUE - 8;
+
+    private int[] elements;
+    private int size;
+
+    /**
+     * 使用默认的初始容量<code>16</code>创建
+     */
+    public IntArrayBuilder() {
+        this(DEFAULT_INITIAL_CAPACITY);
+    }
+
+    /**
+     * 使用指定的初始容量创建
+     *
+     * @param initialCapacity 初始容量
+     * @throws IllegalArgumentException 如果初始容量小于<code>0</code>
+     */
+    public IntArrayBuilder(int initialCapacity) {
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("Illegal Capacity: " + initialCapacity);
+        }
+
+        elements = new int[initialCapacity];
+    }
+
+    /**
+     * 添加一个元素
+     *
+     * @param value 元素
+     * @return 当前对象
+     */
+    public IntArrayBuilder add(int value) {
+        if (size == elements.length) {
+            grow(size + 1);
+        }
+
+        elements[size++] = value;
+        return this;
+    }
+
+    /**
+     * 添加多个元素
+     *
+     * @param values 元素
+     * @return 当前对象
+     */
+    public IntArrayBuilder addAll(int... values) {
+        if (values == null) {
+            return this;
+        }
+
+        return addAll(values, 0, values.length);
+    }
+
+    /**
+     * 添加数组中<code>[offset, offset + length)</code>范围内的元素
+     *
+     * @param values 元素
+     * @param offset 起始位置
+     * @param length 个数
+     * @return 当前对象
+     */
+    public IntArrayBuilder addAll(int[] values, int offset, int length) {
+        ensureCapacity(size + length);
+        System.arraycopy(values, offset, elements, size, length);
+        size += length;
+        return this;
+    }
+
+    /**
+     * 取得指定位置的元素
+     *
+     * @param index 位置
+     * @return 元素
+     * @throws IndexOutOfBoundsException 如果位置越界
+     */
+    public int get(int index) {
+        checkIndex(index);
+        return elements[index];
+    }
+
+    /**
+     * 设置指定位置的元素
+     *
+     * @param index 位置
+     * @param value 元素
+     * @return 原来的元素
+     * @throws IndexOutOfBoundsException 如果位置越界
+     */
+    public int set(int index, int value) {
+        checkIndex(index);
+
+        int old = elements[index];
+        elements[index] = value;
+        return old;
+    }
+
+    /**
+     * 元素个数
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * 是否没有元素
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * 清空元素，保留已分配的容量
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * 确保容量不小于<code>minCapacity</code>
+     *
+     * @param minCapacity 最小容量
+     */
+    public void ensureCapacity(int minCapacity) {
+        if (minCapacity > elements.length) {
+            grow(minCapacity);
+        }
+    }
+
+    /**
+     * 返回包含所有元素的新数组
+     */
+    public int[] toArray() {
+        return Arrays.copyOf(elements, size);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder buffer = new StringBuilder("[");
+        for (int i = 0; i < size; i++) {
+            if (i > 0) {
+                buffer.append(", ");
+            }
+            buffer.append(elements[i]);
+        }
+        return buffer.append(']').toString();
+    }
+
+    private void grow(int minCapacity) {
+        if (minCapacity < 0 || minCapacity > MAX_ARRAY_SIZE) {
+            throw new OutOfMemoryError("Required array size too large");
+        }
+
+        int newCapacity = elements.length << 1;
+        if (newCapacity < minCapacity || newCapacity < 0) {
+            newCapacity = minCapacity;
+        }
+        if (newCapacity > MAX_ARRAY_SIZE) {
+            newCapacity = MAX_ARRAY_SIZE;
+        }
+
+        elements = Arrays.copyOf(elements, newCapacity);
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+    }
+}
@@ -0,0 +1,681 @@
+package cn.aurthur.lang.collection;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+/**
+ * 压缩的<code>int</code>位图（参考 Roaring Bitmap）。
+ * <div>
+ * 按高 16 位把整数分成若干块，每块根据元素个数选择容器：不超过 4096 个元素时使用有序的<code>char[]</code>，
+ * 否则使用 8KB 的位图。稀疏数据不会像<code>java.util.BitSet</code>那样按最大值分配内存，
+ * 稠密数据又能按字做位运算。
+ * </div>
+ * <div>
+ * 元素按有符号整数的顺序排列。非线程安全。
+ * </div>
+ */
+public class IntBitmap {
+    /**
+     * 数组容器的最大元素个数，超过后转为位图容器
+     */
+    private static final int ARRAY_MAX_SIZE = 4096;
+
+    /**
+     * 位图容器的<code>long</code>个数
+     */
+    private static final int BITMAP_WORDS = 1 << 10;
+
+    /**
+     * 每块的 key，即翻转符号位后的高 16 位，升序排列
+     */
+    private char[] keys;
+    private Container[] containers;
+    private int size;
+
+    /**
+     * 创建一个空的位图
+     */
+    public IntBitmap() {
+        keys = new char[4];
+        containers = new Container[4];
+    }
+
+    private IntBitmap(char[] keys, Container[] containers, int size) {
+        this.keys = keys;
+        this.containers = containers;
+        this.size = size;
+    }
+
+    /**
+     * 用指定的元素创建位图
+     *
+     * @param values 元素，可以无序、重复
+     * @return 位图
+     */
+    public static IntBitmap of(int... values) {
+        IntBitmap bitmap = new IntBitmap();
+        if (values != null) {
+            for (int value : values) {
+                bitmap.add(value);
+            }
+        }
+        return bitmap;
+    }
+
+    /**
+     * 添加元素
+     *
+     * @param value 元素
+     * @return 如果原来不存在则返回<code>true</code>
+     */
+    public boolean add(int value) {
+        char key = highKey(value);
+        int i = indexOfKey(key);
+        if (i < 0) {
+            i = -i - 1;
+            insertContainer(i, key, new ArrayContainer(new char[4], 0));
+        }
+
+        Container c = containers[i];
+        int before = c.cardinality();
+        containers[i] = c.add((char) value);
+        return containers[i].cardinality() > before;
+    }
+
+    /**
+     * 删除元素
+     *
+     * @param value 元素
+     * @return 如果原来存在则返回<code>true</code>
+     */
+    public boolean remove(int value) {
+        int i = indexOfKey(highKey(value));
+        if (i < 0) {
+            return false;
+        }
+
+        Container c = containers[i];
+        int before = c.cardinality();
+        c = c.remove((char) value);
+        if (c.cardinality() == before) {
+            return false;
+        }
+
+        if (c.cardinality() == 0) {
+            removeContainer(i);
+        } else {
+            containers[i] = c;
+        }
+        return true;
+    }
+
+    /**
+     * 是否包含指定元素
+     */
+    public boolean contains(int value) {
+        int i = indexOfKey(highKey(value));
+        return i >= 0 && containers[i].contains((char) value);
+    }
+
+    /**
+     * 元素个数
+     */
+    public int cardinality() {
+        int n = 0;
+        for (int i = 0; i < size; i++) {
+            n += containers[i].cardinality();
+        }
+        return n;
+    }
+
+    /**
+     * 是否为空
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * 交集，不修改当前对象
+     */
+    public IntBitmap and(IntBitmap other) {
+        char[] rKeys = new char[Math.min(size, other.size)];
+        Container[] rContainers = new Container[rKeys.length];
+        int n = 0;
+
+        for (int i = 0, j = 0; i < size && j < other.size; ) {
+            if (keys[i] < other.keys[j]) {
+                i++;
+            } else if (keys[i] > other.keys[j]) {
+                j++;
+            } else {
+                Container c = containers[i].and(other.containers[j]);
+                if (c.cardinality() > 0) {
+                    rKeys[n] = keys[i];
+                    rContainers[n++] = c;
+                }
+                i++;
+                j++;
+            }
+        }
+
+        return new IntBitmap(rKeys, rContainers, n);
+    }
+
+    /**
+     * 并集，不修改当前对象
+     */
+    public IntBitmap or(IntBitmap other) {
+        char[] rKeys = new char[size + other.size];
+        Container[] rContainers = new Container[rKeys.length];
+        int n = 0;
+        int i = 0;
+        int j = 0;
+
+        while (i < size && j < other.size) {
+            if (keys[i] < other.keys[j]) {
+                rKeys[n] = keys[i];
+                rContainers[n++] = containers[i++].copy();
+            } else if (keys[i] > other.keys[j]) {
+                rKeys[n] = other.keys[j];
+                rContainers[n++] = other.containers[j++].copy();
+            } else {
+                rKeys[n] = keys[i];
+                rContainers[n++] = containers[i++].or(other.containers[j++]);
+            }
+        }
+        for (; i < size; i++) {
+            rKeys[n] = keys[i];
+            rContainers[n++] = containers[i].copy();
+        }
+        for (; j < other.size; j++) {
+            rKeys[n] = other.keys[j];
+            rContainers[n++] = other.containers[j].copy();
+        }
+
+        return new IntBitmap(rKeys, rContainers, n);
+    }
+
+    /**
+     * 差集（当前对象 - other），不修改当前对象
+     */
+    public IntBitmap andNot(IntBitmap other) {
+        char[] rKeys = new char[size];
+        Container[] rContainers = new Container[size];
+        int n = 0;
+
+        for (int i = 0, j = 0; i < size; i++) {
+            while (j < other.size && other.keys[j] < keys[i]) {
+                j++;
+            }
+
+            Container c = j < other.size && other.keys[j] == keys[i]
+                    ? containers[i].andNot(other.containers[j]) : containers[i].copy();
+            if (c.cardinality() > 0) {
+                rKeys[n] = keys[i];
+                rContainers[n++] = c;
+            }
+        }
+
+        return new IntBitmap(rKeys, rContainers, n);
+    }
+
+    /**
+     * 按升序返回所有元素
+     */
+    public int[] toArray() {
+        int[] result = new int[cardinality()];
+        int n = 0;
+        for (int i = 0; i < size; i++) {
+            n = containers[i].fill(result, n, (keys[i] ^ 0x8000) << 16);
+        }
+        return result;
+    }
+
+    /**
+     * 按升序遍历所有元素
+     */
+    public PrimitiveIterator.OfInt iterator() {
+        return new PrimitiveIterator.OfInt() {
+            private int block;
+            private int position = -1;
+
+            {
+                advance();
+            }
+
+            private void advance() {
+                while (block < size) {
+                    position = containers[block].next(position + 1);
+                    if (position >= 0) {
+                        return;
+                    }
+                    block++;
+                    position = -1;
+                }
+            }
+
+            @Override
+            public boolean hasNext() {
+                return block < size;
+            }
+
+            @Override
+            public int nextInt() {
+                if (block >= size) {
+                    throw new NoSuchElementException();
+                }
+
+                int value = ((keys[block] ^ 0x8000) << 16) | position;
+                advance();
+                return value;
+            }
+        };
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof IntBitmap)) {
+            return false;
+        }
+
+        return Arrays.equals(toArray(), ((IntBitmap) obj).toArray());
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(toArray());
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(toArray());
+    }
+
+    private static char highKey(int value) {
+        return (char) ((value >>> 16) ^ 0x8000);
+    }
+
+    private int indexOfKey(char key) {
+        return Arrays.binarySearch(keys, 0, size, key);
+    }
+
+    private void insertContainer(int index, char key, Container container) {
+        if (size == keys.length) {
+            int capacity = Math.max(4, size * 2);
+            keys = Arrays.copyOf(keys, capacity);
+            containers = Arrays.copyOf(containers, capacity);
+        }
+
+        System.arraycopy(keys, index, keys, index + 1, size - index);
+        System.arraycopy(containers, index, containers, index + 1, size - index);
+        keys[index] = key;
+        containers[index] = container;
+        size++;
+    }
+
+    private void removeContainer(int index) {
+        System.arraycopy(keys, index + 1, keys, index, size - index - 1);
+        System.arraycopy(containers, index + 1, containers, index, size - index - 1);
+        containers[--size] = null;
+    }
+
+    // ==========================================================================
+    // 容器
+    // ==========================================================================
+
+    /**
+     * 存放低 16 位的容器，修改操作可能返回另一种容器
+     */
+    private abstract static class Container {
+        abstract int cardinality();
+
+        abstract boolean contains(char value);
+
+        abstract Container add(char value);
+
+        abstract Container remove(char value);
+
+        abstract Container and(Container other);
+
+        abstract Container or(Container other);
+
+        abstract Container andNot(Container other);
+
+        abstract Container copy();
+
+        /**
+         * 第一个不小于<code>from</code>的元素，没有则返回<code>-1</code>
+         */
+        abstract int next(int from);
+
+        /**
+         * 把元素（加上高位<code>high</code>）写入<code>array</code>，返回新的写入位置
+         */
+        abstract int fill(int[] array, int offset, int high);
+    }
+
+    private static final class ArrayContainer extends Container {
+        char[] values;
+        int cardinality;
+
+        ArrayContainer(char[] values, int cardinality) {
+            this.values = values;
+            this.cardinality = cardinality;
+        }
+
+        @Override
+        int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        boolean contains(char value) {
+            return Arrays.binarySearch(values, 0, cardinality, value) >= 0;
+        }
+
+        @Override
+        Container add(char value) {
+            int i = Arrays.binarySearch(values, 0, cardinality, value);
+            if (i >= 0) {
+                return this;
+            }
+
+            if (cardinality >= ARRAY_MAX_SIZE) {
+                return toBitmap().add(value);
+            }
+
+            i = -i - 1;
+            if (cardinality == values.length) {
+                values = Arrays.copyOf(values, Math.min(ARRAY_MAX_SIZE, Math.max(4, cardinality * 2)));
+            }
+            System.arraycopy(values, i, values, i + 1, cardinality - i);
+            values[i] = value;
+            cardinality++;
+            return this;
+        }
+
+        @Override
+        Container remove(char value) {
+            int i = Arrays.binarySearch(values, 0, cardinality, value);
+            if (i >= 0) {
+                System.arraycopy(values, i + 1, values, i, cardinality - i - 1);
+                cardinality--;
+            }
+            return this;
+        }
+
+        @Override
+        Container and(Container other) {
+            char[] result = new char[Math.min(cardinality, other.cardinality())];
+            int n = 0;
+
+            if (other instanceof ArrayContainer) {
+                ArrayContainer o = (ArrayContainer) other;
+                for (int i = 0, j = 0; i < cardinality && j < o.cardinality; ) {
+                    if (values[i] < o.values[j]) {
+                        i++;
+                    } else if (values[i] > o.values[j]) {
+                        j++;
+                    } else {
+                        result[n++] = values[i];
+                        i++;
+                        j++;
+                    }
+                }
+            } else {
+                for (int i = 0; i < cardinality; i++) {
+                    if (other.contains(values[i])) {
+                        result[n++] = values[i];
+                    }
+                }
+            }
+
+            return new ArrayContainer(result, n);
+        }
+
+        @Override
+        Container or(Container other) {
+            if (other instanceof BitmapContainer) {
+                return other.or(this);
+            }
+
+            ArrayContainer o = (ArrayContainer) other;
+            char[] result = new char[cardinality + o.cardinality];
+            int n = 0;
+            int i = 0;
+            int j = 0;
+            while (i < cardinality && j < o.cardinality) {
+                if (values[i] < o.values[j]) {
+                    result[n++] = values[i++];
+                } else if (values[i] > o.values[j]) {
+                    result[n++] = o.values[j++];
+                } else {
+                    result[n++] = values[i++];
+                    j++;
+                }
+            }
+            while (i < cardinality) {
+                result[n++] = values[i++];
+            }
+            while (j < o.cardinality) {
+                result[n++] = o.values[j++];
+            }
+
+            ArrayContainer c = new ArrayContainer(result, n);
+            return n > ARRAY_MAX_SIZE ? c.toBitmap() : c;
+        }
+
+        @Override
+        Container andNot(Container other) {
+            char[] result = new char[cardinality];
+            int n = 0;
+            for (int i = 0; i < cardinality; i++) {
+                if (!other.contains(values[i])) {
+                    result[n++] = values[i];
+                }
+            }
+            return new ArrayContainer(result, n);
+        }
+
+        @Override
+        Container copy() {
+            return new ArrayContainer(Arrays.copyOf(values, cardinality), cardinality);
+        }
+
+        @Override
+        int next(int from) {
+            int i = Arrays.binarySearch(values, 0, cardinality, (char) from);
+            if (i < 0) {
+                i = -i - 1;
+            }
+            return from <= 0xFFFF && i < cardinality ? values[i] : -1;
+        }
+
+        @Override
+        int fill(int[] array, int offset, int high) {
+            for (int i = 0; i < cardinality; i++) {
+                array[offset++] = high | values[i];
+            }
+            return offset;
+        }
+
+        BitmapContainer toBitmap() {
+            long[] words = new long[BITMAP_WORDS];
+            for (int i = 0; i < cardinality; i++) {
+                words[values[i] >>> 6] |= 1L << values[i];
+            }
+            return new BitmapContainer(words, cardinality);
+        }
+    }
+
+    private static final class BitmapContainer extends Container {
+        final long[] words;
+        int cardinality;
+
+        BitmapContainer(long[] words, int cardinality) {
+            this.words = words;
+            this.cardinality = cardinality;
+        }
+
+        @Override
+        int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        boolean contains(char value) {
+            return (words[value >>> 6] & (1L << value)) != 0;
+        }
+
+        @Override
+        Container add(char value) {
+            long before = words[value >>> 6];
+            long after = before | (1L << value);
+            if (before != after) {
+                words[value >>> 6] = after;
+                cardinality++;
+            }
+            return this;
+        }
+
+        @Override
+        Container remove(char value) {
+            long before = words[value >>> 6];
+            long after = before & ~(1L << value);
+            if (before != after) {
+                words[value >>> 6] = after;
+                cardinality--;
+            }
+            return cardinality <= ARRAY_MAX_SIZE ? toArrayContainer() : this;
+        }
+
+        @Override
+        Container and(Container other) {
+            if (other instanceof ArrayContainer) {
+                return other.and(this);
+            }
+
+            long[] o = ((BitmapContainer) other).words;
+            long[] result = new long[BITMAP_WORDS];
+            int n = 0;
+            for (int i = 0; i < BITMAP_WORDS; i++) {
+                result[i] = words[i] & o[i];
+                n += Long.bitCount(result[i]);
+            }
+            return normalize(result, n);
+        }
+
+        @Override
+        Container or(Container other) {
+            long[] result = words.clone();
+            int n = cardinality;
+
+            if (other instanceof ArrayContainer) {
+                ArrayContainer o = (ArrayContainer) other;
+                for (int i = 0; i < o.cardinality; i++) {
+                    char v = o.values[i];
+                    long before = result[v >>> 6];
+                    result[v >>> 6] = before | (1L << v);
+                    if (before != result[v >>> 6]) {
+                        n++;
+                    }
+                }
+            } else {
+                long[] o = ((BitmapContainer) other).words;
+                n = 0;
+                for (int i = 0; i < BITMAP_WORDS; i++) {
+                    result[i] |= o[i];
+                    n += Long.bitCount(result[i]);
+                }
+            }
+
+            return new BitmapContainer(result, n);
+        }
+
+        @Override
+        Container andNot(Container other) {
+            long[] result = words.clone();
+            int n = cardinality;
+
+            if (other instanceof ArrayContainer) {
+                ArrayContainer o = (ArrayContainer) other;
+                for (int i = 0; i < o.cardinality; i++) {
+                    char v = o.values[i];
+                    long before = result[v >>> 6];
+                    result[v >>> 6] = before & ~(1L << v);
+                    if (before != result[v >>> 6]) {
+                        n--;
+                    }
+                }
+            } else {
+                long[] o = ((BitmapContainer) other).words;
+                n = 0;
+                for (int i = 0; i < BITMAP_WORDS; i++) {
+                    result[i] &= ~o[i];
+                    n += Long.bitCount(result[i]);
+                }
+            }
+
+            return normalize(result, n);
+        }
+
+        @Override
+        Container copy() {
+            return new BitmapContainer(words.clone(), cardinality);
+        }
+
+        @Override
+        int next(int from) {
+            if (from > 0xFFFF) {
+                return -1;
+            }
+
+            int i = from >>> 6;
+            long word = words[i] & (-1L << from);
+            while (true) {
+                if (word != 0) {
+                    return (i << 6) + Long.numberOfTrailingZeros(word);
+                }
+                if (++i == BITMAP_WORDS) {
+                    return -1;
+                }
+                word = words[i];
+            }
+        }
+
+        @Override
+        int fill(int[] array, int offset, int high) {
+            for (int i = 0; i < BITMAP_WORDS; i++) {
+                long word = words[i];
+                while (word != 0) {
+                    array[offset++] = high | ((i << 6) + Long.numberOfTrailingZeros(word));
+                    word &= word - 1;
+                }
+            }
+            return offset;
+        }
+
+        private static Container normalize(long[] words, int cardinality) {
+            BitmapContainer c = new BitmapContainer(words, cardinality);
+            return cardinality <= ARRAY_MAX_SIZE ? c.toArrayContainer() : c;
+        }
+
+        ArrayContainer toArrayContainer() {
+            char[] values = new char[cardinality];
+            int n = 0;
+            for (int i = 0; i < BITMAP_WORDS; i++) {
+                long word = words[i];
+                while (word != 0) {
+                    values[n++] = (char) ((i << 6) + Long.numberOfTrailingZeros(word));
+                    word &= word - 1;
+                }
+            }
+            return new ArrayContainer(values, n);
+        }
+    }
+}
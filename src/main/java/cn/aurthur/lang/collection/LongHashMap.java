@@ -0,0 +1,320 @@
+package cn.aurthur.lang.collection;
+
+import java.util.Arrays;
+
+/**
+ * 使用<code>long</code>作为key的hash表，开放定址（线性探测），不装箱，也不为每个元素创建<code>Entry</code>。
+ * <div>
+ * 非线程安全。
+ * </div>
+ */
+public class LongHashMap<T> {
+    /**
+     * 默认的初始容量 - <code>2的整数次幂</code>.
+     */
+    private static final int DEFAULT_INITIAL_CAPACITY = 16;
+
+    /**
+     * 最大容量 - <code>2的整数次幂</code>.
+     */
+    private static final int MAXIMUM_CAPACITY = 1 << 30;
+
+    /**
+     * 负载系数，开放定址法需要较低的负载系数
+     */
+    private static final float LOAD_FACTOR = 0.5f;
+
+    /**
+     * 表示空槽的 key，真正为<code>0</code>的 key 单独存放
+     */
+    private static final long FREE_KEY = 0;
+
+    // 私有变量
+    private long[] keys;
+    private Object[] values;
+    private int count;
+    private int threshold;
+    private int mask;
+    private boolean hasZeroKey;
+    private Object zeroValue;
+
+    /**
+     * 创建一个hash表，使用默认的初始容量<code>16</code>。
+     */
+    public LongHashMap() {
+        this(DEFAULT_INITIAL_CAPACITY);
+    }
+
+    /**
+     * 创建一个hash表，容量可以容纳<code>expectedSize</code>个元素而不扩容。
+     *
+     * @param expectedSize 预计的元素个数
+     * @throws IllegalArgumentException 如果预计的元素个数小于<code>0</code>
+     */
+    public LongHashMap(int expectedSize) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("Illegal Capacity: " + expectedSize);
+        }
+
+        allocate(tableSizeFor(expectedSize));
+    }
+
+    /**
+     * 取得当前hash表中元素的个数。
+     */
+    public int size() {
+        return hasZeroKey ? count + 1 : count;
+    }
+
+    /**
+     * 测试hash表是否为空。
+     */
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * 查看hash表中是否存在指定的key。
+     */
+    public boolean containsKey(long key) {
+        if (key == FREE_KEY) {
+            return hasZeroKey;
+        }
+
+        return indexOf(key) >= 0;
+    }
+
+    /**
+     * 取得指定key对应的值，不存在时返回<code>null</code>。
+     */
+    @SuppressWarnings("unchecked")
+    public T get(long key) {
+        if (key == FREE_KEY) {
+            return hasZeroKey ? (T) zeroValue : null;
+        }
+
+        int index = indexOf(key);
+        return index >= 0 ? (T) values[index] : null;
+    }
+
+    /**
+     * 将key和指定对象相关联，并保存在hash表中。
+     *
+     * @return 原来和key相关联的对象，如果没有则返回<code>null</code>
+     */
+    @SuppressWarnings("unchecked")
+    public T put(long key, T value) {
+        if (key == FREE_KEY) {
+            T old = (T) zeroValue;
+            zeroValue = value;
+            hasZeroKey = true;
+            return old;
+        }
+
+        int index = hash(key) & mask;
+        while (keys[index] != FREE_KEY) {
+            if (keys[index] == key) {
+                T old = (T) values[index];
+                values[index] = value;
+                return old;
+            }
+            index = (index + 1) & mask;
+        }
+
+        keys[index] = key;
+        values[index] = value;
+        if (++count > threshold) {
+            rehash(keys.length << 1);
+        }
+        return null;
+    }
+
+    /**
+     * 将另一个hash表中的所有元素放入当前hash表，key相同时覆盖。
+     */
+    @SuppressWarnings("unchecked")
+    public void putAll(LongHashMap<? extends T> map) {
+        if (map.hasZeroKey) {
+            put(FREE_KEY, (T) map.zeroValue);
+        }
+
+        long[] otherKeys = map.keys;
+        Object[] otherValues = map.values;
+        for (int i = 0; i < otherKeys.length; i++) {
+            if (otherKeys[i] != FREE_KEY) {
+                put(otherKeys[i], (T) otherValues[i]);
+            }
+        }
+    }
+
+    /**
+     * 从hash表中删除一个key及其相关联的对象。
+     *
+     * @return 被删除的对象，如果不存在则返回<code>null</code>
+     */
+    @SuppressWarnings("unchecked")
+    public T remove(long key) {
+        if (key == FREE_KEY) {
+            T old = (T) zeroValue;
+            hasZeroKey = false;
+            zeroValue = null;
+            return old;
+        }
+
+        int index = indexOf(key);
+        if (index < 0) {
+            return null;
+        }
+
+        T old = (T) values[index];
+        shiftKeys(index);
+        count--;
+        return old;
+    }
+
+    /**
+     * 清除所有元素。
+     */
+    public void clear() {
+        Arrays.fill(keys, FREE_KEY);
+        Arrays.fill(values, null);
+        count = 0;
+        hasZeroKey = false;
+        zeroValue = null;
+    }
+
+    /**
+     * 取得所有的key。
+     */
+    public long[] keys() {
+        long[] result = new long[size()];
+        int n = 0;
+        if (hasZeroKey) {
+            result[n++] = FREE_KEY;
+        }
+        for (long key : keys) {
+            if (key != FREE_KEY) {
+                result[n++] = key;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 取得所有的值，顺序与{@link #keys()}相同。
+     */
+    public Object[] values() {
+        Object[] result = new Object[size()];
+        int n = 0;
+        if (hasZeroKey) {
+            result[n++] = zeroValue;
+        }
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != FREE_KEY) {
+                result[n++] = values[i];
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder buffer = new StringBuilder("{");
+        boolean first = true;
+        if (hasZeroKey) {
+            buffer.append(FREE_KEY).append('=').append(zeroValue);
+            first = false;
+        }
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != FREE_KEY) {
+                if (!first) {
+                    buffer.append(", ");
+                }
+                buffer.append(keys[i]).append('=').append(values[i]);
+                first = false;
+            }
+        }
+        return buffer.append('}').toString();
+    }
+
+    static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    static int tableSizeFor(int expectedSize) {
+        long needed = (long) Math.ceil(Math.max(expectedSize, 1) / (double) LOAD_FACTOR);
+        int capacity = DEFAULT_INITIAL_CAPACITY;
+        while (capacity < needed && capacity < MAXIMUM_CAPACITY) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+
+    private int indexOf(long key) {
+        int index = hash(key) & mask;
+        while (keys[index] != FREE_KEY) {
+            if (keys[index] == key) {
+                return index;
+            }
+            index = (index + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * 删除后把后面同一探测链上的元素前移，保证查找不会提前遇到空槽
+     */
+    private void shiftKeys(int index) {
+        while (true) {
+            int last = index;
+            index = (index + 1) & mask;
+            while (true) {
+                long key = keys[index];
+                if (key == FREE_KEY) {
+                    keys[last] = FREE_KEY;
+                    values[last] = null;
+                    return;
+                }
+
+                int slot = hash(key) & mask;
+                // slot 不在 (last, index] 之间时可以前移
+                if (last <= index ? (last >= slot || slot > index) : (last >= slot && slot > index)) {
+                    break;
+                }
+                index = (index + 1) & mask;
+            }
+            keys[last] = keys[index];
+            values[last] = values[index];
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new Object[capacity];
+        mask = capacity - 1;
+        threshold = capacity == MAXIMUM_CAPACITY ? capacity - 1 : (int) (capacity * LOAD_FACTOR);
+    }
+
+    private void rehash(int newCapacity) {
+        if (keys.length == MAXIMUM_CAPACITY) {
+            throw new IllegalStateException("LongHashMap too large");
+        }
+
+        long[] oldKeys = keys;
+        Object[] oldValues = values;
+        allocate(newCapacity);
+
+        for (int i = 0; i < oldKeys.length; i++) {
+            long key = oldKeys[i];
+            if (key != FREE_KEY) {
+                int index = hash(key) & mask;
+                while (keys[index] != FREE_KEY) {
+                    index = (index + 1) & mask;
+                }
+                keys[index] = key;
+                values[index] = oldValues[i];
+            }
+        }
+    }
+}
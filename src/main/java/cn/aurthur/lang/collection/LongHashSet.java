@@ -0,0 +1,218 @@
+package cn.aurthur.lang.collection;
+
+import java.util.Arrays;
+
+/**
+ * <code>long</code>集合，开放定址（线性探测），不装箱。
+ * <div>
+ * 非线程安全。
+ * </div>
+ */
+public class LongHashSet {
+    /**
+     * 表示空槽的值，真正的<code>0</code>单独记录
+     */
+    private static final long FREE_KEY = 0;
+
+    private static final int MAXIMUM_CAPACITY = 1 << 30;
+
+    // 私有变量
+    private long[] keys;
+    private int count;
+    private int threshold;
+    private int mask;
+    private boolean hasZeroKey;
+
+    /**
+     * 创建一个集合，使用默认的初始容量<code>16</code>。
+     */
+    public LongHashSet() {
+        this(16);
+    }
+
+    /**
+     * 创建一个集合，容量可以容纳<code>expectedSize</code>个元素而不扩容。
+     *
+     * @param expectedSize 预计的元素个数
+     * @throws IllegalArgumentException 如果预计的元素个数小于<code>0</code>
+     */
+    public LongHashSet(int expectedSize) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("Illegal Capacity: " + expectedSize);
+        }
+
+        allocate(LongHashMap.tableSizeFor(expectedSize));
+    }
+
+    /**
+     * 取得元素个数。
+     */
+    public int size() {
+        return hasZeroKey ? count + 1 : count;
+    }
+
+    /**
+     * 测试集合是否为空。
+     */
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * 查看集合中是否存在指定的值。
+     */
+    public boolean contains(long key) {
+        if (key == FREE_KEY) {
+            return hasZeroKey;
+        }
+
+        int index = LongHashMap.hash(key) & mask;
+        while (keys[index] != FREE_KEY) {
+            if (keys[index] == key) {
+                return true;
+            }
+            index = (index + 1) & mask;
+        }
+        return false;
+    }
+
+    /**
+     * 添加一个值。
+     *
+     * @return 如果集合中原来没有该值, 则返回<code>true</code>
+     */
+    public boolean add(long key) {
+        if (key == FREE_KEY) {
+            boolean added = !hasZeroKey;
+            hasZeroKey = true;
+            return added;
+        }
+
+        int index = LongHashMap.hash(key) & mask;
+        while (keys[index] != FREE_KEY) {
+            if (keys[index] == key) {
+                return false;
+            }
+            index = (index + 1) & mask;
+        }
+
+        keys[index] = key;
+        if (++count > threshold) {
+            rehash(keys.length << 1);
+        }
+        return true;
+    }
+
+    /**
+     * 添加另一个集合中的所有值。
+     */
+    public void addAll(LongHashSet set) {
+        if (set.hasZeroKey) {
+            hasZeroKey = true;
+        }
+        for (long key : set.keys) {
+            if (key != FREE_KEY) {
+                add(key);
+            }
+        }
+    }
+
+    /**
+     * 删除一个值。
+     *
+     * @return 如果集合中原来有该值, 则返回<code>true</code>
+     */
+    public boolean remove(long key) {
+        if (key == FREE_KEY) {
+            boolean removed = hasZeroKey;
+            hasZeroKey = false;
+            return removed;
+        }
+
+        int index = LongHashMap.hash(key) & mask;
+        while (keys[index] != key) {
+            if (keys[index] == FREE_KEY) {
+                return false;
+            }
+            index = (index + 1) & mask;
+        }
+
+        // 把同一探测链上后面的元素前移
+        while (true) {
+            int last = index;
+            index = (index + 1) & mask;
+            long next;
+            while (true) {
+                next = keys[index];
+                if (next == FREE_KEY) {
+                    keys[last] = FREE_KEY;
+                    count--;
+                    return true;
+                }
+
+                int slot = LongHashMap.hash(next) & mask;
+                if (last <= index ? (last >= slot || slot > index) : (last >= slot && slot > index)) {
+                    break;
+                }
+                index = (index + 1) & mask;
+            }
+            keys[last] = next;
+        }
+    }
+
+    /**
+     * 清除所有元素。
+     */
+    public void clear() {
+        Arrays.fill(keys, FREE_KEY);
+        count = 0;
+        hasZeroKey = false;
+    }
+
+    /**
+     * 转换为数组，顺序不确定。
+     */
+    public long[] toArray() {
+        long[] result = new long[size()];
+        int n = 0;
+        if (hasZeroKey) {
+            result[n++] = FREE_KEY;
+        }
+        for (long key : keys) {
+            if (key != FREE_KEY) {
+                result[n++] = key;
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(toArray());
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        mask = capacity - 1;
+        threshold = capacity == MAXIMUM_CAPACITY ? capacity - 1 : capacity >> 1;
+    }
+
+    private void rehash(int newCapacity) {
+        if (keys.length == MAXIMUM_CAPACITY) {
+            throw new IllegalStateException("LongHashSet too large");
+        }
+
+        long[] oldKeys = keys;
+        allocate(newCapacity);
+
+        for (long key : oldKeys) {
+            if (key != FREE_KEY) {
+                int index = LongHashMap.hash(key) & mask;
+                while (keys[index] != FREE_KEY) {
+                    index = (index + 1) & mask;
+                }
+                keys[index] = key;
+            }
+        }
+    }
+}
@@ -0,0 +1,349 @@
+package cn.aurthur.lang.pool;
+
+import cn.aurthur.utils.StringUtil;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 线程安全的字符串去重池，用于大量重复的短字符串（状态码、城市名、标签等）。
+ * <div>
+ * 与{@link String#intern()}不同，池中的字符串是弱引用，不再被使用时会被回收；池的大小有上限，超过上限后新的字符串不再入池，直接返回。
+ * 池按 hash 分成多个段，每个段独立加锁。
+ * </div>
+ * <div>
+ * {@link #intern(char[], int, int)}和{@link #intern(byte[], int, int)}在命中时直接与池中的字符串比较，不创建临时字符串。
+ * </div>
+ *
+ * <pre>
+ * StringInterner interner = new StringInterner();
+ * String city = interner.intern(bytes, offset, length);
+ * </pre>
+ *
+ * @author aurthur
+ * @since 1.0.0
+ */
+public final class StringInterner {
+    /**
+     * 默认的最大字符串个数
+     */
+    public static final int DEFAULT_MAX_SIZE = 1 << 20;
+
+    private static final int SEGMENT_SHIFT = 28;
+    private static final int SEGMENTS = 1 << (32 - SEGMENT_SHIFT);
+    private static final int INITIAL_SEGMENT_CAPACITY = 16;
+
+    /**
+     * 解码非 ASCII 字节时复用的缓冲区的最大长度
+     */
+    private static final int MAX_CACHED_BUFFER_SIZE = 4096;
+
+    private static final ThreadLocal<char[]> DECODE_BUFFER = ThreadLocal.withInitial(() -> new char[256]);
+
+    private final Segment[] segments = new Segment[SEGMENTS];
+
+    /**
+     * 创建一个字符串池，最多存放{@link #DEFAULT_MAX_SIZE}个字符串。
+     */
+    public StringInterner() {
+        this(DEFAULT_MAX_SIZE);
+    }
+
+    /**
+     * 创建一个字符串池。
+     *
+     * @param maxSize 最多存放的字符串个数
+     * @throws IllegalArgumentException 如果<code>maxSize</code>小于<code>1</code>
+     */
+    public StringInterner(int maxSize) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Illegal max size: " + maxSize);
+        }
+
+        int segmentSize = Math.max(1, maxSize / SEGMENTS);
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment(segmentSize);
+        }
+    }
+
+    /**
+     * 取得与<code>str</code>相等的池中字符串，池中没有时放入<code>str</code>。
+     *
+     * @param str 字符串
+     * @return 池中的字符串，如果<code>str</code>为<code>null</code>则返回<code>null</code>
+     */
+    public String intern(String str) {
+        if (str == null) {
+            return null;
+        }
+
+        int hash = str.hashCode();
+        Segment segment = segmentFor(hash);
+        String s = segment.find(hash, str);
+        return s != null ? s : segment.add(hash, str);
+    }
+
+    /**
+     * 取得与<code>chars</code>中指定区域相等的池中字符串，命中时不创建新的字符串。
+     *
+     * @param chars  字符数组
+     * @param offset 起始位置
+     * @param length 长度
+     * @return 池中的字符串
+     * @throws IndexOutOfBoundsException 如果区域越界
+     */
+    public String intern(char[] chars, int offset, int length) {
+        checkRange(chars.length, offset, length);
+
+        int hash = 0;
+        for (int i = offset, end = offset + length; i < end; i++) {
+            hash = 31 * hash + chars[i];
+        }
+
+        Segment segment = segmentFor(hash);
+        String s = segment.find(hash, chars, offset, length);
+        return s != null ? s : segment.add(hash, new String(chars, offset, length));
+    }
+
+    /**
+     * 取得与 UTF-8 字节中指定区域解码后相等的池中字符串，命中时不创建新的字符串。
+     * <div>
+     * 不合法的 UTF-8 字节按{@link String#String(byte[], int, int, java.nio.charset.Charset)}的方式替换后入池。
+     * </div>
+     *
+     * @param utf8   UTF-8 字节数组
+     * @param offset 起始位置
+     * @param length 长度
+     * @return 池中的字符串
+     * @throws IndexOutOfBoundsException 如果区域越界
+     */
+    public String intern(byte[] utf8, int offset, int length) {
+        checkRange(utf8.length, offset, length);
+
+        int hash = 0;
+        int end = offset + length;
+        int i = offset;
+        for (; i < end && utf8[i] >= 0; i++) {
+            hash = 31 * hash + utf8[i];
+        }
+
+        if (i == end) {
+            Segment segment = segmentFor(hash);
+            String s = segment.find(hash, utf8, offset, length);
+            return s != null ? s : segment.add(hash, new String(utf8, offset, length, StandardCharsets.ISO_8859_1));
+        }
+
+        // 非 ASCII，解码到线程内复用的缓冲区
+        char[] buffer = DECODE_BUFFER.get();
+        if (buffer.length < length) {
+            buffer = new char[length];
+            if (length <= MAX_CACHED_BUFFER_SIZE) {
+                DECODE_BUFFER.set(buffer);
+            }
+        }
+
+        int n = StringUtil.decodeUTF8(utf8, offset, length, buffer, 0);
+        if (n < 0) {
+            return intern(new String(utf8, offset, length, StandardCharsets.UTF_8));
+        }
+        return intern(buffer, 0, n);
+    }
+
+    /**
+     * 池中的字符串个数，包括已被回收但还未清理的。
+     */
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                segment.expungeStaleEntries();
+                size += segment.count;
+            }
+        }
+        return size;
+    }
+
+    /**
+     * 清空字符串池。
+     */
+    public void clear() {
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                segment.clear();
+            }
+        }
+    }
+
+    private Segment segmentFor(int hash) {
+        return segments[spread(hash) >>> SEGMENT_SHIFT];
+    }
+
+    private static int spread(int hash) {
+        int h = hash * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private static void checkRange(int arrayLength, int offset, int length) {
+        if (offset < 0 || length < 0 || offset > arrayLength - length) {
+            throw new IndexOutOfBoundsException("offset: " + offset + ", length: " + length + ", array length: "
+                    + arrayLength);
+        }
+    }
+
+    /**
+     * 池中的元素，字符串被回收后由<code>ReferenceQueue</code>通知清理
+     */
+    private static final class Entry extends WeakReference<String> {
+        final int hash;
+        Entry next;
+
+        Entry(String referent, ReferenceQueue<String> queue, int hash, Entry next) {
+            super(referent, queue);
+            this.hash = hash;
+            this.next = next;
+        }
+    }
+
+    /**
+     * 一个段，拉链法的 hash 表，所有操作都在段上加锁
+     */
+    private static final class Segment {
+        private final ReferenceQueue<String> queue = new ReferenceQueue<>();
+        private final int maxSize;
+        private Entry[] table = new Entry[INITIAL_SEGMENT_CAPACITY];
+        private int count;
+
+        Segment(int maxSize) {
+            this.maxSize = maxSize;
+        }
+
+        synchronized String find(int hash, String str) {
+            for (Entry e = table[spread(hash) & (table.length - 1)]; e != null; e = e.next) {
+                if (e.hash == hash) {
+                    String s = e.get();
+                    if (str.equals(s)) {
+                        return s;
+                    }
+                }
+            }
+            return null;
+        }
+
+        synchronized String find(int hash, char[] chars, int offset, int length) {
+            for (Entry e = table[spread(hash) & (table.length - 1)]; e != null; e = e.next) {
+                if (e.hash == hash) {
+                    String s = e.get();
+                    if (s != null && matches(s, chars, offset, length)) {
+                        return s;
+                    }
+                }
+            }
+            return null;
+        }
+
+        synchronized String find(int hash, byte[] ascii, int offset, int length) {
+            for (Entry e = table[spread(hash) & (table.length - 1)]; e != null; e = e.next) {
+                if (e.hash == hash) {
+                    String s = e.get();
+                    if (s != null && matches(s, ascii, offset, length)) {
+                        return s;
+                    }
+                }
+            }
+            return null;
+        }
+
+        /**
+         * 放入字符串，加锁后重新查找一次，其它线程可能已经放入了相等的字符串
+         */
+        synchronized String add(int hash, String str) {
+            String s = find(hash, str);
+            if (s != null) {
+                return s;
+            }
+
+            expungeStaleEntries();
+            if (count >= maxSize) {
+                return str;
+            }
+
+            if (count >= table.length - (table.length >>> 2)) {
+                resize();
+            }
+
+            int index = spread(hash) & (table.length - 1);
+            table[index] = new Entry(str, queue, hash, table[index]);
+            count++;
+            return str;
+        }
+
+        void expungeStaleEntries() {
+            for (Reference<? extends String> ref; (ref = queue.poll()) != null; ) {
+                Entry stale = (Entry) ref;
+                int index = spread(stale.hash) & (table.length - 1);
+                Entry prev = null;
+                for (Entry e = table[index]; e != null; prev = e, e = e.next) {
+                    if (e == stale) {
+                        if (prev == null) {
+                            table[index] = e.next;
+                        } else {
+                            prev.next = e.next;
+                        }
+                        count--;
+                        break;
+                    }
+                }
+            }
+        }
+
+        void clear() {
+            while (queue.poll() != null) {
+                // 丢弃
+            }
+            table = new Entry[INITIAL_SEGMENT_CAPACITY];
+            count = 0;
+        }
+
+        private void resize() {
+            Entry[] oldTable = table;
+            Entry[] newTable = new Entry[oldTable.length << 1];
+            int mask = newTable.length - 1;
+            for (Entry head : oldTable) {
+                for (Entry e = head; e != null; ) {
+                    Entry next = e.next;
+                    int index = spread(e.hash) & mask;
+                    e.next = newTable[index];
+                    newTable[index] = e;
+                    e = next;
+                }
+            }
+            table = newTable;
+        }
+
+        private static boolean matches(String s, char[] chars, int offset, int length) {
+            if (s.length() != length) {
+                return false;
+            }
+            for (int i = 0; i < length; i++) {
+                if (s.charAt(i) != chars[offset + i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static boolean matches(String s, byte[] ascii, int offset, int length) {
+            if (s.length() != length) {
+                return false;
+            }
+            for (int i = 0; i < length; i++) {
+                if (s.charAt(i) != ascii[offset + i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -1,6 +1,13 @@
 package cn.aurthur.utils;
 
 import java.lang.reflect.Array;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntBinaryOperator;
 
 /**
  * 数组工具类
@@ -23,10 +30,12 @@ import java.lang.reflect.Array;
  * insert 将新元素插入到到已有数组中的某个位置 <br>
  * reverse 数组元素反转 <br>
  * indexOf lastIndexOf contains 在数组中查找一个元素或一个元素序列 <br>
+ * compile 预编译字节序列，用于反复查找同一个字节序列 <br>
  * clone 克隆函数，浅拷贝 <br>
  * toString 将数组转换成易于阅读的字符串表示 <br>
  * isCompatible 判断两个数组相容性 <br>
  * primitiveToString 基本类型转String <br>
+ * parallelXxx 基于 Fork/Join 的大数组并行操作 <br>
  *
  * @author Aurthur
  * @since 1.0.0
@@ -41,6 +50,31 @@ public abstract class ArrayUtil {
      */
     public static final int INDEX_NOT_FOUND = -1;
 
+    /**
+     * <code>indexOf(byte[], byte[], int)</code>中数组长度达到该值时用 SWAR 查找第一个字节。
+     * 一次性的查找不创建{@link BytePattern}，反复查找同一个序列时使用{@link #compile(byte[])}。
+     */
+    private static final int SWAR_SEARCH_THRESHOLD = 1024;
+
+    /**
+     * 数组长度达到该值时使用 SWAR 查找单个字节
+     */
+    private static final int SWAR_MIN_LENGTH = 32;
+
+    /**
+     * 是否对<code>byte[]</code>使用 SWAR 查找。Java 8 的<code>HeapByteBuffer.getLong</code>逐个字节拼装，
+     * 比直接比较字节更慢，Java 9 以后才是一次读取 8 个字节
+     */
+    private static final boolean SWAR_ON_BYTE_ARRAY = isJava9OrLater();
+
+    /**
+     * 并行操作默认的拆分阈值，每个任务至少处理这么多元素
+     */
+    public static final int DEFAULT_PARALLEL_THRESHOLD = 1 << 16;
+
+    private static final long SWAR_ONES = 0x0101010101010101L;
+    private static final long SWAR_HIGHS = 0x8080808080808080L;
+
 
     // ==========================================================================
     // 取得数组长度。
@@ -365,6 +399,398 @@ public abstract class ArrayUtil {
         return result;
     }
 
+    /**
+     * 将新元素添加到已有数组中<br>
+     * 添加新元素会生成一个新的数组，不影响原数组<br>
+     * 新元素以数组传入，避免与<code>append(Object, T...)</code>产生重载歧义
+     *
+     * @param buffer      已有数组
+     * @param newElements 新元素
+     * @return 新数组
+     */
+    public static long[] append(long[] buffer, long[] newElements) {
+        if (EmptyUtil.isEmpty(buffer)) {
+            return newElements;
+        }
+        return insert(buffer, buffer.length, newElements);
+    }
+
+    /**
+     * 将新元素插入到到已有数组中的某个位置<br>
+     * 添加新元素会生成一个新的数组，不影响原数组<br>
+     * 如果插入位置为为负数，从原数组从后向前计数，若大于原数组长度，则空白处用默认值填充<br>
+     * 新元素以数组传入，避免与<code>insert(Object, int, T...)</code>产生重载歧义
+     *
+     * @param buffer      已有数组
+     * @param index       插入位置，此位置为对应此位置元素之前的空档
+     * @param newElements 新元素
+     * @return 新数组
+     */
+    public static long[] insert(long[] buffer, int index, long[] newElements) {
+        if (EmptyUtil.isEmpty(newElements)) {
+            return buffer;
+        }
+        if (EmptyUtil.isEmpty(buffer)) {
+            return newElements;
+        }
+
+        final int len = buffer.length;
+        if (index < 0) {
+            index = (index % len) + len;
+        }
+
+        final long[] result = new long[Math.max(len, index) + newElements.length];
+        System.arraycopy(buffer, 0, result, 0, Math.min(len, index));
+        System.arraycopy(newElements, 0, result, index, newElements.length);
+        if (index < len) {
+            System.arraycopy(buffer, index, result, index + newElements.length, len - index);
+        }
+        return result;
+    }
+
+    /**
+     * 将新元素添加到已有数组中<br>
+     * 添加新元素会生成一个新的数组，不影响原数组<br>
+     * 新元素以数组传入，避免与<code>append(Object, T...)</code>产生重载歧义
+     *
+     * @param buffer      已有数组
+     * @param newElements 新元素
+     * @return 新数组
+     */
+    public static int[] append(int[] buffer, int[] newElements) {
+        if (EmptyUtil.isEmpty(buffer)) {
+            return newElements;
+        }
+        return insert(buffer, buffer.length, newElements);
+    }
+
+    /**
+     * 将新元素插入到到已有数组中的某个位置<br>
+     * 添加新元素会生成一个新的数组，不影响原数组<br>
+     * 如果插入位置为为负数，从原数组从后向前计数，若大于原数组长度，则空白处用默认值填充<br>
+     * 新元素以数组传入，避免与<code>insert(Object, int, T...)</code>产生重载歧义
+     *
+     * @param buffer      已有数组
+     * @param index       插入位置，此位置为对应此位置元素之前的空档
+     * @param newElements 新元素
+     * @return 新数组
+     */
+    public static int[] insert(int[] buffer, int index, int[] newElements) {
+        if (EmptyUtil.isEmpty(newElements)) {
+            return buffer;
+        }
+        if (EmptyUtil.isEmpty(buffer)) {
+            return newElements;
+        }
+
+        final int len = buffer.length;
+        if (index < 0) {
+            index = (index % len) + len;
+        }
+
+        final int[] result = new int[Math.max(len, index) + newElements.length];
+        System.arraycopy(buffer, 0, result, 0, Math.min(len, index));
+        System.arraycopy(newElements, 0, result, index, newElements.length);
+        if (index < len) {
+            System.arraycopy(buffer, index, result, index + newElements.length, len - index);
+        }
+        return result;
+    }
+
+    /**
+     * 将新元素添加到已有数组中<br>
+     * 添加新元素会生成一个新的数组，不影响原数组<br>
+     * 新元素以数组传入，避免与<code>append(Object, T...)</code>产生重载歧义
+     *
+     * @param buffer      已有数组
+     * @param newElements 新元素
+     * @return 新数组
+     */
+    public static short[] append(short[] buffer, short[] newElements) {
+        if (EmptyUtil.isEmpty(buffer)) {
+            return newElements;
+        }
+        return insert(buffer, buffer.length, newElements);
+    }
+
+    /**
+     * 将新元素插入到到已有数组中的某个位置<br>
+     * 添加新元素会生成一个新的数组，不影响原数组<br>
+     * 如果插入位置为为负数，从原数组从后向前计数，若大于原数组长度，则空白处用默认值填充<br>
+     * 新元素以数组传入，避免与<code>insert(Object, int, T...)</code>产生重载歧义
+     *
+     * @param buffer      已有数组
+     * @param index       插入位置，此位置为对应此位置元素之前的空档
+     * @param newElements 新元素
+     * @return 新数组
+     */
+    public static short[] insert(short[] buffer, int index, short[] newElements) {
+        if (EmptyUtil.isEmpty(newElements)) {
+            return buffer;
+        }
+        if (EmptyUtil.isEmpty(buffer)) {
+            return newElements;
+        }
+
+        final int len = buffer.length;
+        if (index < 0) {
+            index = (index % len) + len;
+        }
+
+        final short[] result = new short[Math.max(len, index) + newElements.length];
+        System.arraycopy(buffer, 0, result, 0, Math.min(len, index));
+        System.arraycopy(newElements, 0, result, index, newElements.length);
+        if (index < len) {
+            System.arraycopy(buffer, index, result, index + newElements.length, len - index);
+        }
+        return result;
+    }
+
+    /**
+     * 将新元素添加到已有数组中<br>
+     * 添加新元素会生成一个新的数组，不影响原数组<br>
+     * 新元素以数组传入，避免与<code>append(Object, T...)</code>产生重载歧义
+     *
+     * @param buffer      已有数组
+     * @param newElements 新元素
+     * @return 新数组
+     */
+    public static byte[] append(byte[] buffer, byte[] newElements) {
+        if (EmptyUtil.isEmpty(buffer)) {
+            return newElements;
+        }
+        return insert(buffer, buffer.length, newElements);
+    }
+
+    /**
+     * 将新元素插入到到已有数组中的某个位置<br>
+     * 添加新元素会生成一个新的数组，不影响原数组<br>
+     * 如果插入位置为为负数，从原数组从后向前计数，若大于原数组长度，则空白处用默认值填充<br>
+     * 新元素以数组传入，避免与<code>insert(Object, int, T...)</code>产生重载歧义
+     *
+     * @param buffer      已有数组
+     * @param index       插入位置，此位置为对应此位置元素之前的空档
+     * @param newElements 新元素
+     * @return 新数组
+     */
+    public static byte[] insert(byte[] buffer, int index, byte[] newElements) {
+        if (EmptyUtil.isEmpty(newElements)) {
+            return buffer;
+        }
+        if (EmptyUtil.isEmpty(buffer)) {
+            return newElements;
+        }
+
+        final int len = buffer.length;
+        if (index < 0) {
+            index = (index % len) + len;
+        }
+
+        final byte[] result = new byte[Math.max(len, index) + newElements.length];
+        System.arraycopy(buffer, 0, result, 0, Math.min(len, index));
+        System.arraycopy(newElements, 0, result, index, newElements.length);
+        if (index < len) {
+            System.arraycopy(buffer, index, result, index + newElements.length, len - index);
+        }
+        return result;
+    }
+
+    /**
+     * 将新元素添加到已有数组中<br>
+     * 添加新元素会生成一个新的数组，不影响原数组<br>
+     * 新元素以数组传入，避免与<code>append(Object, T...)</code>产生重载歧义
+     *
+     * @param buffer      已有数组
+     * @param newElements 新元素
+     * @return 新数组
+     */
+    public static double[] append(double[] buffer, double[] newElements) {
+        if (EmptyUtil.isEmpty(buffer)) {
+            return newElements;
+        }
+        return insert(buffer, buffer.length, newElements);
+    }
+
+    /**
+     * 将新元素插入到到已有数组中的某个位置<br>
+     * 添加新元素会生成一个新的数组，不影响原数组<br>
+     * 如果插入位置为为负数，从原数组从后向前计数，若大于原数组长度，则空白处用默认值填充<br>
+     * 新元素以数组传入，避免与<code>insert(Object, int, T...)</code>产生重载歧义
+     *
+     * @param buffer      已有数组
+     * @param index       插入位置，此位置为对应此位置元素之前的空档
+     * @param newElements 新元素
+     * @return 新数组
+     */
+    public static double[] insert(double[] buffer, int index, double[] newElements) {
+        if (EmptyUtil.isEmpty(newElements)) {
+            return buffer;
+        }
+        if (EmptyUtil.isEmpty(buffer)) {
+            return newElements;
+        }
+
+        final int len = buffer.length;
+        if (index < 0) {
+            index = (index % len) + len;
+        }
+
+        final double[] result = new double[Math.max(len, index) + newElements.length];
+        System.arraycopy(buffer, 0, result, 0, Math.min(len, index));
+        System.arraycopy(newElements, 0, result, index, newElements.length);
+        if (index < len) {
+            System.arraycopy(buffer, index, result, index + newElements.length, len - index);
+        }
+        return result;
+    }
+
+    /**
+     * 将新元素添加到已有数组中<br>
+     * 添加新元素会生成一个新的数组，不影响原数组<br>
+     * 新元素以数组传入，避免与<code>append(Object, T...)</code>产生重载歧义
+     *
+     * @param buffer      已有数组
+     * @param newElements 新元素
+     * @return 新数组
+     */
+    public static float[] append(float[] buffer, float[] newElements) {
+        if (EmptyUtil.isEmpty(buffer)) {
+            return newElements;
+        }
+        return insert(buffer, buffer.length, newElements);
+    }
+
+    /**
+     * 将新元素插入到到已有数组中的某个位置<br>
+     * 添加新元素会生成一个新的数组，不影响原数组<br>
+     * 如果插入位置为为负数，从原数组从后向前计数，若大于原数组长度，则空白处用默认值填充<br>
+     * 新元素以数组传入，避免与<code>insert(Object, int, T...)</code>产生重载歧义
+     *
+     * @param buffer      已有数组
+     * @param index       插入位置，此位置为对应此位置元素之前的空档
+     * @param newElements 新元素
+     * @return 新数组
+     */
+    public static float[] insert(float[] buffer, int index, float[] newElements) {
+        if (EmptyUtil.isEmpty(newElements)) {
+            return buffer;
+        }
+        if (EmptyUtil.isEmpty(buffer)) {
+            return newElements;
+        }
+
+        final int len = buffer.length;
+        if (index < 0) {
+            index = (index % len) + len;
+        }
+
+        final float[] result = new float[Math.max(len, index) + newElements.length];
+        System.arraycopy(buffer, 0, result, 0, Math.min(len, index));
+        System.arraycopy(newElements, 0, result, index, newElements.length);
+        if (index < len) {
+            System.arraycopy(buffer, index, result, index + newElements.length, len - index);
+        }
+        return result;
+    }
+
+    /**
+     * 将新元素添加到已有数组中<br>
+     * 添加新元素会生成一个新的数组，不影响原数组<br>
+     * 新元素以数组传入，避免与<code>append(Object, T...)</code>产生重载歧义
+     *
+     * @param buffer      已有数组
+     * @param newElements 新元素
+     * @return 新数组
+     */
+    public static boolean[] append(boolean[] buffer, boolean[] newElements) {
+        if (EmptyUtil.isEmpty(buffer)) {
+            return newElements;
+        }
+        return insert(buffer, buffer.length, newElements);
+    }
+
+    /**
+     * 将新元素插入到到已有数组中的某个位置<br>
+     * 添加新元素会生成一个新的数组，不影响原数组<br>
+     * 如果插入位置为为负数，从原数组从后向前计数，若大于原数组长度，则空白处用默认值填充<br>
+     * 新元素以数组传入，避免与<code>insert(Object, int, T...)</code>产生重载歧义
+     *
+     * @param buffer      已有数组
+     * @param index       插入位置，此位置为对应此位置元素之前的空档
+     * @param newElements 新元素
+     * @return 新数组
+     */
+    public static boolean[] insert(boolean[] buffer, int index, boolean[] newElements) {
+        if (EmptyUtil.isEmpty(newElements)) {
+            return buffer;
+        }
+        if (EmptyUtil.isEmpty(buffer)) {
+            return newElements;
+        }
+
+        final int len = buffer.length;
+        if (index < 0) {
+            index = (index % len) + len;
+        }
+
+        final boolean[] result = new boolean[Math.max(len, index) + newElements.length];
+        System.arraycopy(buffer, 0, result, 0, Math.min(len, index));
+        System.arraycopy(newElements, 0, result, index, newElements.length);
+        if (index < len) {
+            System.arraycopy(buffer, index, result, index + newElements.length, len - index);
+        }
+        return result;
+    }
+
+    /**
+     * 将新元素添加到已有数组中<br>
+     * 添加新元素会生成一个新的数组，不影响原数组<br>
+     * 新元素以数组传入，避免与<code>append(Object, T...)</code>产生重载歧义
+     *
+     * @param buffer      已有数组
+     * @param newElements 新元素
+     * @return 新数组
+     */
+    public static char[] append(char[] buffer, char[] newElements) {
+        if (EmptyUtil.isEmpty(buffer)) {
+            return newElements;
+        }
+        return insert(buffer, buffer.length, newElements);
+    }
+
+    /**
+     * 将新元素插入到到已有数组中的某个位置<br>
+     * 添加新元素会生成一个新的数组，不影响原数组<br>
+     * 如果插入位置为为负数，从原数组从后向前计数，若大于原数组长度，则空白处用默认值填充<br>
+     * 新元素以数组传入，避免与<code>insert(Object, int, T...)</code>产生重载歧义
+     *
+     * @param buffer      已有数组
+     * @param index       插入位置，此位置为对应此位置元素之前的空档
+     * @param newElements 新元素
+     * @return 新数组
+     */
+    public static char[] insert(char[] buffer, int index, char[] newElements) {
+        if (EmptyUtil.isEmpty(newElements)) {
+            return buffer;
+        }
+        if (EmptyUtil.isEmpty(buffer)) {
+            return newElements;
+        }
+
+        final int len = buffer.length;
+        if (index < 0) {
+            index = (index % len) + len;
+        }
+
+        final char[] result = new char[Math.max(len, index) + newElements.length];
+        System.arraycopy(buffer, 0, result, 0, Math.min(len, index));
+        System.arraycopy(newElements, 0, result, index, newElements.length);
+        if (index < len) {
+            System.arraycopy(buffer, index, result, index + newElements.length, len - index);
+        }
+        return result;
+    }
+
 
     // ==========================================================================
     // 反转数组的元素顺序。
@@ -1775,6 +2201,12 @@ public abstract class ArrayUtil {
             startIndex = 0;
         }
 
+        // Java 9 以后较长的数组每次比较 8 个字节
+        if (SWAR_ON_BYTE_ARRAY && array.length - startIndex >= SWAR_MIN_LENGTH) {
+            return swarIndexOf(ByteBuffer.wrap(array).order(ByteOrder.LITTLE_ENDIAN), byteToFind, startIndex,
+                    array.length);
+        }
+
         for (int i = startIndex; i < array.length; i++) {
             if (byteToFind == array[i]) {
                 return i;
@@ -1818,6 +2250,15 @@ public abstract class ArrayUtil {
             return startIndex;
         }
 
+        // Java 9 以后数组较长时每次比较 8 个字节来定位第一个元素
+        if (SWAR_ON_BYTE_ARRAY && sourceLength - startIndex >= SWAR_SEARCH_THRESHOLD) {
+            if (targetLength > sourceLength - startIndex) {
+                return INDEX_NOT_FOUND;
+            }
+            return probeIndexOf(ByteBuffer.wrap(array).order(ByteOrder.LITTLE_ENDIAN), arrayToFind, startIndex,
+                    sourceLength);
+        }
+
         byte first = arrayToFind[0];
         int i = startIndex;
         int max = sourceLength - targetLength;
@@ -2008,6 +2449,272 @@ public abstract class ArrayUtil {
         return indexOf(array, arrayToFind) != INDEX_NOT_FOUND;
     }
 
+    /**
+     * 预编译要查找的字节序列，适合在大量数据中反复查找同一个分隔符或标记。
+     *
+     * @param pattern 要查找的字节序列，不能为空
+     * @return 编译后的字节序列
+     */
+    public static BytePattern compile(byte[] pattern) {
+        AssertUtil.isTrue(pattern != null && pattern.length > 0, "pattern must not be empty");
+
+        return new BytePattern(pattern);
+    }
+
+    /**
+     * 在<code>[fromIndex, toIndex)</code>范围内查找一个字节，每次比较 8 个字节（SWAR）。
+     *
+     * @param buffer    小端序的<code>ByteBuffer</code>，使用绝对位置读取
+     * @param value     要查找的字节
+     * @param fromIndex 起始位置
+     * @param toIndex   结束位置（不含）
+     * @return 找到的绝对位置，未找到返回<code>-1</code>
+     */
+    static int swarIndexOf(ByteBuffer buffer, byte value, int fromIndex, int toIndex) {
+        long pattern = (value & 0xFFL) * SWAR_ONES;
+        int i = fromIndex;
+
+        for (int end = toIndex - 8; i <= end; i += 8) {
+            long x = buffer.getLong(i) ^ pattern;
+            // 最低位的非零标记一定对应相等的字节
+            long found = (x - SWAR_ONES) & ~x & SWAR_HIGHS;
+            if (found != 0) {
+                return i + (Long.numberOfTrailingZeros(found) >>> 3);
+            }
+        }
+
+        for (; i < toIndex; i++) {
+            if (buffer.get(i) == value) {
+                return i;
+            }
+        }
+
+        return INDEX_NOT_FOUND;
+    }
+
+    private static boolean isJava9OrLater() {
+        try {
+            return !System.getProperty("java.specification.version", "1.8").startsWith("1.");
+        } catch (SecurityException e) {
+            return false;
+        }
+    }
+
+    /**
+     * 在<code>[fromIndex, toIndex)</code>范围内查找字节序列：用 SWAR 定位第一个字节，再逐个比较其余字节。
+     *
+     * @param buffer    小端序的<code>ByteBuffer</code>，使用绝对位置读取
+     * @param pattern   要查找的字节序列，不能为空
+     * @param fromIndex 起始位置
+     * @param toIndex   结束位置（不含）
+     * @return 找到的绝对位置，未找到返回<code>-1</code>
+     */
+    static int probeIndexOf(ByteBuffer buffer, byte[] pattern, int fromIndex, int toIndex) {
+        byte first = pattern[0];
+        int max = toIndex - pattern.length;
+
+        for (int i = fromIndex; i <= max; i++) {
+            i = swarIndexOf(buffer, first, i, max + 1);
+            if (i == INDEX_NOT_FOUND) {
+                return INDEX_NOT_FOUND;
+            }
+
+            int k = 1;
+            while (k < pattern.length && buffer.get(i + k) == pattern[k]) {
+                k++;
+            }
+            if (k == pattern.length) {
+                return i;
+            }
+        }
+
+        return INDEX_NOT_FOUND;
+    }
+
+    /**
+     * 预编译的字节序列。
+     * <div>
+     * 长度小于 4 的序列先用 SWAR 一次比较 8 个字节来定位第一个字节，再逐个比较；
+     * 更长的序列使用 Boyer-Moore-Horspool 算法，平均复杂度为<code>O(n/m)</code>。
+     * 实例不可变，可以在多线程中共享。
+     * </div>
+     */
+    public static final class BytePattern {
+        static final int HORSPOOL_MIN_LENGTH = 4;
+
+        private final byte[] pattern;
+        private final int[] shift;
+
+        BytePattern(byte[] pattern) {
+            this.pattern = pattern.clone();
+
+            int m = pattern.length;
+            if (m >= HORSPOOL_MIN_LENGTH) {
+                shift = new int[256];
+                Arrays.fill(shift, m);
+                for (int i = 0; i < m - 1; i++) {
+                    shift[pattern[i] & 0xFF] = m - 1 - i;
+                }
+            } else {
+                shift = null;
+            }
+        }
+
+        /**
+         * 字节序列的长度
+         */
+        public int length() {
+            return pattern.length;
+        }
+
+        /**
+         * 在数组中查找字节序列。
+         *
+         * @param array 要扫描的数组
+         * @return 字节序列在数组中的序号，如果数组为<code>null</code>或未找到，则返回<code>-1</code>。
+         */
+        public int indexOf(byte[] array) {
+            return indexOf(array, 0);
+        }
+
+        /**
+         * 在数组中查找字节序列，起始索引小于<code>0</code>则看作<code>0</code>。
+         *
+         * @param array      要扫描的数组
+         * @param startIndex 起始索引
+         * @return 字节序列在数组中的序号，如果数组为<code>null</code>或未找到，则返回<code>-1</code>。
+         */
+        public int indexOf(byte[] array, int startIndex) {
+            if (array == null) {
+                return INDEX_NOT_FOUND;
+            }
+
+            return indexOf(array, startIndex, array.length);
+        }
+
+        /**
+         * 在数组的<code>[fromIndex, toIndex)</code>范围内查找字节序列。
+         *
+         * @param array     要扫描的数组
+         * @param fromIndex 起始索引，小于<code>0</code>则看作<code>0</code>
+         * @param toIndex   结束索引（不含），大于数组长度则看作数组长度
+         * @return 字节序列在数组中的序号，如果数组为<code>null</code>或未找到，则返回<code>-1</code>。
+         */
+        public int indexOf(byte[] array, int fromIndex, int toIndex) {
+            if (array == null) {
+                return INDEX_NOT_FOUND;
+            }
+
+            fromIndex = Math.max(fromIndex, 0);
+            toIndex = Math.min(toIndex, array.length);
+            if (toIndex - fromIndex < pattern.length) {
+                return INDEX_NOT_FOUND;
+            }
+
+            if (shift == null) {
+                ByteBuffer buffer = ByteBuffer.wrap(array).order(ByteOrder.LITTLE_ENDIAN);
+                return probeIndexOf(buffer, fromIndex, toIndex);
+            }
+
+            return horspoolIndexOf(array, fromIndex, toIndex);
+        }
+
+        /**
+         * 在<code>ByteBuffer</code>的<code>position</code>到<code>limit</code>之间查找字节序列，
+         * 支持堆内和直接内存，不会改变<code>buffer</code>的位置和字节序。
+         *
+         * @param buffer 要扫描的<code>ByteBuffer</code>
+         * @return 字节序列的绝对位置，如果<code>buffer</code>为<code>null</code>或未找到，则返回<code>-1</code>。
+         */
+        public int indexOf(ByteBuffer buffer) {
+            if (buffer == null) {
+                return INDEX_NOT_FOUND;
+            }
+
+            return indexOf(buffer, buffer.position(), buffer.limit());
+        }
+
+        /**
+         * 在<code>ByteBuffer</code>的<code>[fromIndex, toIndex)</code>绝对位置范围内查找字节序列，
+         * 不会改变<code>buffer</code>的位置和字节序。
+         *
+         * @param buffer    要扫描的<code>ByteBuffer</code>
+         * @param fromIndex 起始位置
+         * @param toIndex   结束位置（不含），大于<code>limit</code>则看作<code>limit</code>
+         * @return 字节序列的绝对位置，如果<code>buffer</code>为<code>null</code>或未找到，则返回<code>-1</code>。
+         */
+        public int indexOf(ByteBuffer buffer, int fromIndex, int toIndex) {
+            if (buffer == null) {
+                return INDEX_NOT_FOUND;
+            }
+
+            fromIndex = Math.max(fromIndex, 0);
+            toIndex = Math.min(toIndex, buffer.limit());
+            if (toIndex - fromIndex < pattern.length) {
+                return INDEX_NOT_FOUND;
+            }
+
+            if (buffer.hasArray()) {
+                int offset = buffer.arrayOffset();
+                int index = indexOf(buffer.array(), offset + fromIndex, offset + toIndex);
+                return index == INDEX_NOT_FOUND ? INDEX_NOT_FOUND : index - offset;
+            }
+
+            ByteBuffer view = buffer.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+            if (shift == null) {
+                return probeIndexOf(view, fromIndex, toIndex);
+            }
+
+            return horspoolIndexOf(view, fromIndex, toIndex);
+        }
+
+        private int probeIndexOf(ByteBuffer buffer, int fromIndex, int toIndex) {
+            return ArrayUtil.probeIndexOf(buffer, pattern, fromIndex, toIndex);
+        }
+
+        private int horspoolIndexOf(byte[] array, int fromIndex, int toIndex) {
+            int last = pattern.length - 1;
+            byte lastByte = pattern[last];
+
+            for (int i = fromIndex, max = toIndex - pattern.length; i <= max; ) {
+                byte b = array[i + last];
+                if (b == lastByte) {
+                    int k = 0;
+                    while (k < last && array[i + k] == pattern[k]) {
+                        k++;
+                    }
+                    if (k == last) {
+                        return i;
+                    }
+                }
+                i += shift[b & 0xFF];
+            }
+
+            return INDEX_NOT_FOUND;
+        }
+
+        private int horspoolIndexOf(ByteBuffer buffer, int fromIndex, int toIndex) {
+            int last = pattern.length - 1;
+            byte lastByte = pattern[last];
+
+            for (int i = fromIndex, max = toIndex - pattern.length; i <= max; ) {
+                byte b = buffer.get(i + last);
+                if (b == lastByte) {
+                    int k = 0;
+                    while (k < last && buffer.get(i + k) == pattern[k]) {
+                        k++;
+                    }
+                    if (k == last) {
+                        return i;
+                    }
+                }
+                i += shift[b & 0xFF];
+            }
+
+            return INDEX_NOT_FOUND;
+        }
+    }
+
     // ==========================================================================
     // 在数组中查找一个元素或一个元素序列。
     //
@@ -4202,4 +4909,482 @@ public abstract class ArrayUtil {
         }
         return results;
     }
+
+    // ==========================================================================
+    // 大数组的并行操作。
+    //
+    // 基于 Fork/Join 公共线程池，元素个数不超过拆分阈值时直接在当前线程执行。
+    // ==========================================================================
+
+    /**
+     * 并行反转数组的元素顺序。如果数组为<code>null</code>，则什么也不做。
+     *
+     * @param array 要反转的数组
+     */
+    public static <T> void parallelReverse(T[] array) {
+        parallelReverse(array, DEFAULT_PARALLEL_THRESHOLD);
+    }
+
+    /**
+     * 并行反转数组的元素顺序，每个任务交换<code>threshold</code>对以内的元素。如果数组为<code>null</code>，则什么也不做。
+     *
+     * @param array     要反转的数组
+     * @param threshold 拆分阈值
+     */
+    public static <T> void parallelReverse(final T[] array, int threshold) {
+        if (array == null) {
+            return;
+        }
+
+        final int last = array.length - 1;
+        parallelForRange(array.length / 2, threshold, (from, to) -> {
+            T tmp;
+            for (int i = from; i < to; i++) {
+                tmp = array[last - i];
+                array[last - i] = array[i];
+                array[i] = tmp;
+            }
+            return 0;
+        });
+    }
+
+    /**
+     * 并行反转数组的元素顺序。如果数组为<code>null</code>，则什么也不做。
+     *
+     * @param array 要反转的数组
+     */
+    public static void parallelReverse(long[] array) {
+        parallelReverse(array, DEFAULT_PARALLEL_THRESHOLD);
+    }
+
+    /**
+     * 并行反转数组的元素顺序，每个任务交换<code>threshold</code>对以内的元素。如果数组为<code>null</code>，则什么也不做。
+     *
+     * @param array     要反转的数组
+     * @param threshold 拆分阈值
+     */
+    public static void parallelReverse(final long[] array, int threshold) {
+        if (array == null) {
+            return;
+        }
+
+        final int last = array.length - 1;
+        parallelForRange(array.length / 2, threshold, (from, to) -> {
+            long tmp;
+            for (int i = from; i < to; i++) {
+                tmp = array[last - i];
+                array[last - i] = array[i];
+                array[i] = tmp;
+            }
+            return 0;
+        });
+    }
+
+    /**
+     * 并行反转数组的元素顺序。如果数组为<code>null</code>，则什么也不做。
+     *
+     * @param array 要反转的数组
+     */
+    public static void parallelReverse(int[] array) {
+        parallelReverse(array, DEFAULT_PARALLEL_THRESHOLD);
+    }
+
+    /**
+     * 并行反转数组的元素顺序，每个任务交换<code>threshold</code>对以内的元素。如果数组为<code>null</code>，则什么也不做。
+     *
+     * @param array     要反转的数组
+     * @param threshold 拆分阈值
+     */
+    public static void parallelReverse(final int[] array, int threshold) {
+        if (array == null) {
+            return;
+        }
+
+        final int last = array.length - 1;
+        parallelForRange(array.length / 2, threshold, (from, to) -> {
+            int tmp;
+            for (int i = from; i < to; i++) {
+                tmp = array[last - i];
+                array[last - i] = array[i];
+                array[i] = tmp;
+            }
+            return 0;
+        });
+    }
+
+    /**
+     * 并行反转数组的元素顺序。如果数组为<code>null</code>，则什么也不做。
+     *
+     * @param array 要反转的数组
+     */
+    public static void parallelReverse(double[] array) {
+        parallelReverse(array, DEFAULT_PARALLEL_THRESHOLD);
+    }
+
+    /**
+     * 并行反转数组的元素顺序，每个任务交换<code>threshold</code>对以内的元素。如果数组为<code>null</code>，则什么也不做。
+     *
+     * @param array     要反转的数组
+     * @param threshold 拆分阈值
+     */
+    public static void parallelReverse(final double[] array, int threshold) {
+        if (array == null) {
+            return;
+        }
+
+        final int last = array.length - 1;
+        parallelForRange(array.length / 2, threshold, (from, to) -> {
+            double tmp;
+            for (int i = from; i < to; i++) {
+                tmp = array[last - i];
+                array[last - i] = array[i];
+                array[i] = tmp;
+            }
+            return 0;
+        });
+    }
+
+    /**
+     * 并行在数组中查找一个元素，返回最靠前的位置。
+     *
+     * @param array    要扫描的数组
+     * @param longToFind 要查找的元素
+     * @return 该元素在数组中的序号，如果数组为<code>null</code>或未找到，则返回<code>-1</code>。
+     */
+    public static int parallelIndexOf(long[] array, long longToFind) {
+        return parallelIndexOf(array, longToFind, DEFAULT_PARALLEL_THRESHOLD);
+    }
+
+    /**
+     * 并行在数组中查找一个元素，返回最靠前的位置。找到匹配后，位于其后的区间不再扫描。
+     *
+     * @param array     要扫描的数组
+     * @param longToFind  要查找的元素
+     * @param threshold 拆分阈值
+     * @return 该元素在数组中的序号，如果数组为<code>null</code>或未找到，则返回<code>-1</code>。
+     */
+    public static int parallelIndexOf(final long[] array, final long longToFind, int threshold) {
+        if (array == null) {
+            return INDEX_NOT_FOUND;
+        }
+
+        return parallelSearch(array.length, threshold, false, (from, to) -> {
+            for (int i = from; i < to; i++) {
+                if (longToFind == array[i]) {
+                    return i;
+                }
+            }
+            return INDEX_NOT_FOUND;
+        });
+    }
+
+    /**
+     * 并行在数组中查找一个元素，返回最靠后的位置。
+     *
+     * @param array    要扫描的数组
+     * @param longToFind 要查找的元素
+     * @return 该元素在数组中的序号，如果数组为<code>null</code>或未找到，则返回<code>-1</code>。
+     */
+    public static int parallelLastIndexOf(long[] array, long longToFind) {
+        return parallelLastIndexOf(array, longToFind, DEFAULT_PARALLEL_THRESHOLD);
+    }
+
+    /**
+     * 并行在数组中查找一个元素，返回最靠后的位置。找到匹配后，位于其前的区间不再扫描。
+     *
+     * @param array     要扫描的数组
+     * @param longToFind  要查找的元素
+     * @param threshold 拆分阈值
+     * @return 该元素在数组中的序号，如果数组为<code>null</code>或未找到，则返回<code>-1</code>。
+     */
+    public static int parallelLastIndexOf(final long[] array, final long longToFind, int threshold) {
+        if (array == null) {
+            return INDEX_NOT_FOUND;
+        }
+
+        return parallelSearch(array.length, threshold, true, (from, to) -> {
+            for (int i = to - 1; i >= from; i--) {
+                if (longToFind == array[i]) {
+                    return i;
+                }
+            }
+            return INDEX_NOT_FOUND;
+        });
+    }
+
+    /**
+     * 并行判断指定元素是否存在于指定数组中。
+     *
+     * @param array    要扫描的数组
+     * @param longToFind 要查找的元素
+     * @return 如果找到则返回<code>true</code>
+     */
+    public static boolean parallelContains(long[] array, long longToFind) {
+        return parallelIndexOf(array, longToFind) != INDEX_NOT_FOUND;
+    }
+
+    /**
+     * 并行判断指定元素是否存在于指定数组中。
+     *
+     * @param array     要扫描的数组
+     * @param longToFind  要查找的元素
+     * @param threshold 拆分阈值
+     * @return 如果找到则返回<code>true</code>
+     */
+    public static boolean parallelContains(long[] array, long longToFind, int threshold) {
+        return parallelIndexOf(array, longToFind, threshold) != INDEX_NOT_FOUND;
+    }
+
+    /**
+     * 并行在数组中查找一个元素，返回最靠前的位置。
+     *
+     * @param array    要扫描的数组
+     * @param intToFind 要查找的元素
+     * @return 该元素在数组中的序号，如果数组为<code>null</code>或未找到，则返回<code>-1</code>。
+     */
+    public static int parallelIndexOf(int[] array, int intToFind) {
+        return parallelIndexOf(array, intToFind, DEFAULT_PARALLEL_THRESHOLD);
+    }
+
+    /**
+     * 并行在数组中查找一个元素，返回最靠前的位置。找到匹配后，位于其后的区间不再扫描。
+     *
+     * @param array     要扫描的数组
+     * @param intToFind  要查找的元素
+     * @param threshold 拆分阈值
+     * @return 该元素在数组中的序号，如果数组为<code>null</code>或未找到，则返回<code>-1</code>。
+     */
+    public static int parallelIndexOf(final int[] array, final int intToFind, int threshold) {
+        if (array == null) {
+            return INDEX_NOT_FOUND;
+        }
+
+        return parallelSearch(array.length, threshold, false, (from, to) -> {
+            for (int i = from; i < to; i++) {
+                if (intToFind == array[i]) {
+                    return i;
+                }
+            }
+            return INDEX_NOT_FOUND;
+        });
+    }
+
+    /**
+     * 并行在数组中查找一个元素，返回最靠后的位置。
+     *
+     * @param array    要扫描的数组
+     * @param intToFind 要查找的元素
+     * @return 该元素在数组中的序号，如果数组为<code>null</code>或未找到，则返回<code>-1</code>。
+     */
+    public static int parallelLastIndexOf(int[] array, int intToFind) {
+        return parallelLastIndexOf(array, intToFind, DEFAULT_PARALLEL_THRESHOLD);
+    }
+
+    /**
+     * 并行在数组中查找一个元素，返回最靠后的位置。找到匹配后，位于其前的区间不再扫描。
+     *
+     * @param array     要扫描的数组
+     * @param intToFind  要查找的元素
+     * @param threshold 拆分阈值
+     * @return 该元素在数组中的序号，如果数组为<code>null</code>或未找到，则返回<code>-1</code>。
+     */
+    public static int parallelLastIndexOf(final int[] array, final int intToFind, int threshold) {
+        if (array == null) {
+            return INDEX_NOT_FOUND;
+        }
+
+        return parallelSearch(array.length, threshold, true, (from, to) -> {
+            for (int i = to - 1; i >= from; i--) {
+                if (intToFind == array[i]) {
+                    return i;
+                }
+            }
+            return INDEX_NOT_FOUND;
+        });
+    }
+
+    /**
+     * 并行判断指定元素是否存在于指定数组中。
+     *
+     * @param array    要扫描的数组
+     * @param intToFind 要查找的元素
+     * @return 如果找到则返回<code>true</code>
+     */
+    public static boolean parallelContains(int[] array, int intToFind) {
+        return parallelIndexOf(array, intToFind) != INDEX_NOT_FOUND;
+    }
+
+    /**
+     * 并行判断指定元素是否存在于指定数组中。
+     *
+     * @param array     要扫描的数组
+     * @param intToFind  要查找的元素
+     * @param threshold 拆分阈值
+     * @return 如果找到则返回<code>true</code>
+     */
+    public static boolean parallelContains(int[] array, int intToFind, int threshold) {
+        return parallelIndexOf(array, intToFind, threshold) != INDEX_NOT_FOUND;
+    }
+
+    public static String[] parallelIntToString(int[] values) {
+        return parallelIntToString(values, DEFAULT_PARALLEL_THRESHOLD);
+    }
+
+    public static String[] parallelIntToString(final int[] values, int threshold) {
+        if (values == null) {
+            return null;
+        }
+
+        final String[] results = new String[values.length];
+        parallelForRange(values.length, threshold, (from, to) -> {
+            for (int i = from; i < to; i++) {
+                results[i] = String.valueOf(values[i]);
+            }
+            return 0;
+        });
+        return results;
+    }
+
+    public static String[] parallelLongToString(long[] values) {
+        return parallelLongToString(values, DEFAULT_PARALLEL_THRESHOLD);
+    }
+
+    public static String[] parallelLongToString(final long[] values, int threshold) {
+        if (values == null) {
+            return null;
+        }
+
+        final String[] results = new String[values.length];
+        parallelForRange(values.length, threshold, (from, to) -> {
+            for (int i = from; i < to; i++) {
+                results[i] = String.valueOf(values[i]);
+            }
+            return 0;
+        });
+        return results;
+    }
+
+    public static String[] parallelDoubleToString(double[] values) {
+        return parallelDoubleToString(values, DEFAULT_PARALLEL_THRESHOLD);
+    }
+
+    public static String[] parallelDoubleToString(final double[] values, int threshold) {
+        if (values == null) {
+            return null;
+        }
+
+        final String[] results = new String[values.length];
+        parallelForRange(values.length, threshold, (from, to) -> {
+            for (int i = from; i < to; i++) {
+                results[i] = String.valueOf(values[i]);
+            }
+            return 0;
+        });
+        return results;
+    }
+
+    /**
+     * 将<code>[0, length)</code>拆分后并行执行，<code>action</code>的返回值被忽略
+     */
+    private static void parallelForRange(int length, int threshold, IntBinaryOperator action) {
+        if (length <= threshold) {
+            action.applyAsInt(0, length);
+            return;
+        }
+
+        ForkJoinPool.commonPool().invoke(new ParallelRangeTask(action, 0, length, Math.max(threshold, 1)));
+    }
+
+    /**
+     * 将<code>[0, length)</code>拆分后并行查找
+     *
+     * @param last    为<code>true</code>时返回最靠后的位置，否则返回最靠前的位置
+     * @param scanner 在<code>[from, to)</code>中查找，未找到返回<code>-1</code>
+     */
+    private static int parallelSearch(int length, int threshold, boolean last, IntBinaryOperator scanner) {
+        if (length <= threshold) {
+            return scanner.applyAsInt(0, length);
+        }
+
+        AtomicInteger result = new AtomicInteger(last ? INDEX_NOT_FOUND : Integer.MAX_VALUE);
+        ForkJoinPool.commonPool().invoke(new ParallelSearchTask(scanner, 0, length, Math.max(threshold, 1), last,
+                result));
+
+        int index = result.get();
+        return index == Integer.MAX_VALUE ? INDEX_NOT_FOUND : index;
+    }
+
+    private static final class ParallelRangeTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final IntBinaryOperator action;
+        private final int from;
+        private final int to;
+        private final int threshold;
+
+        ParallelRangeTask(IntBinaryOperator action, int from, int to, int threshold) {
+            this.action = action;
+            this.from = from;
+            this.to = to;
+            this.threshold = threshold;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= threshold) {
+                action.applyAsInt(from, to);
+                return;
+            }
+
+            int mid = (from + to) >>> 1;
+            invokeAll(new ParallelRangeTask(action, from, mid, threshold),
+                    new ParallelRangeTask(action, mid, to, threshold));
+        }
+    }
+
+    private static final class ParallelSearchTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final IntBinaryOperator scanner;
+        private final int from;
+        private final int to;
+        private final int threshold;
+        private final boolean last;
+        private final AtomicInteger result;
+
+        ParallelSearchTask(IntBinaryOperator scanner, int from, int to, int threshold, boolean last,
+                           AtomicInteger result) {
+            this.scanner = scanner;
+            this.from = from;
+            this.to = to;
+            this.threshold = threshold;
+            this.last = last;
+            this.result = result;
+        }
+
+        @Override
+        protected void compute() {
+            // 已经有更优的结果，跳过整个区间
+            if (last ? to - 1 <= result.get() : from >= result.get()) {
+                return;
+            }
+
+            if (to - from <= threshold) {
+                int index = scanner.applyAsInt(from, to);
+                if (index != INDEX_NOT_FOUND) {
+                    for (int current = result.get(); last ? index > current : index < current;
+                         current = result.get()) {
+                        if (result.compareAndSet(current, index)) {
+                            break;
+                        }
+                    }
+                }
+                return;
+            }
+
+            int mid = (from + to) >>> 1;
+            invokeAll(new ParallelSearchTask(scanner, from, mid, threshold, last, result),
+                    new ParallelSearchTask(scanner, mid, to, threshold, last, result));
+        }
+    }
 }
@@ -1,6 +1,11 @@
 package cn.aurthur.utils;
 
 import cn.aurthur.exception.CheckedFailedException;
+import cn.aurthur.exception.StacklessCheckedFailedException;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
 
 /**
  * 断言<br>
@@ -10,6 +15,8 @@ import cn.aurthur.exception.CheckedFailedException;
  * isNull
  * isTrue
  * isFalse
+ * <br>
+ * 消息支持<code>{}</code>占位符，<code>*Lazy</code>方法在断言成功时不产生任何分配
  *
  * @author aurthur
  * @since 1.0.0
@@ -18,6 +25,11 @@ public abstract class AssertUtil {
     public AssertUtil() {
         throw new AssertionError("工具类不允许实例化");
     }
+
+    /**
+     * 消息中的参数占位符
+     */
+    private static final String PLACEHOLDER = "{}";
     // ----------------------------------------------------------------------------------------------------
     // notNull
 
@@ -25,21 +37,37 @@ public abstract class AssertUtil {
      * 确保对象不为空，否则抛出<code>CheckedFailedException</code>。
      */
     public static <T> T notNull(T object) {
-        return notNull(object, null, null, (Object[]) null);
+        return notNull(object, (ExceptionType) null, null, (Object[]) null);
     }
 
     /**
      * 确保对象不为空，否则抛出<code>CheckedFailedException</code>。
      */
     public static <T> T notNull(T object, String message) {
-        return notNull(object, null, message, (Object[]) null);
+        return notNull(object, (ExceptionType) null, message, (Object[]) null);
     }
 
     /**
      * 确保对象不为空，否则抛出<code>CheckedFailedException</code>。
      */
     public static <T> T notNull(T object, String message, Object... args) {
-        return notNull(object, null, message, args);
+        return notNull(object, (ExceptionType) null, message, args);
+    }
+
+    /**
+     * 确保对象不为空，否则抛出<code>CheckedFailedException</code>。
+     * <div>
+     * 消息只在断言失败时生成。
+     * </div>
+     */
+    public static <T> T notNullLazy(T object, Supplier<String> messageSupplier) {
+        if (object == null) {
+            throw ExceptionType.CHECK_FAILED.newInstance(__getMessage(
+                    messageSupplier == null ? null : messageSupplier.get(), null,
+                    "[Assertion failed] - the argument is required; it must not be null"));
+        }
+
+        return object;
     }
 
     /**
@@ -65,21 +93,37 @@ public abstract class AssertUtil {
      * 确保对象为空，否则抛出<code>CheckedFailedException</code>。
      */
     public static <T> T isNull(T object) {
-        return isNull(object, null, null, (Object[]) null);
+        return isNull(object, (ExceptionType) null, null, (Object[]) null);
     }
 
     /**
      * 确保对象为空，否则抛出<code>CheckedFailedException</code>。
      */
     public static <T> T isNull(T object, String message) {
-        return isNull(object, null, message, (Object[]) null);
+        return isNull(object, (ExceptionType) null, message, (Object[]) null);
     }
 
     /**
      * 确保对象为空，否则抛出<code>CheckedFailedException</code>。
      */
     public static <T> T isNull(T object, String message, Object... args) {
-        return isNull(object, null, message, args);
+        return isNull(object, (ExceptionType) null, message, args);
+    }
+
+    /**
+     * 确保对象为空，否则抛出<code>CheckedFailedException</code>。
+     * <div>
+     * 消息只在断言失败时生成。
+     * </div>
+     */
+    public static <T> T isNullLazy(T object, Supplier<String> messageSupplier) {
+        if (object != null) {
+            throw ExceptionType.CHECK_FAILED.newInstance(__getMessage(
+                    messageSupplier == null ? null : messageSupplier.get(), null,
+                    "[Assertion failed] - the object argument must be null"));
+        }
+
+        return null;
     }
 
     /**
@@ -105,21 +149,37 @@ public abstract class AssertUtil {
      * 确保对象为空，否则抛出<code>CheckedFailedException</code>。
      */
     public static boolean isTrue(boolean expression) {
-        return isTrue(expression, null, null, (Object[]) null);
+        return isTrue(expression, (ExceptionType) null, null, (Object[]) null);
     }
 
     /**
      * 确保对象为空，否则抛出<code>CheckedFailedException</code>。
      */
     public static boolean isTrue(boolean expression, String message) {
-        return isTrue(expression, null, message, (Object[]) null);
+        return isTrue(expression, (ExceptionType) null, message, (Object[]) null);
     }
 
     /**
      * 确保对象为空，否则抛出<code>CheckedFailedException</code>。
      */
     public static boolean isTrue(boolean expression, String message, Object... args) {
-        return isTrue(expression, null, message, args);
+        return isTrue(expression, (ExceptionType) null, message, args);
+    }
+
+    /**
+     * 确保表达式为<code>true</code>，否则抛出<code>CheckedFailedException</code>。
+     * <div>
+     * 消息只在断言失败时生成。
+     * </div>
+     */
+    public static boolean isTrueLazy(boolean expression, Supplier<String> messageSupplier) {
+        if (!expression) {
+            throw ExceptionType.CHECK_FAILED.newInstance(__getMessage(
+                    messageSupplier == null ? null : messageSupplier.get(), null,
+                    "[Assertion failed] - the expression argument must be true"));
+        }
+
+        return true;
     }
 
     /**
@@ -145,21 +205,37 @@ public abstract class AssertUtil {
      * 确保对象为空，否则抛出<code>CheckedFailedException</code>。
      */
     public static boolean isFalse(boolean expression) {
-        return isFalse(expression, null, null, (Object[]) null);
+        return isFalse(expression, (ExceptionType) null, null, (Object[]) null);
     }
 
     /**
      * 确保对象为空，否则抛出<code>CheckedFailedException</code>。
      */
     public static boolean isFalse(boolean expression, String message) {
-        return isFalse(expression, null, message, (Object[]) null);
+        return isFalse(expression, (ExceptionType) null, message, (Object[]) null);
     }
 
     /**
      * 确保对象为空，否则抛出<code>CheckedFailedException</code>。
      */
     public static boolean isFalse(boolean expression, String message, Object... args) {
-        return isFalse(expression, null, message, args);
+        return isFalse(expression, (ExceptionType) null, message, args);
+    }
+
+    /**
+     * 确保表达式为<code>false</code>，否则抛出<code>CheckedFailedException</code>。
+     * <div>
+     * 消息只在断言失败时生成。
+     * </div>
+     */
+    public static boolean isFalseLazy(boolean expression, Supplier<String> messageSupplier) {
+        if (expression) {
+            throw ExceptionType.CHECK_FAILED.newInstance(__getMessage(
+                    messageSupplier == null ? null : messageSupplier.get(), null,
+                    "[Assertion failed] - the expression argument must be false"));
+        }
+
+        return false;
     }
 
     /**
@@ -180,6 +256,9 @@ public abstract class AssertUtil {
 
     /**
      * 取得带参数的消息。
+     * <div>
+     * 消息中含有<code>{}</code>时依次替换为参数，否则按<code>String.format</code>格式化，兼容原有的<code>%s</code>写法。
+     * </div>
      */
     private static String __getMessage(String message, Object[] args, String defaultMessage) {
         if (message == null) {
@@ -190,7 +269,22 @@ public abstract class AssertUtil {
             return message;
         }
 
-        return String.format(message, args);
+        int index = message.indexOf(PLACEHOLDER);
+        if (index < 0) {
+            return message.indexOf('%') < 0 ? message : String.format(message, args);
+        }
+
+        StringBuilder buffer = new StringBuilder(message.length() + 16 * args.length);
+        int start = 0;
+        for (Object arg : args) {
+            if (index < 0) {
+                break;
+            }
+            buffer.append(message, start, index).append(arg);
+            start = index + PLACEHOLDER.length();
+            index = message.indexOf(PLACEHOLDER, start);
+        }
+        return buffer.append(message, start, message.length()).toString();
     }
 
     /**
@@ -202,8 +296,50 @@ public abstract class AssertUtil {
             public RuntimeException newInstance(String message) {
                 return new CheckedFailedException(message);
             }
+        },
+
+        /**
+         * 不记录异常栈，省去<code>fillInStackTrace</code>的开销
+         */
+        CHECK_FAILED_STACKLESS {
+            @Override
+            public RuntimeException newInstance(String message) {
+                return new StacklessCheckedFailedException(message);
+            }
+        },
+
+        /**
+         * 不记录异常栈，并且相同消息复用同一个实例，最多缓存<code>MAX_CACHED_EXCEPTIONS</code>个消息
+         */
+        CHECK_FAILED_CACHED {
+            @Override
+            public RuntimeException newInstance(String message) {
+                if (message == null) {
+                    return NULL_MESSAGE_EXCEPTION;
+                }
+
+                StacklessCheckedFailedException e = CACHED_EXCEPTIONS.get(message);
+                if (e == null) {
+                    e = new StacklessCheckedFailedException(message);
+                    // 消息可能来自外部输入，超过上限后不再缓存
+                    if (CACHED_EXCEPTIONS.size() < MAX_CACHED_EXCEPTIONS) {
+                        StacklessCheckedFailedException old = CACHED_EXCEPTIONS.putIfAbsent(message, e);
+                        if (old != null) {
+                            e = old;
+                        }
+                    }
+                }
+                return e;
+            }
         };
 
+        private static final int MAX_CACHED_EXCEPTIONS = 1024;
+
+        private static final ConcurrentMap<String, StacklessCheckedFailedException> CACHED_EXCEPTIONS = new ConcurrentHashMap<>();
+
+        private static final StacklessCheckedFailedException NULL_MESSAGE_EXCEPTION = new StacklessCheckedFailedException(
+                null);
+
         public abstract RuntimeException newInstance(String message);
     }
 }
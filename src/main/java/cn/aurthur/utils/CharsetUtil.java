@@ -1,8 +1,20 @@
 package cn.aurthur.utils;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
 import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
 import java.nio.charset.StandardCharsets;
 import java.nio.charset.UnsupportedCharsetException;
+import java.util.HashMap;
+import java.util.Map;
 
 /**
  * 字符集相关工具类
@@ -41,6 +53,36 @@ public abstract class CharsetUtil {
      */
     public static final Charset CHARSET_GBK;
 
+    /**
+     * 流式转码时缓冲区的大小
+     */
+    private static final int STREAM_BUFFER_SIZE = 8192;
+
+    /**
+     * <code>convert</code>缓存的缓冲区的最大字节数，更大的字符串不使用缓存
+     */
+    private static final int MAX_CACHED_BUFFER_SIZE = 64 * 1024;
+
+    private static final ThreadLocal<ByteBuffer> CONVERT_BUFFER = ThreadLocal.withInitial(
+            () -> ByteBuffer.allocate(1024));
+
+    private static final ThreadLocal<Map<Charset, CharsetEncoder>> ENCODERS = ThreadLocal.withInitial(HashMap::new);
+
+    private static final ThreadLocal<Map<Charset, CharsetDecoder>> DECODERS = ThreadLocal.withInitial(HashMap::new);
+
+    private static final ThreadLocal<Map<Charset, Map<Charset, Transcoder>>> TRANSCODERS = ThreadLocal.withInitial(
+            HashMap::new);
+
+    /**
+     * <code>convert</code>和<code>transcode</code>内部使用的编码器和转码器，与返回给调用者的实例分开缓存，
+     * 避免调用者持有的实例被内部调用重置
+     */
+    private static final ThreadLocal<Map<Charset, CharsetEncoder>> CONVERT_ENCODERS = ThreadLocal.withInitial(
+            HashMap::new);
+
+    private static final ThreadLocal<Map<Charset, Map<Charset, Transcoder>>> INTERNAL_TRANSCODERS = ThreadLocal
+            .withInitial(HashMap::new);
+
     static {
         //避免不支持GBK的系统中运行报错 issue#731
         Charset _CHARSET_GBK = null;
@@ -134,7 +176,246 @@ public abstract class CharsetUtil {
         if (EmptyUtil.isEmptyStr(source) || srcCharset.equals(destCharset)) {
             return source;
         }
-        return new String(source.getBytes(srcCharset), destCharset);
+        if (!srcCharset.canEncode() || source.length() > MAX_CACHED_BUFFER_SIZE) {
+            return new String(source.getBytes(srcCharset), destCharset);
+        }
+
+        // 编码到线程缓存的缓冲区，省去中间的 byte[]
+        CharsetEncoder encoder = cachedEncoder(CONVERT_ENCODERS, srcCharset);
+        int capacity = (int) Math.ceil(source.length() * (double) encoder.maxBytesPerChar());
+        ByteBuffer bytes = CONVERT_BUFFER.get();
+        if (bytes.capacity() < capacity) {
+            bytes = ByteBuffer.allocate(capacity);
+            if (capacity <= MAX_CACHED_BUFFER_SIZE) {
+                CONVERT_BUFFER.set(bytes);
+            }
+        }
+
+        ((Buffer) bytes).clear();
+        encoder.encode(CharBuffer.wrap(source), bytes, true);
+        encoder.flush(bytes);
+        return new String(bytes.array(), 0, bytes.position(), destCharset);
+    }
+
+    /**
+     * 取得当前线程缓存的编码器，已重置，遇到错误时使用替换字符，与<code>String.getBytes</code>一致。
+     * <div>
+     * 编码器不能保存到其他线程中使用；<code>convert</code>不使用这个实例。
+     * </div>
+     *
+     * @param charset 字符集
+     * @return 编码器
+     */
+    public static CharsetEncoder encoder(Charset charset) {
+        return cachedEncoder(ENCODERS, charset);
+    }
+
+    private static CharsetEncoder cachedEncoder(ThreadLocal<Map<Charset, CharsetEncoder>> cache, Charset charset) {
+        Map<Charset, CharsetEncoder> encoders = cache.get();
+        CharsetEncoder encoder = encoders.get(charset);
+        if (encoder == null) {
+            encoder = charset.newEncoder().onMalformedInput(CodingErrorAction.REPLACE)
+                    .onUnmappableCharacter(CodingErrorAction.REPLACE);
+            encoders.put(charset, encoder);
+        }
+        return encoder.reset();
+    }
+
+    /**
+     * 取得当前线程缓存的解码器，已重置，遇到错误时使用替换字符，与<code>new String(bytes, charset)</code>一致。
+     * <div>
+     * 解码器不能保存到其他线程中使用。
+     * </div>
+     *
+     * @param charset 字符集
+     * @return 解码器
+     */
+    public static CharsetDecoder decoder(Charset charset) {
+        Map<Charset, CharsetDecoder> decoders = DECODERS.get();
+        CharsetDecoder decoder = decoders.get(charset);
+        if (decoder == null) {
+            decoder = charset.newDecoder().onMalformedInput(CodingErrorAction.REPLACE)
+                    .onUnmappableCharacter(CodingErrorAction.REPLACE);
+            decoders.put(charset, decoder);
+        }
+        return decoder.reset();
+    }
+
+    /**
+     * 取得当前线程缓存的转码器，已重置。
+     * <div>
+     * 同一线程中对同一对字符集返回同一个实例，使用完之前不能再次获取；<code>transcode</code>不使用这个实例。
+     * </div>
+     *
+     * @param srcCharset  源字符集
+     * @param destCharset 目标字符集
+     * @return 转码器
+     */
+    public static Transcoder transcoder(Charset srcCharset, Charset destCharset) {
+        return cachedTranscoder(TRANSCODERS, srcCharset, destCharset);
+    }
+
+    private static Transcoder cachedTranscoder(ThreadLocal<Map<Charset, Map<Charset, Transcoder>>> cache,
+            Charset srcCharset, Charset destCharset) {
+        Map<Charset, Map<Charset, Transcoder>> transcoders = cache.get();
+        Map<Charset, Transcoder> bySource = transcoders.get(srcCharset);
+        if (bySource == null) {
+            bySource = new HashMap<>();
+            transcoders.put(srcCharset, bySource);
+        }
+
+        Transcoder transcoder = bySource.get(destCharset);
+        if (transcoder == null) {
+            transcoder = new Transcoder(srcCharset, destCharset);
+            bySource.put(destCharset, transcoder);
+        }
+        return transcoder.reset();
+    }
+
+    /**
+     * 转码整个缓冲区。
+     *
+     * @param source      源字节，从<code>position</code>读到<code>limit</code>
+     * @param srcCharset  源字符集
+     * @param destCharset 目标字符集
+     * @return 转码后的字节，可以直接读取
+     */
+    public static ByteBuffer transcode(ByteBuffer source, Charset srcCharset, Charset destCharset) {
+        Transcoder transcoder = cachedTranscoder(INTERNAL_TRANSCODERS, srcCharset, destCharset);
+        float ratio = transcoder.decoder.maxCharsPerByte() * transcoder.encoder.averageBytesPerChar();
+        ByteBuffer out = ByteBuffer.allocate((int) Math.ceil(source.remaining() * ratio) + 16);
+
+        while (transcoder.transcode(source, out, true).isOverflow()) {
+            ByteBuffer larger = ByteBuffer.allocate(out.capacity() * 2);
+            ((Buffer) out).flip();
+            larger.put(out);
+            out = larger;
+        }
+
+        ((Buffer) out).flip();
+        return out;
+    }
+
+    /**
+     * 以流的方式转码，缓冲区大小固定，内存占用与输入长度无关，例如将<code>GBK</code>的日志转换为<code>UTF-8</code>。
+     * <div>
+     * 不关闭输入和输出流。
+     * </div>
+     *
+     * @param in          输入流
+     * @param srcCharset  源字符集
+     * @param out         输出流
+     * @param destCharset 目标字符集
+     * @return 输出的字节数
+     * @throws IOException 读取或写入失败
+     */
+    public static long transcode(InputStream in, Charset srcCharset, OutputStream out, Charset destCharset)
+            throws IOException {
+        Transcoder transcoder = cachedTranscoder(INTERNAL_TRANSCODERS, srcCharset, destCharset);
+        ByteBuffer input = ByteBuffer.allocate(STREAM_BUFFER_SIZE);
+        ByteBuffer output = ByteBuffer.allocate(STREAM_BUFFER_SIZE);
+        long written = 0;
+        boolean endOfInput = false;
+
+        while (true) {
+            if (!endOfInput && input.hasRemaining()) {
+                int n = in.read(input.array(), input.arrayOffset() + input.position(), input.remaining());
+                if (n < 0) {
+                    endOfInput = true;
+                } else {
+                    ((Buffer) input).position(input.position() + n);
+                }
+            }
+
+            ((Buffer) input).flip();
+            CoderResult result = transcoder.transcode(input, output, endOfInput);
+            input.compact();
+
+            if (output.position() > 0) {
+                out.write(output.array(), output.arrayOffset(), output.position());
+                written += output.position();
+                ((Buffer) output).clear();
+            }
+
+            if (endOfInput && result.isUnderflow()) {
+                return written;
+            }
+        }
+    }
+
+    /**
+     * 增量转码器：先用源字符集解码为字符，再用目标字符集编码，中间只使用一个固定大小的字符缓冲区。
+     * <div>
+     * 非线程安全，遇到错误的字节或不能映射的字符时使用替换字符。
+     * </div>
+     */
+    public static final class Transcoder {
+        private final CharsetDecoder decoder;
+        private final CharsetEncoder encoder;
+        private final CharBuffer chars = CharBuffer.allocate(STREAM_BUFFER_SIZE);
+        private boolean decoded;
+
+        /**
+         * 创建转码器
+         *
+         * @param srcCharset  源字符集
+         * @param destCharset 目标字符集
+         */
+        public Transcoder(Charset srcCharset, Charset destCharset) {
+            this.decoder = srcCharset.newDecoder().onMalformedInput(CodingErrorAction.REPLACE)
+                    .onUnmappableCharacter(CodingErrorAction.REPLACE);
+            this.encoder = destCharset.newEncoder().onMalformedInput(CodingErrorAction.REPLACE)
+                    .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        }
+
+        /**
+         * 重置状态，开始新的转码
+         */
+        public Transcoder reset() {
+            decoder.reset();
+            encoder.reset();
+            ((Buffer) chars).clear();
+            decoded = false;
+            return this;
+        }
+
+        /**
+         * 尽可能多地转码，语义与<code>CharsetDecoder.decode</code>相同。
+         * <div>
+         * 最后一次调用<code>endOfInput</code>为<code>true</code>，直到返回<code>UNDERFLOW</code>为止，之后需要{@link #reset()}才能再次使用。
+         * </div>
+         *
+         * @param in         输入，不完整的多字节序列会保留在其中等待下一次调用
+         * @param out        输出
+         * @param endOfInput 是否没有更多输入
+         * @return <code>UNDERFLOW</code>表示需要更多输入（或已经完成），<code>OVERFLOW</code>表示输出已满
+         */
+        public CoderResult transcode(ByteBuffer in, ByteBuffer out, boolean endOfInput) {
+            while (true) {
+                CoderResult decodeResult = CoderResult.UNDERFLOW;
+                if (!decoded) {
+                    decodeResult = decoder.decode(in, chars, endOfInput);
+                    if (endOfInput && decodeResult.isUnderflow()) {
+                        decodeResult = decoder.flush(chars);
+                        decoded = decodeResult.isUnderflow();
+                    }
+                }
+
+                ((Buffer) chars).flip();
+                CoderResult encodeResult = encoder.encode(chars, out, decoded);
+                chars.compact();
+                if (encodeResult.isOverflow()) {
+                    return encodeResult;
+                }
+
+                if (decoded) {
+                    return encoder.flush(out);
+                }
+                if (decodeResult.isUnderflow()) {
+                    return decodeResult;
+                }
+            }
+        }
     }
 
     /**
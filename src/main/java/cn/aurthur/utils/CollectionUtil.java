@@ -2,10 +2,15 @@ package cn.aurthur.utils;
 
 import cn.aurthur.lang.able.Keyable;
 import cn.aurthur.lang.collection.ArrayHashMap;
+import cn.aurthur.lang.collection.LongHashMap;
+import cn.aurthur.lang.collection.LongHashSet;
 
 import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
 import java.util.*;
 import java.util.concurrent.*;
+import java.util.function.Function;
+import java.util.function.Predicate;
 
 /**
  * 有关集合处理的工具类，通过静态方法消除泛型编译警告。<br>
@@ -35,17 +40,34 @@ import java.util.concurrent.*;
  * createBlockingQueue 创建BlockingQueue实例 <br>
  * list2Map List 转 Map（需实现 Keyable） <br>
  * collectId 收集ID（需实现 Keyable） <br>
+ * list2LongMap collectLongId 主键为 int/long 时不装箱，parallelList2Map 等为并行版本 <br>
  * merge 集合合并 <br>
  * intersection 集合交集 <br>
  * subtract 补集（set1 - set2） <br>
  * union 并集 <br>
+ * intersection subtract union 也支持有序的 int[]、long[] 以及 PrimitiveIterator <br>
  * concatSuper 连接 <br>
- * concat 连接
+ * concat 连接 <br>
+ * concatView partition mapView filterView 惰性视图，不复制元素
  */
 public abstract class CollectionUtil {
     public CollectionUtil() {
         throw new AssertionError("工具类不允许实例化");
     }
+
+    /**
+     * 并行合并时每个任务处理的最小元素个数
+     */
+    private static final int PARALLEL_MERGE_THRESHOLD = 4096;
+
+    /**
+     * 有序数组求交集时，长数组比短数组长这么多倍以上改用倍增查找
+     */
+    private static final int GALLOP_RATIO = 32;
+
+    private static final int MERGE_INTERSECTION = 0;
+    private static final int MERGE_SUBTRACT = 1;
+    private static final int MERGE_UNION = 2;
     // ==========================================================================
     // 是否有元素
     // ==========================================================================
@@ -1239,6 +1261,96 @@ public abstract class CollectionUtil {
         return result;
     }
 
+    /**
+     * List 转 Map，key 为<code>int</code>或<code>long</code>时使用，不装箱。
+     * <div>
+     * <code>int</code>主键按<code>long</code>存放；<code>null</code>主键的元素被忽略。
+     * </div>
+     *
+     * @throws IllegalArgumentException 如果主键不是<code>Long</code>、<code>Integer</code>、<code>Short</code>或<code>Byte</code>
+     */
+    public static <T extends Keyable<? extends Number>> LongHashMap<T> list2LongMap(List<T> list) {
+        if (list == null) {
+            return null;
+        }
+
+        LongHashMap<T> result = new LongHashMap<>(list.size());
+        for (T data : list) {
+            Number id = data.getId();
+            if (id != null) {
+                result.put(longKey(id), data);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 收集<code>int</code>或<code>long</code>类型的ID，不装箱，<code>null</code>主键被忽略。
+     *
+     * @throws IllegalArgumentException 如果主键不是<code>Long</code>、<code>Integer</code>、<code>Short</code>或<code>Byte</code>
+     */
+    public static <T extends Keyable<? extends Number>> LongHashSet collectLongId(List<T> list) {
+        if (list == null) {
+            return null;
+        }
+
+        LongHashSet result = new LongHashSet(list.size());
+        for (T data : list) {
+            Number id = data.getId();
+            if (id != null) {
+                result.add(longKey(id));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 并行 List 转 Map，每个线程先生成局部 Map 再合并，元素数量小于<code>PARALLEL_MERGE_THRESHOLD</code>时退化为{@link #list2Map(List)}。
+     * <div>
+     * 主键重复时与{@link #list2Map(List)}一致，保留靠后的元素。
+     * </div>
+     */
+    public static <T extends Keyable<K>, K> Map<K, T> parallelList2Map(List<T> list) {
+        if (list == null || list.size() < PARALLEL_MERGE_THRESHOLD) {
+            return list2Map(list);
+        }
+
+        return list.parallelStream().collect(() -> new HashMap<K, T>(), (map, data) -> map.put(data.getId(), data),
+                Map::putAll);
+    }
+
+    /**
+     * 并行 List 转 Map，key 为<code>int</code>或<code>long</code>时使用，参见{@link #list2LongMap(List)}。
+     */
+    public static <T extends Keyable<? extends Number>> LongHashMap<T> parallelList2LongMap(List<T> list) {
+        if (list == null || list.size() < PARALLEL_MERGE_THRESHOLD) {
+            return list2LongMap(list);
+        }
+
+        return list.parallelStream().collect(() -> new LongHashMap<T>(), (map, data) -> {
+            Number id = data.getId();
+            if (id != null) {
+                map.put(longKey(id), data);
+            }
+        }, LongHashMap::putAll);
+    }
+
+    /**
+     * 并行收集<code>int</code>或<code>long</code>类型的ID，参见{@link #collectLongId(List)}。
+     */
+    public static <T extends Keyable<? extends Number>> LongHashSet parallelCollectLongId(List<T> list) {
+        if (list == null || list.size() < PARALLEL_MERGE_THRESHOLD) {
+            return collectLongId(list);
+        }
+
+        return list.parallelStream().collect(LongHashSet::new, (set, data) -> {
+            Number id = data.getId();
+            if (id != null) {
+                set.add(longKey(id));
+            }
+        }, LongHashSet::addAll);
+    }
+
     /**
      * 集合合并
      */
@@ -1248,17 +1360,34 @@ public abstract class CollectionUtil {
             return;
         }
 
-        for (T data : list) {
-            O from = map.get(data.getId());
-            if (from == null) {
-                continue;
-            }
-            for (String field : fields) {
-                Object value = ReflectionUtil.readField(field, from);
-                ReflectionUtil.writeField(data, field, value);
-            }
+        new MergeTask<>(map, fields).accept(list);
+    }
+
+    /**
+     * 并行集合合并，元素数量小于<code>PARALLEL_MERGE_THRESHOLD</code>时退化为{@link #merge(List, Map, String...)}。
+     * <div>
+     * 合并期间<code>list</code>和<code>map</code>不能被修改。
+     * </div>
+     */
+    public static <T extends Keyable<K>, K, O extends Keyable<K>> void parallelMerge(List<T> list, Map<K, O> map,
+            String... fields) {
+        if (EmptyUtil.isEmpty(list) || EmptyUtil.isEmpty(map) || EmptyUtil.isEmpty(fields)) {
+            return;
+        }
+
+        if (list.size() < PARALLEL_MERGE_THRESHOLD) {
+            new MergeTask<>(map, fields).accept(list);
+            return;
         }
 
+        // 每个线程各自缓存上一次用到的复制计划
+        int chunks = Math.max(1, list.size() / PARALLEL_MERGE_THRESHOLD);
+        List<List<T>> parts = createArrayList(chunks);
+        int step = (list.size() + chunks - 1) / chunks;
+        for (int from = 0; from < list.size(); from += step) {
+            parts.add(list.subList(from, Math.min(list.size(), from + step)));
+        }
+        parts.parallelStream().forEach(part -> new MergeTask<>(map, fields).accept(part));
     }
 
     /**
@@ -1270,17 +1399,7 @@ public abstract class CollectionUtil {
             return;
         }
 
-        for (T data : list) {
-            O from = map.get(data.getId());
-            if (from == null) {
-                continue;
-            }
-            for (Field field : fields) {
-                Object value = ReflectionUtil.readField(field, from);
-                ReflectionUtil.writeField(data, field.getName(), value);
-            }
-        }
-
+        mergeFields(list, map, fields);
     }
 
     /**
@@ -1292,10 +1411,23 @@ public abstract class CollectionUtil {
             return;
         }
 
-        Field[] allFields = ReflectionUtil.getAllInstanceFields(clazz);
-        Set<Field> firstFieldSet = createHashSet(fields);
-        Set<Field> secFieldSet = createHashSet(allFields);
-        Set<Field> intersection = intersection(firstFieldSet, secFieldSet);
+        // 只保留 clazz 及其父类中的非静态 Field
+        List<Field> intersection = createArrayList(fields.length);
+        for (Field field : fields) {
+            if (field != null && !Modifier.isStatic(field.getModifiers())
+                    && ReflectionUtil.hasSuperClass(field.getDeclaringClass())
+                    && field.getDeclaringClass().isAssignableFrom(clazz) && !intersection.contains(field)) {
+                intersection.add(field);
+            }
+        }
+
+        mergeFields(list, map, intersection.toArray(new Field[0]));
+    }
+
+    private static <T extends Keyable<K>, K, O extends Keyable<K>> void mergeFields(List<T> list, Map<K, O> map,
+            Field[] fields) {
+        Class<?> targetClass = null;
+        ReflectionUtil.CopyPlan plan = null;
 
         for (T data : list) {
             O from = map.get(data.getId());
@@ -1303,12 +1435,44 @@ public abstract class CollectionUtil {
                 continue;
             }
 
-            for (Field field : intersection) {
-                Object value = ReflectionUtil.readField(field, from);
-                ReflectionUtil.writeField(data, field.getName(), value);
+            if (data.getClass() != targetClass) {
+                targetClass = data.getClass();
+                plan = ReflectionUtil.getCopyPlan(targetClass, fields);
             }
+            plan.copy(from, data);
+        }
+    }
+
+    /**
+     * 按<code>Field</code>名合并，缓存上一次的源类和目标类对应的复制计划
+     */
+    private static class MergeTask<K, O> {
+        private final Map<K, O> map;
+        private final String[] fields;
+        private Class<?> sourceClass;
+        private Class<?> targetClass;
+        private ReflectionUtil.CopyPlan plan;
+
+        MergeTask(Map<K, O> map, String[] fields) {
+            this.map = map;
+            this.fields = fields;
         }
 
+        void accept(List<? extends Keyable<K>> list) {
+            for (Keyable<K> data : list) {
+                O from = map.get(data.getId());
+                if (from == null) {
+                    continue;
+                }
+
+                if (from.getClass() != sourceClass || data.getClass() != targetClass) {
+                    sourceClass = from.getClass();
+                    targetClass = data.getClass();
+                    plan = ReflectionUtil.getCopyPlan(sourceClass, targetClass, fields);
+                }
+                plan.copy(from, data);
+            }
+        }
     }
 
     // ==========================================================================
@@ -1367,6 +1531,630 @@ public abstract class CollectionUtil {
         return result;
     }
 
+    // ==========================================================================
+    // 有序基本类型数组的集合运算，避免装箱。
+    // ==========================================================================
+
+    /**
+     * 有序int数组的交集。
+     * <div>
+     * 两个参数都必须是升序且不含重复元素的数组。按数组长度和稠密程度自动选择算法：
+     * 长度相差很大时在长数组中倍增查找（galloping），元素稠密时使用位图，否则归并。
+     * </div>
+     *
+     * @return 升序的交集，任一参数为<code>null</code>时返回<code>null</code>
+     */
+    public static int[] intersection(int[] set1, int[] set2) {
+        if (set1 == null || set2 == null) {
+            return null;
+        }
+
+        int[] small = set1.length <= set2.length ? set1 : set2;
+        int[] big = small == set1 ? set2 : set1;
+        if (small.length == 0) {
+            return new int[0];
+        }
+
+        // 稠密时用位图过滤，避免比较分支
+        int low = Math.max(small[0], big[0]);
+        long range = (long) Math.min(small[small.length - 1], big[big.length - 1]) - low + 1;
+        if (range <= 0) {
+            return new int[0];
+        }
+        if ((range >>> 6) <= small.length && range <= Integer.MAX_VALUE) {
+            return intersectionByBitmap(small, big, low, (int) range);
+        }
+
+        int[] result = new int[small.length];
+        int n = intersection(small, small.length, big, big.length, result);
+        return n == result.length ? result : Arrays.copyOf(result, n);
+    }
+
+    /**
+     * 原地求有序int数组的交集，结果写入<code>set1</code>的前部。
+     *
+     * @param set1    升序且不含重复元素的数组，同时用来存放结果
+     * @param length1 <code>set1</code>中有效元素的个数
+     * @param set2    升序且不含重复元素的数组
+     * @param length2 <code>set2</code>中有效元素的个数
+     * @return 交集的元素个数
+     */
+    public static int intersectionInPlace(int[] set1, int length1, int[] set2, int length2) {
+        return intersection(set1, length1, set2, length2, set1);
+    }
+
+    /**
+     * 有序int数组的补集 set1 - set2，参数要求同{@link #intersection(int[], int[])}。
+     *
+     * @return 升序的补集，任一参数为<code>null</code>时返回<code>null</code>
+     */
+    public static int[] subtract(int[] set1, int[] set2) {
+        if (set1 == null || set2 == null) {
+            return null;
+        }
+
+        int[] result = new int[set1.length];
+        int n = subtract(set1, set1.length, set2, set2.length, result);
+        return n == result.length ? result : Arrays.copyOf(result, n);
+    }
+
+    /**
+     * 原地求有序int数组的补集 set1 - set2，结果写入<code>set1</code>的前部。
+     *
+     * @return 补集的元素个数
+     */
+    public static int subtractInPlace(int[] set1, int length1, int[] set2, int length2) {
+        return subtract(set1, length1, set2, length2, set1);
+    }
+
+    /**
+     * 有序int数组的并集，参数要求同{@link #intersection(int[], int[])}。
+     *
+     * @return 升序的并集，总是新的数组；<code>set1</code>为空并且<code>set2</code>为<code>null</code>时返回<code>null</code>
+     */
+    public static int[] union(int[] set1, int[] set2) {
+        if (EmptyUtil.isEmpty(set1)) {
+            return set2 == null ? null : set2.clone();
+        }
+        if (EmptyUtil.isEmpty(set2)) {
+            return set1.clone();
+        }
+
+        int[] result = new int[set1.length + set2.length];
+        int n = 0;
+        int i = 0;
+        int j = 0;
+        while (i < set1.length && j < set2.length) {
+            if (set1[i] < set2[j]) {
+                result[n++] = set1[i++];
+            } else if (set1[i] > set2[j]) {
+                result[n++] = set2[j++];
+            } else {
+                result[n++] = set1[i++];
+                j++;
+            }
+        }
+        System.arraycopy(set1, i, result, n, set1.length - i);
+        n += set1.length - i;
+        System.arraycopy(set2, j, result, n, set2.length - j);
+        n += set2.length - j;
+
+        return n == result.length ? result : Arrays.copyOf(result, n);
+    }
+
+    /**
+     * 两个升序int序列的交集，惰性计算，适合从游标或文件中流式读取的数据。
+     */
+    public static PrimitiveIterator.OfInt intersection(PrimitiveIterator.OfInt set1, PrimitiveIterator.OfInt set2) {
+        return new SortedIntMergeIterator(set1, set2, MERGE_INTERSECTION);
+    }
+
+    /**
+     * 两个升序int序列的补集 set1 - set2，惰性计算。
+     */
+    public static PrimitiveIterator.OfInt subtract(PrimitiveIterator.OfInt set1, PrimitiveIterator.OfInt set2) {
+        return new SortedIntMergeIterator(set1, set2, MERGE_SUBTRACT);
+    }
+
+    /**
+     * 两个升序int序列的并集，惰性计算。
+     */
+    public static PrimitiveIterator.OfInt union(PrimitiveIterator.OfInt set1, PrimitiveIterator.OfInt set2) {
+        return new SortedIntMergeIterator(set1, set2, MERGE_UNION);
+    }
+
+    private static int intersection(int[] set1, int length1, int[] set2, int length2, int[] result) {
+        if (length1 == 0 || length2 == 0) {
+            return 0;
+        }
+
+        int[] small = set1;
+        int[] big = set2;
+        int smallLength = length1;
+        int bigLength = length2;
+        if (length1 > length2) {
+            small = set2;
+            big = set1;
+            smallLength = length2;
+            bigLength = length1;
+        }
+
+        int n = 0;
+        if ((long) bigLength > (long) GALLOP_RATIO * smallLength) {
+            int from = 0;
+            for (int i = 0; i < smallLength && from < bigLength; i++) {
+                from = gallop(big, from, bigLength, small[i]);
+                if (from < bigLength && big[from] == small[i]) {
+                    result[n++] = small[i];
+                    from++;
+                }
+            }
+            return n;
+        }
+
+        for (int i = 0, j = 0; i < length1 && j < length2; ) {
+            if (set1[i] < set2[j]) {
+                i++;
+            } else if (set1[i] > set2[j]) {
+                j++;
+            } else {
+                result[n++] = set1[i];
+                i++;
+                j++;
+            }
+        }
+        return n;
+    }
+
+    private static int[] intersectionByBitmap(int[] small, int[] big, int low, int range) {
+        long[] words = new long[(range + 63) >>> 6];
+        for (int value : small) {
+            long offset = (long) value - low;
+            if (offset >= 0 && offset < range) {
+                words[(int) (offset >>> 6)] |= 1L << offset;
+            }
+        }
+
+        int[] result = new int[small.length];
+        int n = 0;
+        for (int value : big) {
+            long offset = (long) value - low;
+            if (offset >= 0 && offset < range && (words[(int) (offset >>> 6)] & (1L << offset)) != 0) {
+                result[n++] = value;
+            }
+        }
+        return n == result.length ? result : Arrays.copyOf(result, n);
+    }
+
+    private static int subtract(int[] set1, int length1, int[] set2, int length2, int[] result) {
+        int n = 0;
+        boolean gallop = (long) length2 > (long) GALLOP_RATIO * length1;
+        for (int i = 0, j = 0; i < length1; i++) {
+            int value = set1[i];
+            if (gallop) {
+                j = gallop(set2, j, length2, value);
+            } else {
+                while (j < length2 && set2[j] < value) {
+                    j++;
+                }
+            }
+            if (j >= length2 || set2[j] != value) {
+                result[n++] = value;
+            }
+        }
+        return n;
+    }
+
+    /**
+     * 从<code>from</code>开始倍增查找第一个不小于<code>value</code>的位置
+     */
+    private static int gallop(int[] array, int from, int to, int value) {
+        int step = 1;
+        int lo = from;
+        int hi = from;
+        while (hi < to && array[hi] < value) {
+            lo = hi + 1;
+            hi = from + step;
+            step <<= 1;
+        }
+        hi = Math.min(hi, to);
+
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (array[mid] < value) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    private static final class SortedIntMergeIterator implements PrimitiveIterator.OfInt {
+        private final PrimitiveIterator.OfInt it1;
+        private final PrimitiveIterator.OfInt it2;
+        private final int mode;
+        private int head1;
+        private int head2;
+        private boolean has1;
+        private boolean has2;
+        private int next;
+        private boolean hasNext;
+
+        SortedIntMergeIterator(PrimitiveIterator.OfInt it1, PrimitiveIterator.OfInt it2, int mode) {
+            this.it1 = it1;
+            this.it2 = it2;
+            this.mode = mode;
+            advance1();
+            advance2();
+            computeNext();
+        }
+
+        private void advance1() {
+            has1 = it1 != null && it1.hasNext();
+            if (has1) {
+                head1 = it1.nextInt();
+            }
+        }
+
+        private void advance2() {
+            has2 = it2 != null && it2.hasNext();
+            if (has2) {
+                head2 = it2.nextInt();
+            }
+        }
+
+        private void computeNext() {
+            while (true) {
+                if (!has1 && (!has2 || mode != MERGE_UNION)) {
+                    hasNext = false;
+                    return;
+                }
+
+                if (!has2 || (has1 && head1 < head2)) {
+                    // 只在 set1 中
+                    int value = head1;
+                    advance1();
+                    if (mode != MERGE_INTERSECTION) {
+                        next = value;
+                        hasNext = true;
+                        return;
+                    }
+                } else if (!has1 || head1 > head2) {
+                    // 只在 set2 中
+                    int value = head2;
+                    advance2();
+                    if (mode == MERGE_UNION) {
+                        next = value;
+                        hasNext = true;
+                        return;
+                    }
+                } else {
+                    // 两边都有
+                    int value = head1;
+                    advance1();
+                    advance2();
+                    if (mode != MERGE_SUBTRACT) {
+                        next = value;
+                        hasNext = true;
+                        return;
+                    }
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return hasNext;
+        }
+
+        @Override
+        public int nextInt() {
+            if (!hasNext) {
+                throw new NoSuchElementException();
+            }
+
+            int value = next;
+            computeNext();
+            return value;
+        }
+    }
+
+    /**
+     * 有序long数组的交集。
+     * <div>
+     * 两个参数都必须是升序且不含重复元素的数组。按数组长度和稠密程度自动选择算法：
+     * 长度相差很大时在长数组中倍增查找（galloping），否则归并。
+     * </div>
+     *
+     * @return 升序的交集，任一参数为<code>null</code>时返回<code>null</code>
+     */
+    public static long[] intersection(long[] set1, long[] set2) {
+        if (set1 == null || set2 == null) {
+            return null;
+        }
+
+        long[] small = set1.length <= set2.length ? set1 : set2;
+        long[] big = small == set1 ? set2 : set1;
+        if (small.length == 0) {
+            return new long[0];
+        }
+
+        long[] result = new long[small.length];
+        int n = intersection(small, small.length, big, big.length, result);
+        return n == result.length ? result : Arrays.copyOf(result, n);
+    }
+
+    /**
+     * 原地求有序long数组的交集，结果写入<code>set1</code>的前部。
+     *
+     * @param set1    升序且不含重复元素的数组，同时用来存放结果
+     * @param length1 <code>set1</code>中有效元素的个数
+     * @param set2    升序且不含重复元素的数组
+     * @param length2 <code>set2</code>中有效元素的个数
+     * @return 交集的元素个数
+     */
+    public static int intersectionInPlace(long[] set1, int length1, long[] set2, int length2) {
+        return intersection(set1, length1, set2, length2, set1);
+    }
+
+    /**
+     * 有序long数组的补集 set1 - set2，参数要求同{@link #intersection(long[], long[])}。
+     *
+     * @return 升序的补集，任一参数为<code>null</code>时返回<code>null</code>
+     */
+    public static long[] subtract(long[] set1, long[] set2) {
+        if (set1 == null || set2 == null) {
+            return null;
+        }
+
+        long[] result = new long[set1.length];
+        int n = subtract(set1, set1.length, set2, set2.length, result);
+        return n == result.length ? result : Arrays.copyOf(result, n);
+    }
+
+    /**
+     * 原地求有序long数组的补集 set1 - set2，结果写入<code>set1</code>的前部。
+     *
+     * @return 补集的元素个数
+     */
+    public static int subtractInPlace(long[] set1, int length1, long[] set2, int length2) {
+        return subtract(set1, length1, set2, length2, set1);
+    }
+
+    /**
+     * 有序long数组的并集，参数要求同{@link #intersection(long[], long[])}。
+     *
+     * @return 升序的并集，总是新的数组；<code>set1</code>为空并且<code>set2</code>为<code>null</code>时返回<code>null</code>
+     */
+    public static long[] union(long[] set1, long[] set2) {
+        if (EmptyUtil.isEmpty(set1)) {
+            return set2 == null ? null : set2.clone();
+        }
+        if (EmptyUtil.isEmpty(set2)) {
+            return set1.clone();
+        }
+
+        long[] result = new long[set1.length + set2.length];
+        int n = 0;
+        int i = 0;
+        int j = 0;
+        while (i < set1.length && j < set2.length) {
+            if (set1[i] < set2[j]) {
+                result[n++] = set1[i++];
+            } else if (set1[i] > set2[j]) {
+                result[n++] = set2[j++];
+            } else {
+                result[n++] = set1[i++];
+                j++;
+            }
+        }
+        System.arraycopy(set1, i, result, n, set1.length - i);
+        n += set1.length - i;
+        System.arraycopy(set2, j, result, n, set2.length - j);
+        n += set2.length - j;
+
+        return n == result.length ? result : Arrays.copyOf(result, n);
+    }
+
+    /**
+     * 两个升序long序列的交集，惰性计算，适合从游标或文件中流式读取的数据。
+     */
+    public static PrimitiveIterator.OfLong intersection(PrimitiveIterator.OfLong set1, PrimitiveIterator.OfLong set2) {
+        return new SortedLongMergeIterator(set1, set2, MERGE_INTERSECTION);
+    }
+
+    /**
+     * 两个升序long序列的补集 set1 - set2，惰性计算。
+     */
+    public static PrimitiveIterator.OfLong subtract(PrimitiveIterator.OfLong set1, PrimitiveIterator.OfLong set2) {
+        return new SortedLongMergeIterator(set1, set2, MERGE_SUBTRACT);
+    }
+
+    /**
+     * 两个升序long序列的并集，惰性计算。
+     */
+    public static PrimitiveIterator.OfLong union(PrimitiveIterator.OfLong set1, PrimitiveIterator.OfLong set2) {
+        return new SortedLongMergeIterator(set1, set2, MERGE_UNION);
+    }
+
+    private static int intersection(long[] set1, int length1, long[] set2, int length2, long[] result) {
+        if (length1 == 0 || length2 == 0) {
+            return 0;
+        }
+
+        long[] small = set1;
+        long[] big = set2;
+        int smallLength = length1;
+        int bigLength = length2;
+        if (length1 > length2) {
+            small = set2;
+            big = set1;
+            smallLength = length2;
+            bigLength = length1;
+        }
+
+        int n = 0;
+        if ((long) bigLength > (long) GALLOP_RATIO * smallLength) {
+            int from = 0;
+            for (int i = 0; i < smallLength && from < bigLength; i++) {
+                from = gallop(big, from, bigLength, small[i]);
+                if (from < bigLength && big[from] == small[i]) {
+                    result[n++] = small[i];
+                    from++;
+                }
+            }
+            return n;
+        }
+
+        for (int i = 0, j = 0; i < length1 && j < length2; ) {
+            if (set1[i] < set2[j]) {
+                i++;
+            } else if (set1[i] > set2[j]) {
+                j++;
+            } else {
+                result[n++] = set1[i];
+                i++;
+                j++;
+            }
+        }
+        return n;
+    }
+
+    private static int subtract(long[] set1, int length1, long[] set2, int length2, long[] result) {
+        int n = 0;
+        boolean gallop = (long) length2 > (long) GALLOP_RATIO * length1;
+        for (int i = 0, j = 0; i < length1; i++) {
+            long value = set1[i];
+            if (gallop) {
+                j = gallop(set2, j, length2, value);
+            } else {
+                while (j < length2 && set2[j] < value) {
+                    j++;
+                }
+            }
+            if (j >= length2 || set2[j] != value) {
+                result[n++] = value;
+            }
+        }
+        return n;
+    }
+
+    /**
+     * 从<code>from</code>开始倍增查找第一个不小于<code>value</code>的位置
+     */
+    private static int gallop(long[] array, int from, int to, long value) {
+        int step = 1;
+        int lo = from;
+        int hi = from;
+        while (hi < to && array[hi] < value) {
+            lo = hi + 1;
+            hi = from + step;
+            step <<= 1;
+        }
+        hi = Math.min(hi, to);
+
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (array[mid] < value) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    private static final class SortedLongMergeIterator implements PrimitiveIterator.OfLong {
+        private final PrimitiveIterator.OfLong it1;
+        private final PrimitiveIterator.OfLong it2;
+        private final int mode;
+        private long head1;
+        private long head2;
+        private boolean has1;
+        private boolean has2;
+        private long next;
+        private boolean hasNext;
+
+        SortedLongMergeIterator(PrimitiveIterator.OfLong it1, PrimitiveIterator.OfLong it2, int mode) {
+            this.it1 = it1;
+            this.it2 = it2;
+            this.mode = mode;
+            advance1();
+            advance2();
+            computeNext();
+        }
+
+        private void advance1() {
+            has1 = it1 != null && it1.hasNext();
+            if (has1) {
+                head1 = it1.nextLong();
+            }
+        }
+
+        private void advance2() {
+            has2 = it2 != null && it2.hasNext();
+            if (has2) {
+                head2 = it2.nextLong();
+            }
+        }
+
+        private void computeNext() {
+            while (true) {
+                if (!has1 && (!has2 || mode != MERGE_UNION)) {
+                    hasNext = false;
+                    return;
+                }
+
+                if (!has2 || (has1 && head1 < head2)) {
+                    // 只在 set1 中
+                    long value = head1;
+                    advance1();
+                    if (mode != MERGE_INTERSECTION) {
+                        next = value;
+                        hasNext = true;
+                        return;
+                    }
+                } else if (!has1 || head1 > head2) {
+                    // 只在 set2 中
+                    long value = head2;
+                    advance2();
+                    if (mode == MERGE_UNION) {
+                        next = value;
+                        hasNext = true;
+                        return;
+                    }
+                } else {
+                    // 两边都有
+                    long value = head1;
+                    advance1();
+                    advance2();
+                    if (mode != MERGE_SUBTRACT) {
+                        next = value;
+                        hasNext = true;
+                        return;
+                    }
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return hasNext;
+        }
+
+        @Override
+        public long nextLong() {
+            if (!hasNext) {
+                throw new NoSuchElementException();
+            }
+
+            long value = next;
+            computeNext();
+            return value;
+        }
+    }
+
     /**
      * 连接
      */
@@ -1398,10 +2186,292 @@ public abstract class CollectionUtil {
         return collection1;
     }
 
+    // ==========================================================================
+    // 惰性视图，不复制元素。
+    // ==========================================================================
+
+    /**
+     * 连接多个列表的只读视图，不复制元素。
+     * <div>
+     * 视图创建时记录各列表的长度，之后底层列表长度改变会导致视图失效。底层列表支持随机访问时，
+     * <code>get(int)</code>为<code>O(log k)</code>，<code>k</code>为列表个数。
+     * </div>
+     *
+     * @param lists 要连接的列表，<code>null</code>视为空列表
+     * @return 只读视图
+     */
+    @SafeVarargs
+    public static <T> List<T> concatView(List<? extends T>... lists) {
+        if (lists == null || lists.length == 0) {
+            return Collections.emptyList();
+        }
+
+        // 复制到 List 中，不把泛型数组传给视图
+        List<List<? extends T>> copy = createArrayList(lists.length);
+        boolean randomAccess = true;
+        for (List<? extends T> list : lists) {
+            copy.add(list);
+            randomAccess &= list == null || list instanceof RandomAccess;
+        }
+        return randomAccess ? new RandomAccessConcatList<>(copy) : new ConcatList<>(copy);
+    }
+
+    /**
+     * 将列表按固定长度分块的视图，每块都是原列表的<code>subList</code>，最后一块可能较短。适用于分批写库等场景。
+     *
+     * @param list 要分块的列表
+     * @param size 每块的长度
+     * @return 分块视图，列表为<code>null</code>时返回<code>null</code>
+     * @throws IllegalArgumentException 如果<code>size</code>小于等于<code>0</code>
+     */
+    public static <T> List<List<T>> partition(List<T> list, int size) {
+        if (list == null) {
+            return null;
+        }
+
+        if (size <= 0) {
+            throw new IllegalArgumentException("Illegal partition size: " + size);
+        }
+
+        return list instanceof RandomAccess ? new RandomAccessPartitionList<>(list, size)
+                : new PartitionList<>(list, size);
+    }
+
+    /**
+     * 对每个元素做转换的只读视图，访问元素时才调用<code>mapper</code>，结果不缓存。
+     *
+     * @param list   原列表
+     * @param mapper 转换函数
+     * @return 只读视图，列表为<code>null</code>时返回<code>null</code>
+     */
+    public static <T, R> List<R> mapView(List<T> list, Function<? super T, ? extends R> mapper) {
+        if (list == null) {
+            return null;
+        }
+
+        return list instanceof RandomAccess ? new RandomAccessMappedList<>(list, mapper)
+                : new MappedList<>(list, mapper);
+    }
+
+    /**
+     * 只包含满足条件的元素的视图，遍历时才做判断。
+     *
+     * @param iterable  原集合
+     * @param predicate 过滤条件
+     * @return 只读视图，集合为<code>null</code>时返回<code>null</code>
+     */
+    public static <T> Iterable<T> filterView(final Iterable<T> iterable, final Predicate<? super T> predicate) {
+        if (iterable == null) {
+            return null;
+        }
+
+        return () -> new Iterator<T>() {
+            private final Iterator<T> iterator = iterable.iterator();
+            private T next;
+            private boolean hasNext;
+
+            {
+                advance();
+            }
+
+            private void advance() {
+                hasNext = false;
+                while (iterator.hasNext()) {
+                    T value = iterator.next();
+                    if (predicate.test(value)) {
+                        next = value;
+                        hasNext = true;
+                        return;
+                    }
+                }
+                next = null;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return hasNext;
+            }
+
+            @Override
+            public T next() {
+                if (!hasNext) {
+                    throw new NoSuchElementException();
+                }
+
+                T value = next;
+                advance();
+                return value;
+            }
+        };
+    }
+
+    private static class ConcatList<T> extends AbstractList<T> {
+        private final List<List<? extends T>> lists;
+        /**
+         * <code>offsets[i]</code>为第<code>i</code>个列表第一个元素的下标，最后一个为总长度
+         */
+        private final int[] offsets;
+
+        ConcatList(List<List<? extends T>> lists) {
+            this.lists = lists;
+            this.offsets = new int[lists.size() + 1];
+            for (int i = 0; i < lists.size(); i++) {
+                long total = (long) offsets[i] + (lists.get(i) == null ? 0 : lists.get(i).size());
+                if (total > Integer.MAX_VALUE) {
+                    throw new IllegalArgumentException("List too large");
+                }
+                offsets[i + 1] = (int) total;
+            }
+        }
+
+        @Override
+        public T get(int index) {
+            if (index < 0 || index >= size()) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+            }
+
+            int i = Arrays.binarySearch(offsets, index);
+            if (i < 0) {
+                i = -i - 2;
+            } else {
+                // 跳过空列表
+                while (offsets[i + 1] == index) {
+                    i++;
+                }
+            }
+            return lists.get(i).get(index - offsets[i]);
+        }
+
+        @Override
+        public int size() {
+            return offsets[lists.size()];
+        }
+
+        @Override
+        public Iterator<T> iterator() {
+            return new Iterator<T>() {
+                private int list = -1;
+                private Iterator<? extends T> current = Collections.emptyIterator();
+
+                @Override
+                public boolean hasNext() {
+                    while (!current.hasNext()) {
+                        if (++list >= lists.size()) {
+                            return false;
+                        }
+                        current = lists.get(list) == null ? Collections.<T>emptyIterator() : lists.get(list).iterator();
+                    }
+                    return true;
+                }
+
+                @Override
+                public T next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    return current.next();
+                }
+            };
+        }
+    }
+
+    private static class PartitionList<T> extends AbstractList<List<T>> {
+        private final List<T> list;
+        private final int size;
+
+        PartitionList(List<T> list, int size) {
+            this.list = list;
+            this.size = size;
+        }
+
+        @Override
+        public List<T> get(int index) {
+            if (index < 0 || index >= size()) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+            }
+
+            long from = (long) index * size;
+            return list.subList((int) from, (int) Math.min(list.size(), from + size));
+        }
+
+        @Override
+        public int size() {
+            return (int) (((long) list.size() + size - 1) / size);
+        }
+    }
+
+    private static class MappedList<T, R> extends AbstractList<R> {
+        private final List<T> list;
+        private final Function<? super T, ? extends R> mapper;
+
+        MappedList(List<T> list, Function<? super T, ? extends R> mapper) {
+            this.list = list;
+            this.mapper = mapper;
+        }
+
+        @Override
+        public R get(int index) {
+            return mapper.apply(list.get(index));
+        }
+
+        @Override
+        public int size() {
+            return list.size();
+        }
+
+        @Override
+        public Iterator<R> iterator() {
+            final Iterator<T> iterator = list.iterator();
+            return new Iterator<R>() {
+                @Override
+                public boolean hasNext() {
+                    return iterator.hasNext();
+                }
+
+                @Override
+                public R next() {
+                    return mapper.apply(iterator.next());
+                }
+            };
+        }
+    }
+
+    /**
+     * 底层列表都支持随机访问时使用，与<code>Collections.unmodifiableList</code>的做法相同
+     */
+    private static final class RandomAccessConcatList<T> extends ConcatList<T> implements RandomAccess {
+        RandomAccessConcatList(List<List<? extends T>> lists) {
+            super(lists);
+        }
+    }
+
+    private static final class RandomAccessPartitionList<T> extends PartitionList<T> implements RandomAccess {
+        RandomAccessPartitionList(List<T> list, int size) {
+            super(list, size);
+        }
+    }
+
+    private static final class RandomAccessMappedList<T, R> extends MappedList<T, R> implements RandomAccess {
+        RandomAccessMappedList(List<T> list, Function<? super T, ? extends R> mapper) {
+            super(list, mapper);
+        }
+    }
+
     // ==========================================================================
     // private
     // ==========================================================================
 
+    /**
+     * 整数主键转为<code>long</code>，浮点数等主键转换后可能冲突，直接拒绝
+     */
+    private static long longKey(Number id) {
+        if (id instanceof Long || id instanceof Integer || id instanceof Short || id instanceof Byte) {
+            return id.longValue();
+        }
+
+        throw new IllegalArgumentException("Not an integral key: " + id.getClass().getName());
+    }
+
     private static <E> void iterableToCollection(Iterable<? extends E> iter, Collection<E> list) {
         if (iter == null) {
             return;
@@ -1,11 +1,17 @@
 package cn.aurthur.utils;
 
 
+import java.io.IOException;
 import java.io.PrintWriter;
 import java.io.StringWriter;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * 处理异常的工具类。
@@ -15,6 +21,11 @@ public abstract class ExceptionUtil {
         throw new AssertionError("工具类不允许实例化");
     }
 
+    /**
+     * 默认最多输出的 cause 层数
+     */
+    private static final int DEFAULT_MAX_CAUSES = 8;
+
     /**
      * 检查异常是否由指定类型的异常引起。
      *
@@ -173,4 +184,292 @@ public abstract class ExceptionUtil {
         return buffer.toString();
     }
 
+    /**
+     * 取得有长度限制的异常stacktrace字符串，参见{@link #appendStackTrace(Throwable, Appendable, int, int, String...)}。
+     *
+     * @param throwable      受检异常
+     * @param maxFrames      每个异常最多输出的栈帧数
+     * @param foldedPackages 需要折叠的包名前缀，例如框架代码
+     * @return stacktrace 字符串
+     */
+    public static String getStackTrace(Throwable throwable, int maxFrames, String... foldedPackages) {
+        StringBuilder buffer = new StringBuilder(1024);
+        try {
+            appendStackTrace(throwable, buffer, maxFrames, DEFAULT_MAX_CAUSES, foldedPackages);
+        } catch (IOException e) {
+            // StringBuilder 不会抛出 IOException
+            throw new IllegalStateException(e);
+        }
+        return buffer.toString();
+    }
+
+    /**
+     * 将异常栈直接写入<code>out</code>，格式与<code>printStackTrace</code>相同，但有长度限制：
+     * <ul>
+     * <li>每个异常最多输出<code>maxFrames</code>个栈帧，其余输出为<code>... n more</code></li>
+     * <li>最多输出<code>maxCauses</code>层 cause 和 suppressed 异常</li>
+     * <li>连续的、类名以<code>foldedPackages</code>开头的栈帧合并为一行</li>
+     * <li>cause 中与外层相同的尾部栈帧省略，和<code>printStackTrace</code>一样</li>
+     * </ul>
+     *
+     * @param throwable      受检异常
+     * @param out            输出
+     * @param maxFrames      每个异常最多输出的栈帧数
+     * @param maxCauses      最多输出的 cause 和 suppressed 异常个数
+     * @param foldedPackages 需要折叠的包名前缀
+     * @throws IOException <code>out</code>写入失败
+     */
+    public static void appendStackTrace(Throwable throwable, Appendable out, int maxFrames, int maxCauses,
+            String... foldedPackages) throws IOException {
+        if (throwable == null) {
+            return;
+        }
+
+        TraceWriter writer = new TraceWriter(out, Math.max(0, maxFrames), Math.max(0, maxCauses), foldedPackages);
+        writer.write(throwable, new StackTraceElement[0], "", "");
+    }
+
+    /**
+     * 输出异常栈的状态
+     */
+    private static class TraceWriter {
+        private final Appendable out;
+        private final int maxFrames;
+        private final String[] foldedPackages;
+        private final Set<Throwable> visited = Collections.newSetFromMap(new IdentityHashMap<Throwable, Boolean>());
+        private int remainingCauses;
+
+        TraceWriter(Appendable out, int maxFrames, int maxCauses, String[] foldedPackages) {
+            this.out = out;
+            this.maxFrames = maxFrames;
+            this.remainingCauses = maxCauses;
+            this.foldedPackages = foldedPackages == null ? new String[0] : foldedPackages;
+        }
+
+        void write(Throwable throwable, StackTraceElement[] enclosingTrace, String caption, String prefix)
+                throws IOException {
+            if (!visited.add(throwable)) {
+                out.append(prefix).append(caption).append("[CIRCULAR REFERENCE: ").append(throwable.toString())
+                        .append("]\n");
+                return;
+            }
+
+            out.append(prefix).append(caption).append(throwable.toString()).append('\n');
+
+            StackTraceElement[] trace = throwable.getStackTrace();
+
+            // 与外层异常相同的尾部栈帧
+            int m = trace.length - 1;
+            int n = enclosingTrace.length - 1;
+            while (m >= 0 && n >= 0 && trace[m].equals(enclosingTrace[n])) {
+                m--;
+                n--;
+            }
+            int framesInCommon = trace.length - 1 - m;
+
+            int written = 0;
+            int i = 0;
+            for (; i <= m && written < maxFrames; written++) {
+                String folded = foldedPackage(trace[i]);
+                if (folded == null) {
+                    out.append(prefix).append("\tat ").append(trace[i].toString()).append('\n');
+                    i++;
+                    continue;
+                }
+
+                int from = i;
+                while (i <= m && foldedPackage(trace[i]) == folded) {
+                    i++;
+                }
+                if (i - from == 1) {
+                    out.append(prefix).append("\tat ").append(trace[from].toString()).append('\n');
+                } else {
+                    out.append(prefix).append("\t... ").append(String.valueOf(i - from)).append(" frames in ")
+                            .append(folded).append('\n');
+                }
+            }
+
+            int omitted = m + 1 - i + framesInCommon;
+            if (omitted > 0) {
+                out.append(prefix).append("\t... ").append(String.valueOf(omitted)).append(" more\n");
+            }
+
+            for (Throwable suppressed : throwable.getSuppressed()) {
+                if (remainingCauses-- <= 0) {
+                    return;
+                }
+                write(suppressed, trace, "Suppressed: ", prefix + "\t");
+            }
+
+            Throwable cause = throwable.getCause();
+            if (cause != null && remainingCauses-- > 0) {
+                write(cause, trace, "Caused by: ", prefix);
+            }
+        }
+
+        private String foldedPackage(StackTraceElement element) {
+            String className = element.getClassName();
+            for (String folded : foldedPackages) {
+                if (className.startsWith(folded)) {
+                    return folded;
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * 异常去重缓存。根据异常类型和最上面的若干栈帧计算指纹，同一指纹的异常只在第一次输出完整的异常栈，
+     * 之后只输出指纹和重复次数，用于异常风暴时减少日志量。
+     * <div>
+     * 线程安全。指纹个数超过上限时清空缓存重新计数。
+     * </div>
+     */
+    public static class StackTraceDeduplicator {
+        private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+        private static final long FNV_PRIME = 0x100000001b3L;
+
+        private final int topFrames;
+        private final int maxEntries;
+        private final int maxFrames;
+        private final String[] foldedPackages;
+        private final ConcurrentMap<Long, AtomicLong> counts = new ConcurrentHashMap<>();
+
+        /**
+         * 创建去重缓存
+         *
+         * @param topFrames      计算指纹使用的栈帧数
+         * @param maxEntries     最多缓存的指纹个数
+         * @param maxFrames      第一次输出时每个异常最多输出的栈帧数
+         * @param foldedPackages 第一次输出时需要折叠的包名前缀
+         */
+        public StackTraceDeduplicator(int topFrames, int maxEntries, int maxFrames, String... foldedPackages) {
+            this.topFrames = topFrames;
+            this.maxEntries = maxEntries;
+            this.maxFrames = maxFrames;
+            this.foldedPackages = foldedPackages;
+        }
+
+        /**
+         * 计算异常的指纹：异常类型、最上面<code>topFrames</code>个栈帧以及根异常的类型。
+         *
+         * @param throwable 异常
+         * @return 指纹
+         */
+        public long fingerprint(Throwable throwable) {
+            long hash = FNV_OFFSET;
+            hash = fnv(hash, throwable.getClass().getName());
+
+            StackTraceElement[] trace = throwable.getStackTrace();
+            for (int i = 0, n = Math.min(topFrames, trace.length); i < n; i++) {
+                hash = fnv(hash, trace[i].getClassName());
+                hash = fnv(hash, trace[i].getMethodName());
+                hash = (hash ^ trace[i].getLineNumber()) * FNV_PRIME;
+            }
+
+            Throwable root = getRootCause(throwable);
+            if (root != throwable) {
+                hash = fnv(hash, root.getClass().getName());
+            }
+            return hash;
+        }
+
+        /**
+         * 记录一次异常。
+         *
+         * @param throwable 异常
+         * @return 异常的指纹和出现次数
+         */
+        public Occurrence record(Throwable throwable) {
+            long fingerprint = fingerprint(throwable);
+            AtomicLong count = counts.get(fingerprint);
+            if (count == null) {
+                if (counts.size() >= maxEntries) {
+                    counts.clear();
+                }
+                AtomicLong old = counts.putIfAbsent(fingerprint, count = new AtomicLong());
+                if (old != null) {
+                    count = old;
+                }
+            }
+            return new Occurrence(fingerprint, count.incrementAndGet());
+        }
+
+        /**
+         * 记录并输出异常：第一次出现时输出带指纹的完整异常栈，重复出现时只输出一行。
+         *
+         * @param throwable 异常
+         * @param out       输出
+         * @return 异常的指纹和出现次数
+         * @throws IOException <code>out</code>写入失败
+         */
+        public Occurrence append(Throwable throwable, Appendable out) throws IOException {
+            Occurrence occurrence = record(throwable);
+            out.append("[trace ").append(occurrence.getId());
+            if (occurrence.isFirst()) {
+                out.append("] ");
+                appendStackTrace(throwable, out, maxFrames, DEFAULT_MAX_CAUSES, foldedPackages);
+            } else {
+                out.append(", suppressed ").append(String.valueOf(occurrence.getSuppressedCount())).append("] ")
+                        .append(throwable.toString()).append('\n');
+            }
+            return occurrence;
+        }
+
+        /**
+         * 清空计数
+         */
+        public void clear() {
+            counts.clear();
+        }
+
+        private static long fnv(long hash, String value) {
+            for (int i = 0; i < value.length(); i++) {
+                hash = (hash ^ value.charAt(i)) * FNV_PRIME;
+            }
+            return hash;
+        }
+    }
+
+    /**
+     * 异常的一次出现，参见{@link StackTraceDeduplicator#record(Throwable)}
+     */
+    public static class Occurrence {
+        private final long fingerprint;
+        private final long count;
+
+        Occurrence(long fingerprint, long count) {
+            this.fingerprint = fingerprint;
+            this.count = count;
+        }
+
+        /**
+         * 指纹的十六进制表示
+         */
+        public String getId() {
+            return Long.toHexString(fingerprint);
+        }
+
+        public long getFingerprint() {
+            return fingerprint;
+        }
+
+        /**
+         * 包括本次在内的出现次数
+         */
+        public long getCount() {
+            return count;
+        }
+
+        /**
+         * 第一次之后被省略输出的次数
+         */
+        public long getSuppressedCount() {
+            return count - 1;
+        }
+
+        public boolean isFirst() {
+            return count == 1;
+        }
+    }
 }
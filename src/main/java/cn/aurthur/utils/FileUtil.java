@@ -1,9 +1,36 @@
 package cn.aurthur.utils;
 
 import cn.aurthur.exception.IllegalPathException;
+import cn.aurthur.lang.collection.LongArrayBuilder;
 
 import java.io.*;
 import java.net.URL;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.DirectoryIteratorException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BinaryOperator;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -53,6 +80,11 @@ public abstract class FileUtil {
      */
     private static final char WINDOWS_SEPARATOR = '\\';
 
+    /**
+     * 切分区域时查找分隔符使用的缓冲区大小
+     */
+    private static final int REGION_SCAN_BUFFER_SIZE = 8192;
+
     /**
      * 判断文件是否存在，如果<code>path</code>为<code>null</code>，则返回<code>false</code>
      *
@@ -161,11 +193,22 @@ public abstract class FileUtil {
             return null;
         }
 
-        return dir.listFiles(new FileFilter() {
-            public boolean accept(File file) {
-                return EmptyUtil.isEmpty(suffix) || (file.getName().endsWith(suffix));
+        if (EmptyUtil.isEmpty(suffix)) {
+            return dir.listFiles();
+        }
+
+        // 只为匹配的文件创建 File 对象
+        String[] names = dir.list();
+        if (names == null) {
+            return null;
+        }
+        List<File> result = new ArrayList<>();
+        for (String name : names) {
+            if (name.endsWith(suffix)) {
+                result.add(new File(dir, name));
             }
-        });
+        }
+        return result.toArray(new File[0]);
     }
 
     /**
@@ -187,11 +230,22 @@ public abstract class FileUtil {
         }
         File dir = new File(dirPath);
 
-        return dir.listFiles(new FileFilter() {
-            public boolean accept(File file) {
-                return EmptyUtil.isEmpty(suffix) || (file.getName().endsWith(suffix));
+        if (EmptyUtil.isEmpty(suffix)) {
+            return dir.listFiles();
+        }
+
+        // 只为匹配的文件创建 File 对象
+        String[] names = dir.list();
+        if (names == null) {
+            return null;
+        }
+        List<File> result = new ArrayList<>();
+        for (String name : names) {
+            if (name.endsWith(suffix)) {
+                result.add(new File(dir, name));
             }
-        });
+        }
+        return result.toArray(new File[0]);
     }
 
     /**
@@ -215,20 +269,8 @@ public abstract class FileUtil {
             return null;
         }
 
-        return dir.listFiles(new FileFilter() {
-            public boolean accept(File file) {
-                if (EmptyUtil.isEmpty(conditions)) {
-                    return true;
-                }
-                for (boolean condition : conditions) {
-                    if (!condition) {
-                        return false;
-                    }
-                }
-
-                return true;
-            }
-        });
+        // 条件与文件无关，列目录前判断一次即可
+        return allConditions(conditions) ? dir.listFiles() : new File[0];
     }
 
     /**
@@ -248,22 +290,8 @@ public abstract class FileUtil {
         if (!exist(dirPath)) {
             return null;
         }
-        File dir = new File(dirPath);
 
-        return dir.listFiles(new FileFilter() {
-            public boolean accept(File file) {
-                if (EmptyUtil.isEmpty(conditions)) {
-                    return true;
-                }
-                for (boolean condition : conditions) {
-                    if (!condition) {
-                        return false;
-                    }
-                }
-
-                return true;
-            }
-        });
+        return listDirAllConditionFiles(new File(dirPath), conditions);
     }
 
     /**
@@ -287,20 +315,8 @@ public abstract class FileUtil {
             return null;
         }
 
-        return dir.listFiles(new FileFilter() {
-            public boolean accept(File file) {
-                if (EmptyUtil.isEmpty(conditions)) {
-                    return true;
-                }
-                for (boolean condition : conditions) {
-                    if (condition) {
-                        return true;
-                    }
-                }
-
-                return false;
-            }
-        });
+        // 条件与文件无关，列目录前判断一次即可
+        return anyCondition(conditions) ? dir.listFiles() : new File[0];
     }
 
     /**
@@ -320,22 +336,159 @@ public abstract class FileUtil {
         if (!exist(dirPath)) {
             return null;
         }
-        File dir = new File(dirPath);
 
-        return dir.listFiles(new FileFilter() {
-            public boolean accept(File file) {
-                if (EmptyUtil.isEmpty(conditions)) {
-                    return true;
+        return listDirAnyConditionFiles(new File(dirPath), conditions);
+    }
+
+    private static boolean allConditions(boolean... conditions) {
+        if (conditions != null) {
+            for (boolean condition : conditions) {
+                if (!condition) {
+                    return false;
                 }
-                for (boolean condition : conditions) {
-                    if (condition) {
-                        return true;
+            }
+        }
+        return true;
+    }
+
+    private static boolean anyCondition(boolean... conditions) {
+        if (EmptyUtil.isEmpty(conditions)) {
+            return true;
+        }
+        for (boolean condition : conditions) {
+            if (condition) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 惰性遍历目录<code>dir</code>下文件名匹配<code>glob</code>的文件和目录（不含<code>dir</code>自身），不跟随符号链接。
+     * <div>
+     * 同一时刻每层只打开一个<code>DirectoryStream</code>，不会把整个目录读入内存；
+     * 最深一层的过滤交给<code>DirectoryStream</code>完成。返回的<code>Stream</code>使用完后需要关闭。
+     * </div>
+     *
+     * @param dir      目录
+     * @param maxDepth 最大深度，<code>1</code>表示只列出直接子文件
+     * @param glob     文件名的 glob 模式，例如<code>*.log</code>，为<code>null</code>或<code>""</code>时不过滤
+     * @return 匹配的路径
+     * @throws IOException
+     */
+    public static Stream<Path> walk(File dir, int maxDepth, String glob) throws IOException {
+        final String pattern = EmptyUtil.isEmpty(glob) ? "*" : glob;
+        final PathMatcher matcher = dir.toPath().getFileSystem().getPathMatcher("glob:" + pattern);
+        return walk(dir, maxDepth, new DirectoryStream.Filter<Path>() {
+            public boolean accept(Path entry) {
+                return matcher.matches(entry.getFileName());
+            }
+        }, pattern);
+    }
+
+    /**
+     * 惰性遍历目录<code>dir</code>下以<code>suffix</code>结尾的文件和目录，参见{@link #walk(File, int, String)}。
+     */
+    public static Stream<Path> walkSuffix(File dir, int maxDepth, final String suffix) throws IOException {
+        return walk(dir, maxDepth, new DirectoryStream.Filter<Path>() {
+            public boolean accept(Path entry) {
+                return EmptyUtil.isEmpty(suffix) || entry.getFileName().toString().endsWith(suffix);
+            }
+        }, null);
+    }
+
+    private static Stream<Path> walk(File dir, int maxDepth, DirectoryStream.Filter<Path> filter, String glob)
+            throws IOException {
+        if (maxDepth <= 0) {
+            throw new IllegalArgumentException("Illegal max depth: " + maxDepth);
+        }
+
+        final DirectoryWalker walker = new DirectoryWalker(dir.toPath(), maxDepth, filter, glob);
+        Spliterator<Path> spliterator = Spliterators.spliteratorUnknownSize(walker,
+                Spliterator.DISTINCT | Spliterator.NONNULL);
+        return StreamSupport.stream(spliterator, false).onClose(new Runnable() {
+            public void run() {
+                walker.close();
+            }
+        });
+    }
+
+    /**
+     * 深度优先的目录遍历，每层保留一个打开的<code>DirectoryStream</code>
+     */
+    private static class DirectoryWalker implements Iterator<Path> {
+        private final int maxDepth;
+        private final DirectoryStream.Filter<Path> filter;
+        private final String glob;
+        private final Deque<DirectoryStream<Path>> streams = new ArrayDeque<>();
+        private final Deque<Iterator<Path>> iterators = new ArrayDeque<>();
+        private Path next;
+
+        DirectoryWalker(Path dir, int maxDepth, DirectoryStream.Filter<Path> filter, String glob) throws IOException {
+            this.maxDepth = maxDepth;
+            this.filter = filter;
+            this.glob = glob;
+            open(dir);
+        }
+
+        @Override
+        public boolean hasNext() {
+            try {
+                while (next == null && !iterators.isEmpty()) {
+                    Iterator<Path> it = iterators.peek();
+                    if (!it.hasNext()) {
+                        iterators.pop();
+                        streams.pop().close();
+                        continue;
+                    }
+
+                    Path entry = it.next();
+                    boolean leaf = iterators.size() == maxDepth;
+                    // 最深一层已经由 DirectoryStream 过滤
+                    if (leaf || filter.accept(entry)) {
+                        next = entry;
+                    }
+                    if (!leaf && Files.isDirectory(entry, LinkOption.NOFOLLOW_LINKS)) {
+                        open(entry);
                     }
                 }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } catch (DirectoryIteratorException e) {
+                throw new UncheckedIOException(e.getCause());
+            }
+            return next != null;
+        }
 
-                return false;
+        @Override
+        public Path next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
             }
-        });
+            Path result = next;
+            next = null;
+            return result;
+        }
+
+        private void open(Path dir) throws IOException {
+            DirectoryStream<Path> stream;
+            if (streams.size() + 1 < maxDepth) {
+                stream = Files.newDirectoryStream(dir);
+            } else if (glob != null) {
+                stream = Files.newDirectoryStream(dir, glob);
+            } else {
+                stream = Files.newDirectoryStream(dir, filter);
+            }
+            streams.push(stream);
+            iterators.push(stream.iterator());
+        }
+
+        void close() {
+            while (!streams.isEmpty()) {
+                FileUtil.close(streams.pop());
+            }
+            iterators.clear();
+        }
     }
 
     /**
@@ -429,6 +582,412 @@ public abstract class FileUtil {
 
     }
 
+    /**
+     * 以只读方式将整个文件映射到内存，内容不占用堆空间。
+     * <div>
+     * 映射在通道关闭后仍然有效，直到缓冲区被回收。
+     * </div>
+     *
+     * @param file 文件
+     * @return 只读的<code>MappedByteBuffer</code>
+     * @throws IOException
+     * @throws IllegalArgumentException 文件大于<code>2GB</code>时，应使用{@link #map(File, long, long)}分段映射
+     */
+    public static MappedByteBuffer map(File file) throws IOException {
+        long length = file.length();
+        if (length > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("File is larger than 2GB, map it by region: " + file);
+        }
+
+        return map(file, 0, length);
+    }
+
+    /**
+     * 以只读方式将文件的一段映射到内存。
+     *
+     * @param file     文件
+     * @param position 起始位置
+     * @param size     映射的字节数，不能大于<code>Integer.MAX_VALUE</code>
+     * @return 只读的<code>MappedByteBuffer</code>
+     * @throws IOException
+     */
+    public static MappedByteBuffer map(File file, long position, long size) throws IOException {
+        FileChannel channel = null;
+        try {
+            channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+            return channel.map(FileChannel.MapMode.READ_ONLY, position, size);
+        } finally {
+            close(channel);
+        }
+    }
+
+    /**
+     * 分块读取文件，所有块复用同一个直接缓冲区，堆内存占用与文件大小无关。
+     * <div>
+     * 传给<code>consumer</code>的缓冲区只在回调期间有效，不能保存其引用。
+     * </div>
+     *
+     * @param file      文件
+     * @param chunkSize 每块的字节数，最后一块可能更小
+     * @param consumer  块处理器
+     * @return 读取的总字节数
+     * @throws IOException
+     */
+    public static long forEachChunk(File file, int chunkSize, ChunkConsumer consumer) throws IOException {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Illegal chunk size: " + chunkSize);
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocateDirect(chunkSize);
+        FileChannel channel = null;
+        try {
+            channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+            long position = 0;
+            while (true) {
+                ((Buffer) buffer).clear();
+                // 尽量读满一块，保证除最后一块外每块大小一致
+                while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                }
+                if (buffer.position() == 0) {
+                    return position;
+                }
+
+                ((Buffer) buffer).flip();
+                int size = buffer.remaining();
+                consumer.accept(buffer, position);
+                position += size;
+                if (size < chunkSize) {
+                    return position;
+                }
+            }
+        } finally {
+            close(channel);
+        }
+    }
+
+    /**
+     * 以<code>UTF-8</code>逐行读取文件，参见{@link #lineIterator(File, Charset)}。
+     */
+    public static MappedLineIterator lineIterator(File file) throws IOException {
+        return lineIterator(file, CharsetUtil.CHARSET_UTF_8);
+    }
+
+    /**
+     * 逐行读取文件，按区域映射文件，可以处理大于<code>2GB</code>的文件，堆中只保留当前行。
+     * <div>
+     * 行分隔符为<code>\n</code>或<code>\r\n</code>，只适用于换行符按单字节<code>0x0A</code>编码的字符集（如<code>UTF-8</code>、<code>GBK</code>）。
+     * </div>
+     *
+     * @param file    文件
+     * @param charset 字符集
+     * @return 行迭代器，使用完后需要关闭
+     * @throws IOException
+     */
+    public static MappedLineIterator lineIterator(File file, Charset charset) throws IOException {
+        return new MappedLineIterator(file, charset, MappedLineIterator.DEFAULT_REGION_SIZE);
+    }
+
+    /**
+     * 将文件切分为大致相等的若干区域，每个区域的边界都在分隔符之后，因此一条记录不会跨越两个区域。
+     *
+     * @param file      文件
+     * @param regions   期望的区域个数
+     * @param delimiter 记录分隔符，例如<code>'\n'</code>
+     * @return 区域边界，长度为实际区域个数<code>+1</code>，第<code>i</code>个区域为<code>[r[i], r[i+1])</code>
+     * @throws IOException
+     */
+    public static long[] splitRegions(File file, int regions, byte delimiter) throws IOException {
+        if (regions <= 0) {
+            throw new IllegalArgumentException("Illegal region count: " + regions);
+        }
+
+        FileChannel channel = null;
+        try {
+            channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+            return splitRegions(channel, regions, delimiter);
+        } finally {
+            close(channel);
+        }
+    }
+
+    private static long[] splitRegions(FileChannel channel, int regions, byte delimiter) throws IOException {
+        long size = channel.size();
+        LongArrayBuilder bounds = new LongArrayBuilder(regions + 1);
+        bounds.add(0);
+
+        ByteBuffer buffer = ByteBuffer.allocate(REGION_SCAN_BUFFER_SIZE);
+        long last = 0;
+        for (int i = 1; i < regions && last < size; i++) {
+            long position = size / regions * i;
+            if (position <= last) {
+                continue;
+            }
+
+            // 从前一个字节开始找，前一个字节正好是分隔符时边界就是 position
+            long bound = nextRecordStart(channel, buffer, position - 1, delimiter, size);
+            if (bound > last && bound < size) {
+                bounds.add(bound);
+                last = bound;
+            }
+        }
+
+        bounds.add(size);
+        return bounds.toArray();
+    }
+
+    private static long nextRecordStart(FileChannel channel, ByteBuffer buffer, long position, byte delimiter,
+            long size) throws IOException {
+        while (position < size) {
+            ((Buffer) buffer).clear();
+            int n = channel.read(buffer, position);
+            if (n <= 0) {
+                break;
+            }
+            for (int i = 0; i < n; i++) {
+                if (buffer.get(i) == delimiter) {
+                    return position + i + 1;
+                }
+            }
+            position += n;
+        }
+        return size;
+    }
+
+    /**
+     * 并行处理文件，参见{@link #processRegions(File, int, byte, RegionProcessor, BinaryOperator, ForkJoinPool)}，
+     * 使用公共的<code>ForkJoinPool</code>，区域个数为其并行度。
+     */
+    public static <R> R processRegions(File file, byte delimiter, RegionProcessor<R> processor,
+            BinaryOperator<R> reducer) throws IOException {
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        return processRegions(file, pool.getParallelism(), delimiter, processor, reducer, pool);
+    }
+
+    /**
+     * 将文件按记录分隔符切分为若干区域，在<code>ForkJoinPool</code>中并行处理每个区域，再归并结果。
+     * <div>
+     * 所有区域共享同一个<code>FileChannel</code>，处理器应使用带位置参数的
+     * {@link FileChannel#read(ByteBuffer, long)}读取，不能修改通道的当前位置。
+     * 空文件只有一个区域<code>[0, 0)</code>。
+     * </div>
+     *
+     * @param file      文件
+     * @param regions   期望的区域个数，文件较小时实际区域可能更少
+     * @param delimiter 记录分隔符
+     * @param processor 区域处理器
+     * @param reducer   归并函数，按区域顺序调用
+     * @param pool      执行任务的线程池
+     * @return 归并后的结果
+     * @throws IOException
+     */
+    public static <R> R processRegions(File file, int regions, byte delimiter, RegionProcessor<R> processor,
+            BinaryOperator<R> reducer, ForkJoinPool pool) throws IOException {
+        if (regions <= 0) {
+            throw new IllegalArgumentException("Illegal region count: " + regions);
+        }
+
+        FileChannel channel = null;
+        try {
+            channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+            long[] bounds = splitRegions(channel, regions, delimiter);
+            return pool.invoke(new RegionTask<>(channel, bounds, 0, bounds.length - 1, processor, reducer));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            close(channel);
+        }
+    }
+
+    /**
+     * 区域处理器，参见{@link #processRegions(File, int, byte, RegionProcessor, BinaryOperator, ForkJoinPool)}
+     */
+    public interface RegionProcessor<R> {
+
+        /**
+         * 处理一个区域
+         *
+         * @param channel 文件通道，只能使用带位置参数的方法读取
+         * @param start   区域起始位置
+         * @param end     区域结束位置（不含）
+         * @return 区域的处理结果
+         * @throws IOException
+         */
+        R process(FileChannel channel, long start, long end) throws IOException;
+    }
+
+    /**
+     * 二分区域并行处理，按区域顺序归并
+     */
+    private static class RegionTask<R> extends RecursiveTask<R> {
+        private static final long serialVersionUID = 1L;
+
+        private final FileChannel channel;
+        private final long[] bounds;
+        private final int from;
+        private final int to;
+        private final RegionProcessor<R> processor;
+        private final BinaryOperator<R> reducer;
+
+        RegionTask(FileChannel channel, long[] bounds, int from, int to, RegionProcessor<R> processor,
+                BinaryOperator<R> reducer) {
+            this.channel = channel;
+            this.bounds = bounds;
+            this.from = from;
+            this.to = to;
+            this.processor = processor;
+            this.reducer = reducer;
+        }
+
+        @Override
+        protected R compute() {
+            if (to - from == 1) {
+                try {
+                    return processor.process(channel, bounds[from], bounds[to]);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+
+            int mid = (from + to) >>> 1;
+            RegionTask<R> right = new RegionTask<>(channel, bounds, mid, to, processor, reducer);
+            right.fork();
+            R left = new RegionTask<>(channel, bounds, from, mid, processor, reducer).compute();
+            return reducer.apply(left, right.join());
+        }
+    }
+
+    /**
+     * 块处理器，参见{@link #forEachChunk(File, int, ChunkConsumer)}
+     */
+    public interface ChunkConsumer {
+
+        /**
+         * 处理一块数据
+         *
+         * @param chunk    数据，<code>position</code>到<code>limit</code>之间为有效内容
+         * @param position 块在文件中的起始位置
+         * @throws IOException
+         */
+        void accept(ByteBuffer chunk, long position) throws IOException;
+    }
+
+    /**
+     * 基于内存映射的行迭代器，每次映射文件的一个区域，跨区域的行会从行首重新映射。
+     * <div>
+     * 非线程安全。
+     * </div>
+     */
+    public static class MappedLineIterator implements Iterator<String>, Closeable {
+        static final int DEFAULT_REGION_SIZE = 1 << 26;
+
+        private final FileChannel channel;
+        private final Charset charset;
+        private final long fileSize;
+        private int regionSize;
+
+        private MappedByteBuffer region;
+        private long regionStart;
+        /**
+         * 下一行在区域中的位置
+         */
+        private int offset;
+        private byte[] line = new byte[256];
+        private String next;
+
+        MappedLineIterator(File file, Charset charset, int regionSize) throws IOException {
+            this.channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+            this.charset = charset;
+            this.fileSize = channel.size();
+            this.regionSize = regionSize;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (next == null) {
+                try {
+                    next = readLine();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+            return next != null;
+        }
+
+        @Override
+        public String next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            String result = next;
+            next = null;
+            return result;
+        }
+
+        @Override
+        public void close() throws IOException {
+            region = null;
+            channel.close();
+        }
+
+        private String readLine() throws IOException {
+            while (true) {
+                if (region == null || regionStart + offset >= fileSize) {
+                    if (regionStart + offset >= fileSize) {
+                        return null;
+                    }
+                    remap(0);
+                }
+
+                int limit = region.limit();
+                int end = ArrayUtil.swarIndexOf(region, (byte) '\n', offset, limit);
+                if (end >= 0) {
+                    String result = decode(offset, end);
+                    offset = end + 1;
+                    return result;
+                }
+
+                if (regionStart + limit >= fileSize) {
+                    // 最后一行没有换行符
+                    String result = decode(offset, limit);
+                    offset = limit;
+                    return result;
+                }
+
+                // 行跨越了区域末尾，从行首重新映射；行比区域还长时扩大区域
+                if (offset == 0) {
+                    if (regionSize == Integer.MAX_VALUE) {
+                        throw new IOException("Line is larger than 2GB");
+                    }
+                    regionSize = (int) Math.min(Integer.MAX_VALUE, (long) regionSize << 1);
+                }
+                remap(offset);
+            }
+        }
+
+        private void remap(int from) throws IOException {
+            regionStart += from;
+            offset = 0;
+            long size = Math.min(regionSize, fileSize - regionStart);
+            region = channel.map(FileChannel.MapMode.READ_ONLY, regionStart, size);
+            region.order(ByteOrder.LITTLE_ENDIAN);
+        }
+
+        private String decode(int from, int to) {
+            if (to > from && region.get(to - 1) == '\r') {
+                to--;
+            }
+
+            int length = to - from;
+            if (length > line.length) {
+                line = new byte[Math.max(length, line.length << 1)];
+            }
+            ByteBuffer view = region.duplicate();
+            ((Buffer) view).position(from);
+            view.get(line, 0, length);
+            return new String(line, 0, length, charset);
+        }
+    }
+
     /**
      * 关闭流
      *
@@ -625,17 +1184,92 @@ public abstract class FileUtil {
             return false;
         }
 
-        if (dir.isDirectory()) {
-            String[] children = dir.list();
-            for (String child : children) {
-                boolean success = deleteDir(new File(dir, child));
-                if (!success) {
-                    return false;
+        return deleteTree(dir.toPath());
+    }
+
+    /**
+     * 逐个读取目录项并删除，不跟随符号链接
+     */
+    private static boolean deleteTree(Path path) {
+        if (Files.isDirectory(path, LinkOption.NOFOLLOW_LINKS)) {
+            try (DirectoryStream<Path> children = Files.newDirectoryStream(path)) {
+                for (Path child : children) {
+                    if (!deleteTree(child)) {
+                        return false;
+                    }
                 }
+            } catch (IOException | DirectoryIteratorException e) {
+                return false;
             }
         }
         // The directory is now empty so delete it
-        return dir.delete();
+        return path.toFile().delete();
+    }
+
+    /**
+     * 并行删除文件及子文件，子目录作为任务提交到<code>ForkJoinPool</code>，由空闲线程窃取执行。
+     * <div>
+     * 与{@link #deleteDir(File)}不同，某个文件删除失败时会继续删除其他文件。
+     * </div>
+     *
+     * @param dir 文件夹
+     * @return 全部删除成功返回<code>true</code>，否则返回<code>false</code>
+     */
+    public static boolean parallelDeleteDir(File dir) {
+        return parallelDeleteDir(dir, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * 并行删除文件及子文件，参见{@link #parallelDeleteDir(File)}。
+     *
+     * @param dir  文件夹
+     * @param pool 执行删除的线程池
+     * @return 全部删除成功返回<code>true</code>，否则返回<code>false</code>
+     */
+    public static boolean parallelDeleteDir(File dir, ForkJoinPool pool) {
+        if (dir == null) {
+            return false;
+        }
+
+        return pool.invoke(new DeleteTask(dir.toPath()));
+    }
+
+    /**
+     * 删除一个目录：文件直接删除，子目录分叉为新任务
+     */
+    private static class DeleteTask extends RecursiveTask<Boolean> {
+        private static final long serialVersionUID = 1L;
+
+        private final Path path;
+
+        DeleteTask(Path path) {
+            this.path = path;
+        }
+
+        @Override
+        protected Boolean compute() {
+            boolean success = true;
+            if (Files.isDirectory(path, LinkOption.NOFOLLOW_LINKS)) {
+                List<DeleteTask> tasks = new ArrayList<>();
+                try (DirectoryStream<Path> children = Files.newDirectoryStream(path)) {
+                    for (Path child : children) {
+                        if (Files.isDirectory(child, LinkOption.NOFOLLOW_LINKS)) {
+                            DeleteTask task = new DeleteTask(child);
+                            task.fork();
+                            tasks.add(task);
+                        } else {
+                            success &= child.toFile().delete();
+                        }
+                    }
+                } catch (IOException | DirectoryIteratorException e) {
+                    success = false;
+                }
+                for (DeleteTask task : tasks) {
+                    success &= task.join();
+                }
+            }
+            return path.toFile().delete() && success;
+        }
     }
 
     /**
@@ -2,15 +2,21 @@ package cn.aurthur.utils;
 
 import cn.aurthur.lang.pool.EmptyPool;
 
-import java.io.File;
-import java.io.FileFilter;
-import java.io.IOException;
+import java.io.*;
 import java.net.JarURLConnection;
 import java.net.URL;
+import java.net.URISyntaxException;
+import java.net.URLConnection;
 import java.net.URLDecoder;
+import java.nio.file.FileSystemNotFoundException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Enumeration;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
 import java.util.jar.JarEntry;
 import java.util.jar.JarFile;
 import java.util.regex.Pattern;
@@ -28,6 +34,85 @@ public abstract class PackageUtil {
      */
     private static final List<String> EMPTY_LIST = Collections.emptyList();
 
+    /**
+     * 索引文件的魔数
+     */
+    private static final int INDEX_MAGIC = 0x4A494458;
+
+    /**
+     * <code>jar</code>文件的索引，key 为<code>jar</code>文件的绝对路径
+     */
+    private static final ConcurrentMap<String, JarIndex> JAR_INDEXES = CollectionUtil.createConcurrentMap();
+
+    /**
+     * 持久化索引的文件，为<code>null</code>时不持久化
+     */
+    private static File indexFile;
+
+    /**
+     * 内存中的索引是否有未保存的修改
+     */
+    private static volatile boolean indexDirty;
+
+    /**
+     * 设置持久化<code>jar</code>扫描索引的文件，并加载文件中已有的索引。
+     * <div>
+     * 扫描<code>jar</code>时会先用<code>jar</code>文件的路径、大小和修改时间查找索引，命中时直接在排好序的条目数组上按前缀查找，
+     * 不再遍历<code>jar</code>；新建的索引会在扫描结束后写回该文件。索引文件损坏或无法读取时忽略。
+     * </div>
+     *
+     * @param file 索引文件，为<code>null</code>时关闭持久化
+     */
+    public static synchronized void setScanIndexFile(File file) {
+        indexFile = file;
+        if (file == null || !file.isFile()) {
+            return;
+        }
+
+        // 每个 jar 的记录至少 22 字节，每个条目名至少 2 字节，数量超出文件长度时说明文件已损坏
+        long length = file.length();
+        Map<String, JarIndex> loaded = CollectionUtil.createHashMap();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != INDEX_MAGIC) {
+                return;
+            }
+
+            int jars = in.readInt();
+            if (jars < 0 || jars > length / 22) {
+                return;
+            }
+            for (int i = 0; i < jars; i++) {
+                String path = in.readUTF();
+                long size = in.readLong();
+                long lastModified = in.readLong();
+                int count = in.readInt();
+                if (count < 0 || count > length / 2) {
+                    return;
+                }
+
+                String[] names = new String[count];
+                for (int j = 0; j < names.length; j++) {
+                    names[j] = in.readUTF();
+                }
+                loaded.put(path, new JarIndex(size, lastModified, names));
+            }
+        } catch (IOException | RuntimeException e) {
+            // 索引只是缓存，读取失败时丢弃整个文件，重新扫描
+            return;
+        }
+
+        for (Map.Entry<String, JarIndex> entry : loaded.entrySet()) {
+            JAR_INDEXES.putIfAbsent(entry.getKey(), entry.getValue());
+        }
+    }
+
+    /**
+     * 清空内存中的<code>jar</code>扫描索引
+     */
+    public static void clearScanIndex() {
+        JAR_INDEXES.clear();
+    }
+
     /**
      * 获取包中所有资源，如果字符串为<code>“空”</code>则返回<code>null</code>。
      *
@@ -55,6 +140,8 @@ public abstract class PackageUtil {
             }
 
         }
+
+        __saveScanIndex();
         return resources;
     }
 
@@ -99,6 +186,8 @@ public abstract class PackageUtil {
                 __findClassesInJarPackage(url, packageName, included, excluded, packageDirName, recursive, classes);
             }
         }
+
+        __saveScanIndex();
         return classes;
     }
 
@@ -117,28 +206,24 @@ public abstract class PackageUtil {
     private static void __findClassesInJarPackage(URL url, String packageName, List<String> included,
             List<String> excluded, String packageDirName, final boolean recursive, List<String> classes)
             throws IOException {
-        JarFile jar = ((JarURLConnection) url.openConnection()).getJarFile();
+        String[] names = __getJarEntryNames(url);
 
-        Enumeration<JarEntry> entries = jar.entries();
-        while (entries.hasMoreElements()) {
-            JarEntry entry = entries.nextElement();
-            String name = entry.getName();
-            if (name.charAt(0) == '/') {
-                name = name.substring(1);
+        for (int i = __lowerBound(names, packageDirName); i < names.length; i++) {
+            String name = names[i];
+            if (!name.startsWith(packageDirName)) {
+                break;
             }
 
-            if (name.startsWith(packageDirName)) {
-                int idx = name.lastIndexOf('/');
-                if (idx != -1) {
-                    packageName = name.substring(0, idx).replace('/', '.');
-                }
+            int idx = name.lastIndexOf('/');
+            if (idx != -1) {
+                packageName = name.substring(0, idx).replace('/', '.');
+            }
 
-                if ((idx != -1) || recursive) {
-                    // it's not inside a deeper dir
-                    if (name.endsWith(".class") && !entry.isDirectory()) {
-                        String className = name.substring(packageName.length() + 1, name.length() - 6);
-                        __filterClass(packageName, className, included, excluded, classes);
-                    }
+            if ((idx != -1) || recursive) {
+                // it's not inside a deeper dir
+                if (name.endsWith(".class")) {
+                    String className = name.substring(packageName.length() + 1, name.length() - 6);
+                    __filterClass(packageName, className, included, excluded, classes);
                 }
             }
         }
@@ -211,30 +296,154 @@ public abstract class PackageUtil {
     private static void __findResourceInJarPackage(URL url, String packageName, String packageDirName,
             boolean recursive,
             List<String> resources) throws IOException {
-        JarFile jar = ((JarURLConnection) url.openConnection()).getJarFile();
+        String[] names = __getJarEntryNames(url);
+
+        for (int i = __lowerBound(names, packageDirName); i < names.length; i++) {
+            String name = names[i];
+            if (!name.startsWith(packageDirName)) {
+                break;
+            }
+
+            int idx = name.lastIndexOf('/');
+            if (idx != -1) {
+                packageName = name.substring(0, idx).replace('/', '.');
+            }
+
+            if ((idx != -1) || recursive) {
+                // it's not inside a deeper dir
+                resources.add(packageName + "." + name.substring(packageName.length() + 1));
+            }
+        }
+    }
 
+    /**
+     * 取得<code>jar</code>中所有非目录条目的名称（已排序，去掉开头的<code>/</code>）。
+     * <div>
+     * 本地<code>jar</code>文件的结果按路径、大小和修改时间缓存。
+     * </div>
+     *
+     * @param url 资源<code>URL</code>
+     * @return 排序后的条目名称
+     * @throws IOException
+     */
+    private static String[] __getJarEntryNames(URL url) throws IOException {
+        URLConnection connection = url.openConnection();
+        if (!(connection instanceof JarURLConnection)) {
+            return new String[0];
+        }
+
+        JarURLConnection jarConnection = (JarURLConnection) connection;
+        URL jarFileURL = jarConnection.getJarFileURL();
+        if (!"file".equals(jarFileURL.getProtocol())) {
+            return __readJarEntryNames(jarConnection.getJarFile());
+        }
+
+        // 不能用 URLDecoder 解码，它会把路径中的 '+' 变成空格
+        Path jarPath;
+        try {
+            jarPath = Paths.get(jarFileURL.toURI()).toAbsolutePath();
+        } catch (URISyntaxException | IllegalArgumentException | FileSystemNotFoundException e) {
+            return __readJarEntryNames(jarConnection.getJarFile());
+        }
+
+        File file = jarPath.toFile();
+        String path = jarPath.toString();
+        long size = file.length();
+        long lastModified = file.lastModified();
+
+        JarIndex index = JAR_INDEXES.get(path);
+        if (index != null && index.size == size && index.lastModified == lastModified) {
+            return index.names;
+        }
+
+        String[] names;
+        try (JarFile jar = new JarFile(file)) {
+            names = __readJarEntryNames(jar);
+        }
+
+        JAR_INDEXES.put(path, new JarIndex(size, lastModified, names));
+        indexDirty = true;
+        return names;
+    }
+
+    private static String[] __readJarEntryNames(JarFile jar) {
+        List<String> names = CollectionUtil.createArrayList(jar.size());
         Enumeration<JarEntry> entries = jar.entries();
         while (entries.hasMoreElements()) {
             JarEntry entry = entries.nextElement();
+            if (entry.isDirectory()) {
+                continue;
+            }
+
             String name = entry.getName();
             if (name.charAt(0) == '/') {
                 name = name.substring(1);
             }
+            names.add(name);
+        }
 
-            if (name.startsWith(packageDirName)) {
-                int idx = name.lastIndexOf('/');
-                if (idx != -1) {
-                    packageName = name.substring(0, idx).replace('/', '.');
-                }
+        String[] result = names.toArray(new String[0]);
+        Arrays.sort(result);
+        return result;
+    }
 
-                if ((idx != -1) || recursive) {
-                    // it's not inside a deeper dir
-                    if (!entry.isDirectory()) {
-                        resources.add(packageName + "." + name.substring(packageName.length() + 1));
-                    }
+    /**
+     * 第一个不小于<code>prefix</code>的位置
+     */
+    private static int __lowerBound(String[] names, String prefix) {
+        int i = Arrays.binarySearch(names, prefix);
+        return i < 0 ? -i - 1 : i;
+    }
+
+    /**
+     * 如果设置了索引文件并且索引有修改，保存索引
+     */
+    private static synchronized void __saveScanIndex() {
+        if (indexFile == null || !indexDirty) {
+            return;
+        }
 
+        indexDirty = false;
+        File tmp = new File(indexFile.getPath() + ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)))) {
+                List<Map.Entry<String, JarIndex>> entries = CollectionUtil.createArrayList(JAR_INDEXES.entrySet());
+                out.writeInt(INDEX_MAGIC);
+                out.writeInt(entries.size());
+                for (Map.Entry<String, JarIndex> entry : entries) {
+                    JarIndex index = entry.getValue();
+                    out.writeUTF(entry.getKey());
+                    out.writeLong(index.size);
+                    out.writeLong(index.lastModified);
+                    out.writeInt(index.names.length);
+                    for (String name : index.names) {
+                        out.writeUTF(name);
+                    }
                 }
             }
+
+            if (!tmp.renameTo(indexFile)) {
+                indexFile.delete();
+                tmp.renameTo(indexFile);
+            }
+        } catch (IOException e) {
+            // 索引只是缓存，保存失败不影响扫描结果
+            tmp.delete();
+        }
+    }
+
+    /**
+     * <code>jar</code>文件的条目索引
+     */
+    private static final class JarIndex {
+        final long size;
+        final long lastModified;
+        final String[] names;
+
+        JarIndex(long size, long lastModified, String[] names) {
+            this.size = size;
+            this.lastModified = lastModified;
+            this.names = names;
         }
     }
 
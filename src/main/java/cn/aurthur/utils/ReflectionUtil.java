@@ -1,10 +1,17 @@
 package cn.aurthur.utils;
 
 import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.invoke.WrongMethodTypeException;
 import java.lang.reflect.AccessibleObject;
 import java.lang.reflect.Field;
 import java.lang.reflect.Modifier;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * 有关 <code>Reflection</code> 处理的工具类。
@@ -18,6 +25,27 @@ public abstract class ReflectionUtil {
         throw new AssertionError("工具类不允许实例化");
     }
 
+    /**
+     * 每个类的<code>Field</code>及其访问器缓存
+     */
+    private static final ClassValue<ClassFields> CLASS_FIELDS = new ClassValue<ClassFields>() {
+        @Override
+        protected ClassFields computeValue(Class<?> type) {
+            return new ClassFields(type);
+        }
+    };
+
+    /**
+     * 以源类为 key 的复制计划缓存
+     */
+    private static final ClassValue<ConcurrentMap<CopyPlanKey, CopyPlan>> COPY_PLANS =
+            new ClassValue<ConcurrentMap<CopyPlanKey, CopyPlan>>() {
+                @Override
+                protected ConcurrentMap<CopyPlanKey, CopyPlan> computeValue(Class<?> type) {
+                    return CollectionUtil.createConcurrentMap();
+                }
+            };
+
     /**
      * 根据对象的<code>Field</code>名返回<code>Field</code>
      *
@@ -49,18 +77,49 @@ public abstract class ReflectionUtil {
     }
 
     static Field _getField(Class<?> clazz, String fieldName) {
-        for (Class<?> itr = clazz; hasSuperClass(itr); ) {
-            Field[] fields = itr.getDeclaredFields();
-            for (Field field : fields) {
-                if (field.getName().equals(fieldName)) {
-                    return field;
-                }
-            }
+        FieldAccessor accessor = _getFieldAccessor(clazz, fieldName);
+        return accessor == null ? null : accessor.getField();
+    }
 
-            itr = itr.getSuperclass();
+    /**
+     * 根据<code>Field</code>名返回缓存的<code>Field</code>访问器，查找顺序与{@link #getField(Class, String)}相同。
+     * <div>
+     * 访问器按类缓存，内部使用<code>MethodHandle</code>读写，适合反复读写同一个<code>Field</code>的场景。
+     * </div>
+     *
+     * @param clazz     要获取的类
+     * @param fieldName <code>Field</code>名
+     * @return <code>Field</code>访问器，找不到时返回<code>null</code>
+     */
+    public static FieldAccessor getFieldAccessor(Class<?> clazz, String fieldName) {
+        if (ObjectUtil.isAnyNull(clazz, fieldName)) {
+            return null;
         }
 
-        return null;
+        return _getFieldAccessor(clazz, fieldName);
+    }
+
+    /**
+     * 返回<code>Field</code>对应的缓存访问器
+     *
+     * @param field 目标<code>Field</code>
+     * @return <code>Field</code>访问器
+     */
+    public static FieldAccessor getFieldAccessor(Field field) {
+        if (field == null) {
+            return null;
+        }
+
+        FieldAccessor accessor = CLASS_FIELDS.get(field.getDeclaringClass()).declared.get(field.getName());
+        return accessor != null ? accessor : new FieldAccessor(field);
+    }
+
+    static FieldAccessor _getFieldAccessor(Class<?> clazz, String fieldName) {
+        if (!hasSuperClass(clazz)) {
+            return null;
+        }
+
+        return CLASS_FIELDS.get(clazz).all.get(fieldName);
     }
 
     /**
@@ -75,14 +134,10 @@ public abstract class ReflectionUtil {
             return null;
         }
 
-        try {
-            @SuppressWarnings("unchecked")
-            T result = (T) _readField(field, target);
+        @SuppressWarnings("unchecked")
+        T result = (T) getFieldAccessor(field).get(target);
 
-            return result;
-        } catch (Exception ex) {
-            throw ExceptionUtil.toRuntimeException(ex);
-        }
+        return result;
     }
 
     /**
@@ -112,16 +167,16 @@ public abstract class ReflectionUtil {
      * @return <code>Field</code>值
      */
     public static Object readField(String fieldName, Object target) {
-        Field field = getField(target, fieldName);
-        if (field == null) {
+        if (ObjectUtil.isAnyNull(target, fieldName)) {
             return null;
         }
 
-        try {
-            return _readField(field, target);
-        } catch (Exception ex) {
-            throw ExceptionUtil.toRuntimeException(ex);
+        FieldAccessor accessor = _getFieldAccessor(target.getClass(), fieldName);
+        if (accessor == null) {
+            return null;
         }
+
+        return accessor.get(target);
     }
 
     /**
@@ -136,11 +191,7 @@ public abstract class ReflectionUtil {
             return;
         }
 
-        try {
-            _writeField(field, target, value);
-        } catch (Exception ex) {
-            throw ExceptionUtil.toRuntimeException(ex);
-        }
+        getFieldAccessor(field).set(target, value);
     }
 
     /**
@@ -171,13 +222,14 @@ public abstract class ReflectionUtil {
      * @param value     写入的值
      */
     public static void writeField(Object target, String fieldName, Object value) {
-        Field field = getField(target, fieldName);
-        if (field != null)
-            try {
-                _writeField(field, target, value);
-            } catch (Exception ex) {
-                throw ExceptionUtil.toRuntimeException(ex);
-            }
+        if (ObjectUtil.isAnyNull(target, fieldName)) {
+            return;
+        }
+
+        FieldAccessor accessor = _getFieldAccessor(target.getClass(), fieldName);
+        if (accessor != null) {
+            accessor.set(target, value);
+        }
     }
 
 
@@ -219,6 +271,26 @@ public abstract class ReflectionUtil {
         return fields.toArray(new Field[0]);
     }
 
+    /**
+     * 获取类及父类的所有非静态<code>Field</code>的访问器，不包括<code>Object</code>的 <code>Field</code>，顺序与
+     * {@link #getAllInstanceFields(Class)}相同
+     *
+     * @param clazz 要获取的类
+     * @return 访问器数组
+     */
+    public static FieldAccessor[] getAllInstanceFieldAccessors(Class<?> clazz) {
+        if (clazz == null) {
+            return null;
+        }
+
+        if (!hasSuperClass(clazz)) {
+            return new FieldAccessor[0];
+        }
+
+        return CLASS_FIELDS.get(clazz).instanceAccessors.clone();
+    }
+
+
 
     /**
      * 获取类及父类的所有非静态<code>Field</code>，不包括<code>Object</code>的 <code>Field</code>
@@ -269,4 +341,307 @@ public abstract class ReflectionUtil {
 
         return field.getAnnotation(annotationType) != null;
     }
+
+    /**
+     * 取得从<code>sourceClass</code>复制指定<code>Field</code>到<code>targetClass</code>的复制计划，计划会被缓存。
+     * <div>
+     * 复制的语义与逐个调用{@link #readField(String, Object)}和{@link #writeField(Object, String, Object)}相同：
+     * 源对象中不存在的<code>Field</code>按<code>null</code>写入，目标对象中不存在的<code>Field</code>被忽略。
+     * </div>
+     *
+     * @param sourceClass 源类
+     * @param targetClass 目标类
+     * @param fieldNames  <code>Field</code>名
+     * @return 复制计划，参数为<code>null</code>时返回<code>null</code>
+     */
+    public static CopyPlan getCopyPlan(Class<?> sourceClass, Class<?> targetClass, String... fieldNames) {
+        if (ObjectUtil.isAnyNull(sourceClass, targetClass, fieldNames)) {
+            return null;
+        }
+
+        ConcurrentMap<CopyPlanKey, CopyPlan> plans = COPY_PLANS.get(sourceClass);
+        CopyPlanKey key = new CopyPlanKey(targetClass, fieldNames);
+        CopyPlan plan = plans.get(key);
+        if (plan == null) {
+            FieldAccessor[] getters = new FieldAccessor[fieldNames.length];
+            FieldAccessor[] setters = new FieldAccessor[fieldNames.length];
+            for (int i = 0; i < fieldNames.length; i++) {
+                getters[i] = _getFieldAccessor(sourceClass, fieldNames[i]);
+                setters[i] = _getFieldAccessor(targetClass, fieldNames[i]);
+            }
+
+            CopyPlan newPlan = new CopyPlan(getters, setters);
+            plan = plans.putIfAbsent(key, newPlan);
+            if (plan == null) {
+                plan = newPlan;
+            }
+        }
+
+        return plan;
+    }
+
+    /**
+     * 取得复制指定<code>Field</code>到<code>targetClass</code>的复制计划，不缓存。
+     * <div>
+     * 复制的语义与逐个调用{@link #readField(Field, Object)}和{@link #writeField(Object, String, Object)}相同。
+     * </div>
+     *
+     * @param targetClass 目标类
+     * @param fields      源<code>Field</code>
+     * @return 复制计划，参数为<code>null</code>时返回<code>null</code>
+     */
+    public static CopyPlan getCopyPlan(Class<?> targetClass, Field... fields) {
+        if (ObjectUtil.isAnyNull(targetClass, fields)) {
+            return null;
+        }
+
+        FieldAccessor[] getters = new FieldAccessor[fields.length];
+        FieldAccessor[] setters = new FieldAccessor[fields.length];
+        for (int i = 0; i < fields.length; i++) {
+            getters[i] = getFieldAccessor(fields[i]);
+            setters[i] = fields[i] == null ? null : _getFieldAccessor(targetClass, fields[i].getName());
+        }
+
+        return new CopyPlan(getters, setters);
+    }
+
+    /**
+     * 复制计划缓存的 key
+     */
+    private static final class CopyPlanKey {
+        private final Class<?> targetClass;
+        private final String[] fieldNames;
+        private final int hash;
+
+        CopyPlanKey(Class<?> targetClass, String[] fieldNames) {
+            this.targetClass = targetClass;
+            this.fieldNames = fieldNames.clone();
+            this.hash = 31 * targetClass.hashCode() + Arrays.hashCode(fieldNames);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof CopyPlanKey)) {
+                return false;
+            }
+
+            CopyPlanKey other = (CopyPlanKey) obj;
+            return targetClass == other.targetClass && Arrays.equals(fieldNames, other.fieldNames);
+        }
+    }
+
+    /**
+     * 预先解析好的<code>Field</code>复制计划，可以在多线程中共享。
+     */
+    public static final class CopyPlan {
+        private final FieldAccessor[] getters;
+        private final FieldAccessor[] setters;
+
+        CopyPlan(FieldAccessor[] getters, FieldAccessor[] setters) {
+            // 去掉目标中不存在的 Field
+            int count = 0;
+            for (FieldAccessor setter : setters) {
+                if (setter != null) {
+                    count++;
+                }
+            }
+
+            this.getters = new FieldAccessor[count];
+            this.setters = new FieldAccessor[count];
+            for (int i = 0, j = 0; i < setters.length; i++) {
+                if (setters[i] != null) {
+                    this.getters[j] = getters[i];
+                    this.setters[j++] = setters[i];
+                }
+            }
+        }
+
+        /**
+         * 将<code>source</code>的<code>Field</code>复制到<code>target</code>
+         *
+         * @param source 源对象
+         * @param target 目标对象
+         */
+        public void copy(Object source, Object target) {
+            for (int i = 0; i < setters.length; i++) {
+                FieldAccessor getter = getters[i];
+                setters[i].set(target, getter == null ? null : getter.get(source));
+            }
+        }
+    }
+
+    /**
+     * 类的<code>Field</code>缓存
+     */
+    private static final class ClassFields {
+        /**
+         * 本类声明的<code>Field</code>
+         */
+        final Map<String, FieldAccessor> declared;
+        /**
+         * 本类及父类的<code>Field</code>，子类优先
+         */
+        final Map<String, FieldAccessor> all;
+        final FieldAccessor[] instanceAccessors;
+
+        ClassFields(Class<?> clazz) {
+            Field[] fields = clazz.getDeclaredFields();
+            declared = CollectionUtil.createHashMap(fields.length * 4 / 3 + 1);
+            List<FieldAccessor> instance = CollectionUtil.createArrayList();
+            for (Field field : fields) {
+                FieldAccessor accessor = new FieldAccessor(field);
+                declared.put(field.getName(), accessor);
+                if (!Modifier.isStatic(field.getModifiers())) {
+                    instance.add(accessor);
+                }
+            }
+
+            Class<?> superClass = clazz.getSuperclass();
+            if (hasSuperClass(superClass)) {
+                ClassFields parent = CLASS_FIELDS.get(superClass);
+                all = CollectionUtil.createHashMap(parent.all);
+                all.putAll(declared);
+                for (FieldAccessor accessor : parent.instanceAccessors) {
+                    instance.add(accessor);
+                }
+            } else {
+                all = declared;
+            }
+
+            instanceAccessors = instance.toArray(new FieldAccessor[0]);
+        }
+    }
+
+    /**
+     * <code>Field</code>访问器，使用<code>MethodHandle</code>读写，无法创建<code>MethodHandle</code>时退回到反射。
+     * <div>
+     * 访问器内部持有<code>Field</code>的私有副本，不会修改调用者持有的<code>Field</code>的访问权限。
+     * 类型不匹配时与反射一样抛出<code>IllegalArgumentException</code>。
+     * </div>
+     */
+    public static final class FieldAccessor {
+        private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+        private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+        private final Field field;
+        private final MethodHandle getter;
+        private final MethodHandle setter;
+
+        FieldAccessor(Field field) {
+            this.field = copyField(field);
+
+            MethodHandle g = null;
+            MethodHandle s = null;
+            try {
+                this.field.setAccessible(true);
+
+                boolean isStatic = Modifier.isStatic(field.getModifiers());
+                MethodHandles.Lookup lookup = MethodHandles.lookup();
+
+                g = lookup.unreflectGetter(this.field);
+                if (isStatic) {
+                    g = MethodHandles.dropArguments(g, 0, Object.class);
+                }
+                g = g.asType(GETTER_TYPE);
+
+                if (!Modifier.isFinal(field.getModifiers())) {
+                    s = lookup.unreflectSetter(this.field);
+                    if (isStatic) {
+                        s = MethodHandles.dropArguments(s, 0, Object.class);
+                    }
+                    s = s.asType(SETTER_TYPE);
+                }
+            } catch (Exception ex) {
+                // 无法访问时（例如模块限制）退回到反射，由反射抛出原本的异常
+            }
+
+            this.getter = g;
+            this.setter = s;
+        }
+
+        /**
+         * 取得<code>Field</code>，每次返回新的副本
+         */
+        public Field getField() {
+            return copyField(field);
+        }
+
+        public String getName() {
+            return field.getName();
+        }
+
+        public Class<?> getType() {
+            return field.getType();
+        }
+
+        /**
+         * 读取<code>Field</code>的值
+         *
+         * @param target 目标对象，静态<code>Field</code>时忽略
+         * @return <code>Field</code>值
+         */
+        public Object get(Object target) {
+            if (getter != null) {
+                try {
+                    return (Object) getter.invokeExact(target);
+                } catch (ClassCastException | WrongMethodTypeException ex) {
+                    // 目标对象类型不匹配，由反射抛出 IllegalArgumentException
+                } catch (Throwable t) {
+                    ExceptionUtil.throwRuntimeExceptionOrError(t);
+                    return null;
+                }
+            }
+
+            try {
+                return field.get(target);
+            } catch (Exception ex) {
+                throw ExceptionUtil.toRuntimeException(ex);
+            }
+        }
+
+        /**
+         * 写入<code>Field</code>的值
+         *
+         * @param target 目标对象，静态<code>Field</code>时忽略
+         * @param value  写入的值
+         */
+        public void set(Object target, Object value) {
+            if (setter != null && (value != null || !field.getType().isPrimitive())) {
+                try {
+                    setter.invokeExact(target, value);
+                    return;
+                } catch (ClassCastException | WrongMethodTypeException ex) {
+                    // 目标对象或值的类型不匹配，由反射抛出 IllegalArgumentException
+                } catch (Throwable t) {
+                    ExceptionUtil.throwRuntimeExceptionOrError(t);
+                    return;
+                }
+            }
+
+            try {
+                field.set(target, value);
+            } catch (Exception ex) {
+                throw ExceptionUtil.toRuntimeException(ex);
+            }
+        }
+
+        /**
+         * 复制<code>Field</code>，副本的访问权限与原<code>Field</code>互不影响
+         */
+        private static Field copyField(Field field) {
+            try {
+                return field.getDeclaringClass().getDeclaredField(field.getName());
+            } catch (NoSuchFieldException ex) {
+                return field;
+            }
+        }
+    }
 }
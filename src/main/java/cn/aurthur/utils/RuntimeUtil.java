@@ -1,26 +1,86 @@
 package cn.aurthur.utils;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.security.ProtectionDomain;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 /**
  * 用来获取当前运行信息的快照
+ * <div>
+ * 在 JDK 9+ 上通过<code>StackWalker</code>只读取调用者所在的栈帧，JDK 8 上退化为异常栈。
+ * </div>
  */
 public abstract class RuntimeUtil {
     public RuntimeUtil() {
         throw new AssertionError("工具类不允许实例化");
     }
 
+    /**
+     * 调用者在栈中的位置：0 为<code>callerFrame</code>，1 为本类的公共方法，2 为调用者
+     */
+    private static final int CALLER_DEPTH = 2;
+
+    /**
+     * JDK 9+ 的<code>StackWalker.walk</code>，已绑定实例，不可用时为<code>null</code>
+     */
+    private static final MethodHandle STACK_WALK;
+    private static final MethodHandle FRAME_CLASS_NAME;
+    private static final MethodHandle FRAME_METHOD_NAME;
+
+    /**
+     * 只取调用者一帧，StackWalker 按需填充栈帧，不会取得整个栈
+     */
+    private static final Function<Stream<Object>, Object> FIND_CALLER = new Function<Stream<Object>, Object>() {
+        @Override
+        public Object apply(Stream<Object> frames) {
+            return frames.skip(CALLER_DEPTH).findFirst().orElse(null);
+        }
+    };
+
+    /**
+     * 调用点的<code>类名.方法名</code>缓存：类名 -&gt; 方法名 -&gt; 拼接后的字符串
+     */
+    private static final ConcurrentMap<String, ConcurrentMap<String, String>> CLASS_METHODS = new ConcurrentHashMap<>();
+
+    static {
+        MethodHandle walk = null;
+        MethodHandle className = null;
+        MethodHandle methodName = null;
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+            Class<?> walkerClass = Class.forName("java.lang.StackWalker");
+            Class<?> frameClass = Class.forName("java.lang.StackWalker$StackFrame");
+
+            Object walker = lookup.findStatic(walkerClass, "getInstance", MethodType.methodType(walkerClass))
+                    .invoke();
+            walk = lookup.findVirtual(walkerClass, "walk", MethodType.methodType(Object.class, Function.class))
+                    .bindTo(walker);
+            className = lookup.findVirtual(frameClass, "getClassName", MethodType.methodType(String.class))
+                    .asType(MethodType.methodType(String.class, Object.class));
+            methodName = lookup.findVirtual(frameClass, "getMethodName", MethodType.methodType(String.class))
+                    .asType(MethodType.methodType(String.class, Object.class));
+        } catch (Throwable ignore) {
+            // JDK 8 没有 StackWalker，使用异常栈
+            walk = null;
+        }
+
+        STACK_WALK = walk;
+        FRAME_CLASS_NAME = className;
+        FRAME_METHOD_NAME = methodName;
+    }
+
     /**
      * 获取当前执行的类和方法名
      *
      * @return 当前执行的类和方法名
      */
     public static String currentClassMethod() {
-        StackTraceElement[] ste = new Exception().getStackTrace();
-        int ndx = (ste.length > 1) ? 1 : 0;
-        StackTraceElement element = new Exception().getStackTrace()[ndx];
-
-        return element.getClassName() + "." + element.getMethodName();
+        return classMethod(callerFrame());
     }
 
     /**
@@ -29,9 +89,7 @@ public abstract class RuntimeUtil {
      * @return 当前执行的方法名
      */
     public static String currentMethodName() {
-        StackTraceElement[] ste = new Exception().getStackTrace();
-        int ndx = (ste.length > 1) ? 1 : 0;
-        return new Exception().getStackTrace()[ndx].getMethodName();
+        return methodName(callerFrame());
     }
 
     /**
@@ -40,9 +98,7 @@ public abstract class RuntimeUtil {
      * @return 当前执行的类名
      */
     public static String currentClassName() {
-        StackTraceElement[] ste = new Exception().getStackTrace();
-        int ndx = (ste.length > 1) ? 1 : 0;
-        return new Exception().getStackTrace()[ndx].getClassName();
+        return className(callerFrame());
     }
 
     /**
@@ -51,10 +107,73 @@ public abstract class RuntimeUtil {
      * @return 当前的命名空间
      */
     public static String currentNamespace() {
-        StackTraceElement[] ste = new Exception().getStackTrace();
-        int ndx = (ste.length > 1) ? 1 : 0;
-        StackTraceElement current = new Exception().getStackTrace()[ndx];
-        return current.getClassName() + "." + current.getMethodName();
+        return classMethod(callerFrame());
+    }
+
+    /**
+     * 取得调用者的栈帧，JDK 9+ 为<code>StackWalker.StackFrame</code>，否则为<code>StackTraceElement</code>
+     */
+    private static Object callerFrame() {
+        if (STACK_WALK != null) {
+            try {
+                Object frame = STACK_WALK.invoke(FIND_CALLER);
+                if (frame != null) {
+                    return frame;
+                }
+            } catch (Throwable e) {
+                ExceptionUtil.throwRuntimeExceptionOrError(e);
+            }
+        }
+
+        StackTraceElement[] ste = new Throwable().getStackTrace();
+        return ste[Math.min(CALLER_DEPTH, ste.length - 1)];
+    }
+
+    private static String className(Object frame) {
+        if (frame instanceof StackTraceElement) {
+            return ((StackTraceElement) frame).getClassName();
+        }
+
+        try {
+            return (String) FRAME_CLASS_NAME.invokeExact(frame);
+        } catch (Throwable e) {
+            ExceptionUtil.throwRuntimeExceptionOrError(e);
+            return null;
+        }
+    }
+
+    private static String methodName(Object frame) {
+        if (frame instanceof StackTraceElement) {
+            return ((StackTraceElement) frame).getMethodName();
+        }
+
+        try {
+            return (String) FRAME_METHOD_NAME.invokeExact(frame);
+        } catch (Throwable e) {
+            ExceptionUtil.throwRuntimeExceptionOrError(e);
+            return null;
+        }
+    }
+
+    private static String classMethod(Object frame) {
+        String className = className(frame);
+        String methodName = methodName(frame);
+
+        ConcurrentMap<String, String> methods = CLASS_METHODS.get(className);
+        if (methods == null) {
+            methods = new ConcurrentHashMap<>();
+            ConcurrentMap<String, String> old = CLASS_METHODS.putIfAbsent(className, methods);
+            if (old != null) {
+                methods = old;
+            }
+        }
+
+        String classMethod = methods.get(methodName);
+        if (classMethod == null) {
+            classMethod = (className + "." + methodName).intern();
+            methods.putIfAbsent(methodName, classMethod);
+        }
+        return classMethod;
     }
 
     /**
@@ -1,6 +1,10 @@
 package cn.aurthur.utils;
 
 import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.Buffer;
+import java.nio.CharBuffer;
 
 /**
  * 字符串转义工具类
@@ -9,6 +13,11 @@ public abstract class StringEscapeUtil {
     public StringEscapeUtil() {
         throw new AssertionError("工具类不允许实例化");
     }
+
+    /**
+     * 流式处理时缓冲区的大小
+     */
+    private static final int DEFAULT_BUFFER_SIZE = 8192;
     // ==========================================================================
     // Java和JavaScript。
     // ==========================================================================
@@ -186,21 +195,7 @@ public abstract class StringEscapeUtil {
      * @return 转义后的字符串
      */
     private static String escapeJavaStyleString(String str, boolean javascript, boolean strict) {
-        if (str == null) {
-            return null;
-        }
-
-        try {
-            StringBuilder out = new StringBuilder(str.length() * 2);
-
-            if (escapeJavaStyleString(str, javascript, out, strict)) {
-                return out.toString();
-            }
-
-            return str;
-        } catch (IOException e) {
-            return str; // StringBuilder不可能发生这个异常
-        }
+        return javaStyleTable(javascript, strict).escape(str);
     }
 
     /**
@@ -214,110 +209,217 @@ public abstract class StringEscapeUtil {
      */
     private static boolean escapeJavaStyleString(String str, boolean javascript, Appendable out, boolean strict)
             throws IOException {
-        boolean needToChange = false;
+        return javaStyleTable(javascript, strict).escape(str, out);
+    }
 
-        if (out == null) {
-            throw new IllegalArgumentException("The Appendable must not be null");
+    private static EscapeTable javaStyleTable(boolean javascript, boolean strict) {
+        if (javascript) {
+            return strict ? JAVASCRIPT_STRICT : JAVASCRIPT;
         }
+        return strict ? JAVA_STRICT : JAVA;
+    }
 
-        if (str == null) {
-            return needToChange;
-        }
+    // ==========================================================================
+    // JSON和HTML。
+    // ==========================================================================
 
-        int length = str.length();
+    /**
+     * 按JSON的规则对字符串进行转义，将双引号、反斜杠和控制字符转换成<code>'\\'</code>开头的形式。
+     *
+     * @param str 要转义的字符串
+     * @return 转义后的字符串，如果原字符串为<code>null</code>，则返回<code>null</code>
+     */
+    public static String escapeJson(String str) {
+        return JSON.escape(str);
+    }
 
-        for (int i = 0; i < length; i++) {
-            char ch = str.charAt(i);
+    /**
+     * 按JSON的规则对字符串进行转义，将双引号、反斜杠和控制字符转换成<code>'\\'</code>开头的形式。
+     *
+     * @param str 要转义的字符串
+     * @param out 输出流
+     * @throws IllegalArgumentException 如果输出流为<code>null</code>
+     * @throws IOException              如果输出失败
+     */
+    public static void escapeJson(String str, Appendable out) throws IOException {
+        JSON.escape(str, out);
+    }
 
-            if (ch < 32) {
-                switch (ch) {
-                    case '\b':
-                        out.append('\\');
-                        out.append('b');
-                        break;
+    /**
+     * 按HTML的规则对字符串进行转义，转义<code>&amp; &lt; &gt; &quot; '</code>五个字符。
+     *
+     * @param str 要转义的字符串
+     * @return 转义后的字符串，如果原字符串为<code>null</code>，则返回<code>null</code>
+     */
+    public static String escapeHtml(String str) {
+        return HTML.escape(str);
+    }
 
-                    case '\n':
-                        out.append('\\');
-                        out.append('n');
-                        break;
+    /**
+     * 按HTML的规则对字符串进行转义，转义<code>&amp; &lt; &gt; &quot; '</code>五个字符。
+     *
+     * @param str 要转义的字符串
+     * @param out 输出流
+     * @throws IllegalArgumentException 如果输出流为<code>null</code>
+     * @throws IOException              如果输出失败
+     */
+    public static void escapeHtml(String str, Appendable out) throws IOException {
+        HTML.escape(str, out);
+    }
 
-                    case '\t':
-                        out.append('\\');
-                        out.append('t');
-                        break;
+    private static final EscapeTable JAVA = javaStyle(false, false);
+    private static final EscapeTable JAVA_STRICT = javaStyle(false, true);
+    private static final EscapeTable JAVASCRIPT = javaStyle(true, false);
+    private static final EscapeTable JAVASCRIPT_STRICT = javaStyle(true, true);
+    private static final EscapeTable JSON = javaStyle(false, false);
+    private static final EscapeTable HTML;
+
+    static {
+        String[] html = new String[EscapeTable.TABLE_SIZE];
+        html['&'] = "&amp;";
+        html['<'] = "&lt;";
+        html['>'] = "&gt;";
+        html['"'] = "&quot;";
+        html['\''] = "&#39;";
+        HTML = new EscapeTable(html, false);
+    }
 
-                    case '\f':
-                        out.append('\\');
-                        out.append('f');
-                        break;
+    private static EscapeTable javaStyle(boolean javascript, boolean strict) {
+        String[] table = new String[EscapeTable.TABLE_SIZE];
+        for (char ch = 0; ch < 32; ch++) {
+            table[ch] = EscapeTable.unicodeEscape(ch);
+        }
+        table['\b'] = "\\b";
+        table['\n'] = "\\n";
+        table['\t'] = "\\t";
+        table['\f'] = "\\f";
+        table['\r'] = "\\r";
+        table['"'] = "\\\"";
+        table['\\'] = "\\\\";
+
+        if (javascript) {
+            table['\''] = "\\'";
+            // 注意：对于javascript，对/进行escape是重要的安全措施。
+            table['/'] = "\\/";
+        }
 
-                    case '\r':
-                        out.append('\\');
-                        out.append('r');
-                        break;
+        return new EscapeTable(table, strict);
+    }
 
-                    default:
+    /**
+     * 查表转义。先扫描到第一个需要转义的字符，没有则直接返回原字符串；否则整段复制不需要转义的字符。
+     */
+    private static final class EscapeTable {
+        static final int TABLE_SIZE = 128;
+
+        /**
+         * ASCII 字符的替换字符串，<code>null</code>表示不需要转义
+         */
+        private final String[] table;
+
+        /**
+         * 是否将大于<code>0xff</code>的字符转换成<code>\\uXXXX</code>
+         */
+        private final boolean strict;
+
+        EscapeTable(String[] table, boolean strict) {
+            this.table = table;
+            this.strict = strict;
+        }
 
-                        if (ch > 0xf) {
-                            out.append("\\u00").append(Integer.toHexString(ch).toUpperCase());
-                        } else {
-                            out.append("\\u000").append(Integer.toHexString(ch).toUpperCase());
-                        }
+        static String unicodeEscape(char ch) {
+            String hex = Integer.toHexString(ch).toUpperCase();
+            return "\\u0000".substring(0, 6 - hex.length()) + hex;
+        }
 
-                        break;
-                }
+        private String replacement(char ch) {
+            if (ch < TABLE_SIZE) {
+                return table[ch];
+            }
+            return strict && ch > 0xff ? unicodeEscape(ch) : null;
+        }
 
-                // 设置改变标志
-                needToChange = true;
-            } else if (strict && ch > 0xff) {
-                if (ch > 0xfff) {
-                    out.append("\\u").append(Integer.toHexString(ch).toUpperCase());
-                } else {
-                    out.append("\\u0").append(Integer.toHexString(ch).toUpperCase());
+        private int indexOfEscape(String str, int fromIndex) {
+            for (int i = fromIndex, length = str.length(); i < length; i++) {
+                char ch = str.charAt(i);
+                if (ch < TABLE_SIZE ? table[ch] != null : strict && ch > 0xff) {
+                    return i;
                 }
+            }
+            return -1;
+        }
 
-                // 设置改变标志
-                needToChange = true;
-            } else {
-                switch (ch) {
-                    case '\'':
-                    case '/': // 注意：对于javascript，对/进行escape是重要的安全措施。
-
-                        if (javascript) {
-                            out.append('\\');
+        String escape(String str) {
+            if (str == null) {
+                return null;
+            }
 
-                            // 设置改变标志
-                            needToChange = true;
-                        }
+            int index = indexOfEscape(str, 0);
+            if (index < 0) {
+                return str;
+            }
 
-                        out.append(ch);
+            StringBuilder out = new StringBuilder(str.length() + 16);
+            appendEscaped(str, index, out);
+            return out.toString();
+        }
 
-                        break;
+        boolean escape(String str, Appendable out) throws IOException {
+            if (out == null) {
+                throw new IllegalArgumentException("The Appendable must not be null");
+            }
 
-                    case '"':
-                        out.append('\\');
-                        out.append('"');
+            if (str == null) {
+                return false;
+            }
 
-                        // 设置改变标志
-                        needToChange = true;
-                        break;
+            int index = indexOfEscape(str, 0);
+            if (index < 0) {
+                out.append(str);
+                return false;
+            }
 
-                    case '\\':
-                        out.append('\\');
-                        out.append('\\');
+            appendEscaped(str, index, out);
+            return true;
+        }
 
-                        // 设置改变标志
-                        needToChange = true;
-                        break;
+        void escape(char[] buffer, int length, Appendable out) throws IOException {
+            int start = 0;
+            for (int i = 0; i < length; i++) {
+                char ch = buffer[i];
+                if (ch < TABLE_SIZE ? table[ch] != null : strict && ch > 0xff) {
+                    appendChars(buffer, start, i, out);
+                    out.append(replacement(ch));
+                    start = i + 1;
+                }
+            }
+            appendChars(buffer, start, length, out);
+        }
 
-                    default:
-                        out.append(ch);
-                        break;
+        private void appendEscaped(String str, int index, Appendable out) throws IOException {
+            int start = 0;
+            while (index >= 0) {
+                if (index > start) {
+                    out.append(str, start, index);
                 }
+                out.append(replacement(str.charAt(index)));
+                start = index + 1;
+                index = indexOfEscape(str, start);
+            }
+            if (start < str.length()) {
+                out.append(str, start, str.length());
             }
         }
 
-        return needToChange;
+        private void appendEscaped(String str, int index, StringBuilder out) {
+            int start = 0;
+            while (index >= 0) {
+                out.append(str, start, index).append(replacement(str.charAt(index)));
+                start = index + 1;
+                index = indexOfEscape(str, start);
+            }
+            out.append(str, start, str.length());
+        }
     }
 
     /**
@@ -405,6 +507,11 @@ public abstract class StringEscapeUtil {
             return null;
         }
 
+        // 没有反斜杠，不需要任何处理
+        if (str.indexOf('\\') < 0) {
+            return str;
+        }
+
         try {
             StringBuilder out = new StringBuilder(str.length());
 
@@ -434,132 +541,273 @@ public abstract class StringEscapeUtil {
      * @throws IOException              如果输出失败
      */
     private static boolean unescapeJavaStyleString(String str, Appendable out) throws IOException {
-        boolean needToChange = false;
-
         if (out == null) {
             throw new IllegalArgumentException("The Appendable must not be null");
         }
 
         if (str == null) {
-            return needToChange;
+            return false;
         }
 
-        int length = str.length();
-        StringBuilder unicode = new StringBuilder(4);
-        boolean hadSlash = false;
-        boolean inUnicode = false;
-
-        for (int i = 0; i < length; i++) {
-            char ch = str.charAt(i);
-
-            if (inUnicode) {
-                unicode.append(ch);
-
-                if (unicode.length() == 4) {
-                    String unicodeStr = unicode.toString();
+        if (str.indexOf('\\') < 0) {
+            out.append(str);
+            return false;
+        }
 
-                    try {
-                        int value = Integer.parseInt(unicodeStr, 16);
+        // 分段复制到缓冲区，与流式处理共用同一个状态机
+        int length = str.length();
+        char[] buffer = new char[Math.min(length, DEFAULT_BUFFER_SIZE)];
+        Unescaper unescaper = new Unescaper();
+        for (int start = 0; start < length; start += buffer.length) {
+            int end = Math.min(length, start + buffer.length);
+            str.getChars(start, end, buffer, 0);
+            unescaper.unescape(buffer, 0, end - start, out);
+        }
+        unescaper.finish(out);
 
-                        out.append((char) value);
-                        unicode.setLength(0);
-                        inUnicode = false;
-                        hadSlash = false;
+        return unescaper.changed;
+    }
 
-                        // 设置改变标志
-                        needToChange = true;
-                    } catch (NumberFormatException e) {
-                        out.append("\\u").append(unicodeStr);
-                    }
-                }
+    // ==========================================================================
+    // 流式转义。
+    // ==========================================================================
 
-                continue;
-            }
+    /**
+     * 按Java的规则对字符流进行转义，参见{@link #escapeJava(String, boolean)}。
+     * <div>
+     * 每次读取固定大小的缓冲区，不会把整个输入读入内存。
+     * <code>in</code>可以是<code>Reader</code>或<code>CharBuffer</code>，<code>out</code>可以是<code>Writer</code>、
+     * <code>StringBuilder</code>或<code>CharBuffer</code>。
+     * </div>
+     *
+     * @param in     输入
+     * @param out    输出
+     * @param strict 是否以严格的方式编码字符串
+     * @throws IOException 如果读取或输出失败
+     */
+    public static void escapeJavaStream(Readable in, Appendable out, boolean strict) throws IOException {
+        escapeStream(javaStyleTable(false, strict), in, out, DEFAULT_BUFFER_SIZE);
+    }
 
-            if (hadSlash) {
-                hadSlash = false;
+    /**
+     * 按JavaScript的规则对字符流进行转义，参见{@link #escapeJavaStream(Readable, Appendable, boolean)}。
+     *
+     * @param in     输入
+     * @param out    输出
+     * @param strict 是否以严格的方式编码字符串
+     * @throws IOException 如果读取或输出失败
+     */
+    public static void escapeJavaScriptStream(Readable in, Appendable out, boolean strict) throws IOException {
+        escapeStream(javaStyleTable(true, strict), in, out, DEFAULT_BUFFER_SIZE);
+    }
 
-                switch (ch) {
-                    case '\\':
-                        out.append('\\');
+    /**
+     * 按Java的规则对字符流进行反向转义，参见{@link #unescapeJava(String)}。
+     * <div>
+     * 每次读取固定大小的缓冲区，跨越缓冲区边界的转义序列（例如<code>\\uXXXX</code>）也能正确处理。
+     * </div>
+     *
+     * @param in  输入，可以是<code>Reader</code>或<code>CharBuffer</code>
+     * @param out 输出，可以是<code>Writer</code>、<code>StringBuilder</code>或<code>CharBuffer</code>
+     * @throws IOException 如果读取或输出失败
+     */
+    public static void unescapeJavaStream(Readable in, Appendable out) throws IOException {
+        unescapeStream(in, out, DEFAULT_BUFFER_SIZE);
+    }
 
-                        // 设置改变标志
-                        needToChange = true;
-                        break;
+    /**
+     * 按JavaScript的规则对字符流进行反向转义，参见{@link #unescapeJavaStream(Readable, Appendable)}。
+     *
+     * @param in  输入
+     * @param out 输出
+     * @throws IOException 如果读取或输出失败
+     */
+    public static void unescapeJavaScriptStream(Readable in, Appendable out) throws IOException {
+        unescapeStream(in, out, DEFAULT_BUFFER_SIZE);
+    }
 
-                    case '\'':
-                        out.append('\'');
+    private static void escapeStream(EscapeTable table, Readable in, Appendable out, int bufferSize) throws IOException {
+        checkStreams(in, out);
 
-                        // 设置改变标志
-                        needToChange = true;
-                        break;
+        char[] buffer = new char[bufferSize];
+        CharBuffer wrapper = CharBuffer.wrap(buffer);
+        for (int n; (n = read(in, buffer, wrapper)) >= 0; ) {
+            table.escape(buffer, n, out);
+        }
+    }
 
-                    case '\"':
-                        out.append('"');
+    static void unescapeStream(Readable in, Appendable out, int bufferSize) throws IOException {
+        checkStreams(in, out);
 
-                        // 设置改变标志
-                        needToChange = true;
-                        break;
+        char[] buffer = new char[bufferSize];
+        CharBuffer wrapper = CharBuffer.wrap(buffer);
+        Unescaper unescaper = new Unescaper();
+        for (int n; (n = read(in, buffer, wrapper)) >= 0; ) {
+            unescaper.unescape(buffer, 0, n, out);
+        }
+        unescaper.finish(out);
+    }
 
-                    case 'r':
-                        out.append('\r');
+    private static void checkStreams(Readable in, Appendable out) {
+        if (in == null) {
+            throw new IllegalArgumentException("The Readable must not be null");
+        }
+        if (out == null) {
+            throw new IllegalArgumentException("The Appendable must not be null");
+        }
+    }
 
-                        // 设置改变标志
-                        needToChange = true;
-                        break;
+    private static int read(Readable in, char[] buffer, CharBuffer wrapper) throws IOException {
+        if (in instanceof Reader) {
+            return ((Reader) in).read(buffer, 0, buffer.length);
+        }
 
-                    case 'f':
-                        out.append('\f');
+        ((Buffer) wrapper).clear();
+        return in.read(wrapper);
+    }
 
-                        // 设置改变标志
-                        needToChange = true;
-                        break;
+    /**
+     * 输出字符数组的一段，尽量避免创建临时对象
+     */
+    private static void appendChars(char[] chars, int start, int end, Appendable out) throws IOException {
+        if (end <= start) {
+            return;
+        }
 
-                    case 't':
-                        out.append('\t');
+        if (out instanceof Writer) {
+            ((Writer) out).write(chars, start, end - start);
+        } else if (out instanceof StringBuilder) {
+            ((StringBuilder) out).append(chars, start, end - start);
+        } else {
+            out.append(CharBuffer.wrap(chars, start, end - start));
+        }
+    }
 
-                        // 设置改变标志
-                        needToChange = true;
+    /**
+     * 反向转义的状态机，状态在两次调用之间保留，因此输入可以在任意位置切分。
+     */
+    private static final class Unescaper {
+        private static final int NORMAL = 0;
+        private static final int SLASH = 1;
+        private static final int UNICODE = 2;
+
+        private int state = NORMAL;
+        private final char[] digits = new char[4];
+        private int digitCount;
+        private int unicode;
+        private boolean changed;
+
+        void unescape(char[] buffer, int offset, int end, Appendable out) throws IOException {
+            int i = offset;
+            while (i < end) {
+                switch (state) {
+                    case NORMAL: {
+                        int start = i;
+                        while (i < end && buffer[i] != '\\') {
+                            i++;
+                        }
+                        appendChars(buffer, start, i, out);
+                        if (i < end) {
+                            state = SLASH;
+                            i++;
+                        }
                         break;
+                    }
 
-                    case 'n':
-                        out.append('\n');
-
-                        // 设置改变标志
-                        needToChange = true;
+                    case SLASH:
+                        unescapeChar(buffer[i++], out);
                         break;
 
-                    case 'b':
-                        out.append('\b');
-
-                        // 设置改变标志
-                        needToChange = true;
-                        break;
+                    default: {
+                        int digit = hexDigit(buffer[i]);
+                        if (digit < 0) {
+                            // 不是合法的 unicode 转义，保留原样，当前字符重新处理
+                            out.append("\\u");
+                            appendChars(digits, 0, digitCount, out);
+                            state = NORMAL;
+                            break;
+                        }
 
-                    case 'u': {
-                        inUnicode = true;
+                        digits[digitCount++] = buffer[i++];
+                        unicode = (unicode << 4) | digit;
+                        if (digitCount == 4) {
+                            out.append((char) unicode);
+                            changed = true;
+                            state = NORMAL;
+                        }
                         break;
                     }
-
-                    default:
-                        out.append(ch);
-                        break;
                 }
-
-                continue;
-            } else if (ch == '\\') {
-                hadSlash = true;
-                continue;
             }
+        }
 
-            out.append(ch);
+        void finish(Appendable out) throws IOException {
+            if (state == SLASH) {
+                out.append('\\');
+            } else if (state == UNICODE) {
+                out.append("\\u");
+                appendChars(digits, 0, digitCount, out);
+            }
+            state = NORMAL;
         }
 
-        if (hadSlash) {
-            out.append('\\');
+        private void unescapeChar(char ch, Appendable out) throws IOException {
+            state = NORMAL;
+
+            switch (ch) {
+                case '\\':
+                case '\'':
+                case '"':
+                    out.append(ch);
+                    break;
+
+                case 'r':
+                    out.append('\r');
+                    break;
+
+                case 'f':
+                    out.append('\f');
+                    break;
+
+                case 't':
+                    out.append('\t');
+                    break;
+
+                case 'n':
+                    out.append('\n');
+                    break;
+
+                case 'b':
+                    out.append('\b');
+                    break;
+
+                case 'u':
+                    state = UNICODE;
+                    digitCount = 0;
+                    unicode = 0;
+                    return;
+
+                default:
+                    out.append(ch);
+                    return;
+            }
+
+            // 设置改变标志
+            changed = true;
         }
 
-        return needToChange;
+        private static int hexDigit(char ch) {
+            if (ch >= '0' && ch <= '9') {
+                return ch - '0';
+            }
+            if (ch >= 'a' && ch <= 'f') {
+                return ch - 'a' + 10;
+            }
+            if (ch >= 'A' && ch <= 'F') {
+                return ch - 'A' + 10;
+            }
+            return -1;
+        }
     }
 
 }
@@ -3,9 +3,14 @@ package cn.aurthur.utils;
 import cn.aurthur.lang.pool.EmptyPool;
 
 import java.io.UnsupportedEncodingException;
+import java.nio.Buffer;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
 import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -16,6 +21,7 @@ import java.util.regex.Pattern;
  * length 检查字符串长度 <br>
  * isAlpha isNumeric isWhitespace判定字符串的类型是否为：字母、数字、空白 <br>
  * getBytes 字符串转 byte <br>
+ * utf8Length encodeUTF8 decodeUTF8 isValidUTF8 不经过 JDK 编码器的 UTF-8 编解码 <br>
  * createString byte 转字符串 <br>
  * count 统计字符出现的次数 <br>
  * removeAll 移除字符串中所有给定字符串 <br>
@@ -440,11 +446,255 @@ public abstract class StringUtil {
 
     /**
      * 将字符串以 UTF-8 编码转换为 byte
+     * <div>
+     * 需要写入已有的缓冲区时使用{@link #encodeUTF8(CharSequence, byte[], int)}，不创建中间对象。
+     * </div>
      */
     public static byte[] getBytesWithUTF8(CharSequence s) {
         return getBytes(s.toString(), CharsetUtil.UTF_8);
     }
 
+    /**
+     * 计算字符串以 UTF-8 编码后的字节数，不成对的代理字符按<code>'?'</code>计算，与<code>String.getBytes</code>一致。
+     *
+     * @param s 字符串
+     * @return UTF-8 字节数
+     */
+    public static int utf8Length(CharSequence s) {
+        int length = s.length();
+        int bytes = length;
+        int i = 0;
+
+        // ASCII 每个字符一个字节，不需要额外计算
+        while (i < length && s.charAt(i) < 0x80) {
+            i++;
+        }
+
+        for (; i < length; i++) {
+            char ch = s.charAt(i);
+            if (ch < 0x80) {
+                continue;
+            }
+            if (ch < 0x800) {
+                bytes += 1;
+            } else if (Character.isHighSurrogate(ch) && i + 1 < length && Character.isLowSurrogate(s.charAt(i + 1))) {
+                // 两个 char 共 4 个字节
+                bytes += 2;
+                i++;
+            } else if (Character.isSurrogate(ch)) {
+                // 替换为 '?'
+                continue;
+            } else {
+                bytes += 2;
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * 将字符串以 UTF-8 编码写入<code>dest</code>，调用者需要用{@link #utf8Length(CharSequence)}保证空间足够。
+     * <div>
+     * ASCII 字符每次处理 8 个；不成对的代理字符编码为<code>'?'</code>，与<code>String.getBytes</code>一致。
+     * </div>
+     *
+     * @param s      字符串
+     * @param dest   目标数组
+     * @param offset 写入的起始位置
+     * @return 写入的字节数
+     * @throws ArrayIndexOutOfBoundsException 如果空间不足
+     */
+    public static int encodeUTF8(CharSequence s, byte[] dest, int offset) {
+        int length = s.length();
+        int p = offset;
+        int i = 0;
+
+        // ASCII 快速路径，每次 8 个字符
+        for (int end = length - 8; i <= end; i += 8) {
+            char c0 = s.charAt(i);
+            char c1 = s.charAt(i + 1);
+            char c2 = s.charAt(i + 2);
+            char c3 = s.charAt(i + 3);
+            char c4 = s.charAt(i + 4);
+            char c5 = s.charAt(i + 5);
+            char c6 = s.charAt(i + 6);
+            char c7 = s.charAt(i + 7);
+            if ((c0 | c1 | c2 | c3 | c4 | c5 | c6 | c7) >= 0x80) {
+                break;
+            }
+            dest[p] = (byte) c0;
+            dest[p + 1] = (byte) c1;
+            dest[p + 2] = (byte) c2;
+            dest[p + 3] = (byte) c3;
+            dest[p + 4] = (byte) c4;
+            dest[p + 5] = (byte) c5;
+            dest[p + 6] = (byte) c6;
+            dest[p + 7] = (byte) c7;
+            p += 8;
+        }
+
+        for (; i < length; i++) {
+            char ch = s.charAt(i);
+            if (ch < 0x80) {
+                dest[p++] = (byte) ch;
+            } else if (ch < 0x800) {
+                dest[p++] = (byte) (0xC0 | (ch >> 6));
+                dest[p++] = (byte) (0x80 | (ch & 0x3F));
+            } else if (Character.isSurrogate(ch)) {
+                if (Character.isHighSurrogate(ch) && i + 1 < length && Character.isLowSurrogate(s.charAt(i + 1))) {
+                    int codePoint = Character.toCodePoint(ch, s.charAt(++i));
+                    dest[p++] = (byte) (0xF0 | (codePoint >> 18));
+                    dest[p++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                    dest[p++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                    dest[p++] = (byte) (0x80 | (codePoint & 0x3F));
+                } else {
+                    dest[p++] = '?';
+                }
+            } else {
+                dest[p++] = (byte) (0xE0 | (ch >> 12));
+                dest[p++] = (byte) (0x80 | ((ch >> 6) & 0x3F));
+                dest[p++] = (byte) (0x80 | (ch & 0x3F));
+            }
+        }
+        return p - offset;
+    }
+
+    /**
+     * 将字符串以 UTF-8 编码写入<code>dest</code>的当前位置，写入后位置后移。
+     *
+     * @param s    字符串
+     * @param dest 目标缓冲区
+     * @return 写入的字节数
+     * @throws java.nio.BufferOverflowException 如果空间不足
+     */
+    public static int encodeUTF8(CharSequence s, ByteBuffer dest) {
+        int required = utf8Length(s);
+        if (dest.remaining() < required) {
+            throw new BufferOverflowException();
+        }
+
+        if (dest.hasArray()) {
+            int written = encodeUTF8(s, dest.array(), dest.arrayOffset() + dest.position());
+            ((Buffer) dest).position(dest.position() + written);
+            return written;
+        }
+
+        // 直接缓冲区分段编码，每段最多 2048 个 char（不超过 6144 字节），不切断代理对
+        byte[] chunk = new byte[Math.min(required, 2048 * 3)];
+        int length = s.length();
+        int start = 0;
+        while (start < length) {
+            int end = Math.min(length, start + 2048);
+            if (end < length && Character.isHighSurrogate(s.charAt(end - 1))) {
+                end--;
+            }
+            int n = encodeUTF8(s.subSequence(start, end), chunk, 0);
+            dest.put(chunk, 0, n);
+            start = end;
+        }
+        return required;
+    }
+
+    /**
+     * 检查是否为合法的 UTF-8 编码（拒绝过长编码、代理字符和大于<code>U+10FFFF</code>的字符），不创建任何对象。
+     *
+     * @param bytes  字节数组
+     * @param offset 起始位置
+     * @param length 长度
+     * @return 合法则返回<code>true</code>
+     */
+    public static boolean isValidUTF8(byte[] bytes, int offset, int length) {
+        return decodeUTF8(bytes, offset, length, null, 0) >= 0;
+    }
+
+    /**
+     * 将 UTF-8 字节解码到<code>dest</code>，同时检查编码是否合法，不创建任何对象。
+     * <div>
+     * <code>dest</code>至少需要<code>length</code>个字符的空间；为<code>null</code>时只做检查并返回字符数。
+     * </div>
+     *
+     * @param bytes      字节数组
+     * @param offset     起始位置
+     * @param length     长度
+     * @param dest       目标字符数组，可以为<code>null</code>
+     * @param destOffset 写入的起始位置
+     * @return 解码后的字符数，编码不合法时返回<code>-1</code>
+     */
+    public static int decodeUTF8(byte[] bytes, int offset, int length, char[] dest, int destOffset) {
+        int i = offset;
+        int end = offset + length;
+        int p = destOffset;
+
+        while (i < end) {
+            // ASCII 快速路径，每次 8 个字节
+            if (i + 8 <= end && (bytes[i] | bytes[i + 1] | bytes[i + 2] | bytes[i + 3] | bytes[i + 4]
+                    | bytes[i + 5] | bytes[i + 6] | bytes[i + 7]) >= 0) {
+                if (dest != null) {
+                    for (int k = 0; k < 8; k++) {
+                        dest[p + k] = (char) bytes[i + k];
+                    }
+                }
+                i += 8;
+                p += 8;
+                continue;
+            }
+
+            int b0 = bytes[i];
+            if (b0 >= 0) {
+                if (dest != null) {
+                    dest[p] = (char) b0;
+                }
+                i++;
+                p++;
+            } else if ((b0 & 0xE0) == 0xC0) {
+                // 2 字节，0xC0 0xC1 为过长编码
+                if (i + 1 >= end || (b0 & 0xFF) < 0xC2 || !isContinuation(bytes[i + 1])) {
+                    return -1;
+                }
+                if (dest != null) {
+                    dest[p] = (char) (((b0 & 0x1F) << 6) | (bytes[i + 1] & 0x3F));
+                }
+                i += 2;
+                p++;
+            } else if ((b0 & 0xF0) == 0xE0) {
+                if (i + 2 >= end || !isContinuation(bytes[i + 1]) || !isContinuation(bytes[i + 2])) {
+                    return -1;
+                }
+                int ch = ((b0 & 0x0F) << 12) | ((bytes[i + 1] & 0x3F) << 6) | (bytes[i + 2] & 0x3F);
+                if (ch < 0x800 || Character.isSurrogate((char) ch)) {
+                    return -1;
+                }
+                if (dest != null) {
+                    dest[p] = (char) ch;
+                }
+                i += 3;
+                p++;
+            } else if ((b0 & 0xF8) == 0xF0) {
+                if (i + 3 >= end || !isContinuation(bytes[i + 1]) || !isContinuation(bytes[i + 2])
+                        || !isContinuation(bytes[i + 3])) {
+                    return -1;
+                }
+                int codePoint = ((b0 & 0x07) << 18) | ((bytes[i + 1] & 0x3F) << 12) | ((bytes[i + 2] & 0x3F) << 6)
+                        | (bytes[i + 3] & 0x3F);
+                if (codePoint < 0x10000 || codePoint > Character.MAX_CODE_POINT) {
+                    return -1;
+                }
+                if (dest != null) {
+                    dest[p] = Character.highSurrogate(codePoint);
+                    dest[p + 1] = Character.lowSurrogate(codePoint);
+                }
+                i += 4;
+                p += 2;
+            } else {
+                return -1;
+            }
+        }
+        return p - destOffset;
+    }
+
+    private static boolean isContinuation(byte b) {
+        return (b & 0xC0) == 0x80;
+    }
+
     /**
      * 将 byte 以 UTF-8 编码转换为字符串
      */
@@ -3663,7 +3913,101 @@ public abstract class StringUtil {
      * @return camel case字符串，如果原字符串为<code>null</code>，则返回<code>null</code>
      */
     public static String toCamelCase(String str) {
-        return new WordTokenizer() {
+        return IdentifierCase.CAMEL_CASE.convert(str);
+    }
+
+    /**
+     * 将字符串转换成pascal case。
+     * <div>
+     * 如果字符串是<code>null</code>则返回<code>null</code>。
+     * 
+     * <pre>
+     * StringUtil.toPascalCase(null)  = null
+     * StringUtil.toPascalCase("")    = ""
+     * StringUtil.toPascalCase("aBc") = "ABc"
+     * StringUtil.toPascalCase("aBc def") = "ABcDef"
+     * StringUtil.toPascalCase("aBc def_ghi") = "ABcDefGhi"
+     * StringUtil.toPascalCase("aBc def_ghi 123") = "aBcDefGhi123"
+     * </pre>
+     * 
+     * <br>
+     * 此方法会保留除了下划线和空白以外的所有分隔符。
+     * </div>
+     *
+     * @param str 要转换的字符串
+     * @return pascal case字符串，如果原字符串为<code>null</code>，则返回<code>null</code>
+     */
+    public static String toPascalCase(String str) {
+        return IdentifierCase.PASCAL_CASE.convert(str);
+    }
+
+    /**
+     * 将字符串转换成下划线分隔的大写字符串。
+     * <div>
+     * 如果字符串是<code>null</code>则返回<code>null</code>。
+     * <br>
+     *
+     * <pre>
+     * StringUtil.toUpperCaseWithUnderscores(null)  = null
+     * StringUtil.toUpperCaseWithUnderscores("")    = ""
+     * StringUtil.toUpperCaseWithUnderscores("aBc") = "A_BC"
+     * StringUtil.toUpperCaseWithUnderscores("aBc def") = "A_BC_DEF"
+     * StringUtil.toUpperCaseWithUnderscores("aBc def_ghi") = "A_BC_DEF_GHI"
+     * StringUtil.toUpperCaseWithUnderscores("aBc def_ghi 123") = "A_BC_DEF_GHI_123"
+     * StringUtil.toUpperCaseWithUnderscores("__a__Bc__") = "__A__BC__"
+     * </pre>
+     * 
+     * <br>
+     * </div>
+     * <div>
+     * 此方法会保留除了空白以外的所有分隔符。
+     * </div>
+     *
+     * @param str 要转换的字符串
+     * @return 下划线分隔的大写字符串，如果原字符串为<code>null</code>，则返回<code>null</code>
+     */
+    public static String toUpperCaseWithUnderscores(String str) {
+        return IdentifierCase.UPPER_CASE_WITH_UNDERSCORES.convert(str);
+    }
+
+    /**
+     * 将字符串转换成下划线分隔的小写字符串。
+     * <div>
+     * 如果字符串是<code>null</code>则返回<code>null</code>。
+     * <br>
+     *
+     * <pre>
+     * StringUtil.toLowerCaseWithUnderscores(null)  = null
+     * StringUtil.toLowerCaseWithUnderscores("")    = ""
+     * StringUtil.toLowerCaseWithUnderscores("aBc") = "a_bc"
+     * StringUtil.toLowerCaseWithUnderscores("aBc def") = "a_bc_def"
+     * StringUtil.toLowerCaseWithUnderscores("aBc def_ghi") = "a_bc_def_ghi"
+     * StringUtil.toLowerCaseWithUnderscores("aBc def_ghi 123") = "a_bc_def_ghi_123"
+     * StringUtil.toLowerCaseWithUnderscores("__a__Bc__") = "__a__bc__"
+     * </pre>
+     * 
+     * <br>
+     * </div>
+     * <div>
+     * 此方法会保留除了空白以外的所有分隔符。
+     * </div>
+     *
+     * @param str 要转换的字符串
+     * @return 下划线分隔的小写字符串，如果原字符串为<code>null</code>，则返回<code>null</code>
+     */
+    public static String toLowerCaseWithUnderscores(String str) {
+        return IdentifierCase.LOWER_CASE_WITH_UNDERSCORES.convert(str);
+    }
+
+    /**
+     * 标识符的大小写格式。
+     * <div>
+     * 全部为 ASCII 的字符串使用查表的快速分词，结果与{@link WordTokenizer}相同；其它字符串使用{@link WordTokenizer}。
+     * 长度不超过<code>MAX_CACHED_IDENTIFIER_LENGTH</code>的字符串缓存转换结果，缓存满时清空重新开始。
+     * </div>
+     */
+    private enum IdentifierCase {
+        CAMEL_CASE(false, true, false, false, true, new WordTokenizer() {
             @Override
             protected void startSentence(StringBuilder buffer, char ch) {
                 buffer.append(Character.toLowerCase(ch));
@@ -3704,32 +4048,9 @@ public abstract class StringUtil {
                     buffer.append(ch);
                 }
             }
-        }.parse(str);
-    }
+        }),
 
-    /**
-     * 将字符串转换成pascal case。
-     * <div>
-     * 如果字符串是<code>null</code>则返回<code>null</code>。
-     * 
-     * <pre>
-     * StringUtil.toPascalCase(null)  = null
-     * StringUtil.toPascalCase("")    = ""
-     * StringUtil.toPascalCase("aBc") = "ABc"
-     * StringUtil.toPascalCase("aBc def") = "ABcDef"
-     * StringUtil.toPascalCase("aBc def_ghi") = "ABcDefGhi"
-     * StringUtil.toPascalCase("aBc def_ghi 123") = "aBcDefGhi123"
-     * </pre>
-     * 
-     * <br>
-     * 此方法会保留除了下划线和空白以外的所有分隔符。
-     * </div>
-     *
-     * @param str 要转换的字符串
-     * @return pascal case字符串，如果原字符串为<code>null</code>，则返回<code>null</code>
-     */
-    public static String toPascalCase(String str) {
-        return new WordTokenizer() {
+        PASCAL_CASE(true, true, false, false, false, new WordTokenizer() {
             @Override
             protected void startSentence(StringBuilder buffer, char ch) {
                 buffer.append(Character.toUpperCase(ch));
@@ -3766,36 +4087,9 @@ public abstract class StringUtil {
                     buffer.append(ch);
                 }
             }
-        }.parse(str);
-    }
+        }),
 
-    /**
-     * 将字符串转换成下划线分隔的大写字符串。
-     * <div>
-     * 如果字符串是<code>null</code>则返回<code>null</code>。
-     * <br>
-     *
-     * <pre>
-     * StringUtil.toUpperCaseWithUnderscores(null)  = null
-     * StringUtil.toUpperCaseWithUnderscores("")    = ""
-     * StringUtil.toUpperCaseWithUnderscores("aBc") = "A_BC"
-     * StringUtil.toUpperCaseWithUnderscores("aBc def") = "A_BC_DEF"
-     * StringUtil.toUpperCaseWithUnderscores("aBc def_ghi") = "A_BC_DEF_GHI"
-     * StringUtil.toUpperCaseWithUnderscores("aBc def_ghi 123") = "A_BC_DEF_GHI_123"
-     * StringUtil.toUpperCaseWithUnderscores("__a__Bc__") = "__A__BC__"
-     * </pre>
-     * 
-     * <br>
-     * </div>
-     * <div>
-     * 此方法会保留除了空白以外的所有分隔符。
-     * </div>
-     *
-     * @param str 要转换的字符串
-     * @return 下划线分隔的大写字符串，如果原字符串为<code>null</code>，则返回<code>null</code>
-     */
-    public static String toUpperCaseWithUnderscores(String str) {
-        return new WordTokenizer() {
+        UPPER_CASE_WITH_UNDERSCORES(true, true, true, true, false, new WordTokenizer() {
             @Override
             protected void startSentence(StringBuilder buffer, char ch) {
                 buffer.append(Character.toUpperCase(ch));
@@ -3838,36 +4132,9 @@ public abstract class StringUtil {
             protected void inDelimiter(StringBuilder buffer, char ch) {
                 buffer.append(ch);
             }
-        }.parse(str);
-    }
+        }),
 
-    /**
-     * 将字符串转换成下划线分隔的小写字符串。
-     * <div>
-     * 如果字符串是<code>null</code>则返回<code>null</code>。
-     * <br>
-     *
-     * <pre>
-     * StringUtil.toLowerCaseWithUnderscores(null)  = null
-     * StringUtil.toLowerCaseWithUnderscores("")    = ""
-     * StringUtil.toLowerCaseWithUnderscores("aBc") = "a_bc"
-     * StringUtil.toLowerCaseWithUnderscores("aBc def") = "a_bc_def"
-     * StringUtil.toLowerCaseWithUnderscores("aBc def_ghi") = "a_bc_def_ghi"
-     * StringUtil.toLowerCaseWithUnderscores("aBc def_ghi 123") = "a_bc_def_ghi_123"
-     * StringUtil.toLowerCaseWithUnderscores("__a__Bc__") = "__a__bc__"
-     * </pre>
-     * 
-     * <br>
-     * </div>
-     * <div>
-     * 此方法会保留除了空白以外的所有分隔符。
-     * </div>
-     *
-     * @param str 要转换的字符串
-     * @return 下划线分隔的小写字符串，如果原字符串为<code>null</code>，则返回<code>null</code>
-     */
-    public static String toLowerCaseWithUnderscores(String str) {
-        return new WordTokenizer() {
+        LOWER_CASE_WITH_UNDERSCORES(false, false, false, true, false, new WordTokenizer() {
             @Override
             protected void startSentence(StringBuilder buffer, char ch) {
                 buffer.append(Character.toLowerCase(ch));
@@ -3910,7 +4177,168 @@ public abstract class StringUtil {
             protected void inDelimiter(StringBuilder buffer, char ch) {
                 buffer.append(ch);
             }
-        }.parse(str);
+        });
+
+        private static final int MAX_CACHED_IDENTIFIERS = 4096;
+        private static final int MAX_CACHED_IDENTIFIER_LENGTH = 64;
+
+        // ASCII 字符的类型
+        private static final byte OTHER = 0;
+        private static final byte WHITESPACE = 1;
+        private static final byte UPPER_CASE = 2;
+        private static final byte LOWER_CASE = 3;
+        private static final byte DIGIT = 4;
+        private static final byte[] ASCII_TYPES = new byte[128];
+
+        static {
+            for (char ch = 0; ch < 128; ch++) {
+                if (Character.isWhitespace(ch)) {
+                    ASCII_TYPES[ch] = WHITESPACE;
+                } else if (Character.isUpperCase(ch)) {
+                    ASCII_TYPES[ch] = UPPER_CASE;
+                } else if (Character.isLowerCase(ch)) {
+                    ASCII_TYPES[ch] = LOWER_CASE;
+                } else if (Character.isDigit(ch)) {
+                    ASCII_TYPES[ch] = DIGIT;
+                }
+            }
+        }
+
+        private final boolean upperSentence;
+        private final boolean upperWord;
+        private final boolean upperInWord;
+        private final boolean underscores;
+        /**
+         * 前一个字符为分隔符时，单词首字母小写
+         */
+        private final boolean lowerAfterDelimiter;
+        private final WordTokenizer tokenizer;
+        private final ConcurrentMap<String, String> cache = new ConcurrentHashMap<>();
+
+        IdentifierCase(boolean upperSentence, boolean upperWord, boolean upperInWord, boolean underscores,
+                boolean lowerAfterDelimiter, WordTokenizer tokenizer) {
+            this.upperSentence = upperSentence;
+            this.upperWord = upperWord;
+            this.upperInWord = upperInWord;
+            this.underscores = underscores;
+            this.lowerAfterDelimiter = lowerAfterDelimiter;
+            this.tokenizer = tokenizer;
+        }
+
+        String convert(String str) {
+            if (EmptyUtil.isEmpty(str)) {
+                return str;
+            }
+
+            boolean cacheable = str.length() <= MAX_CACHED_IDENTIFIER_LENGTH;
+            if (cacheable) {
+                String result = cache.get(str);
+                if (result != null) {
+                    return result;
+                }
+            }
+
+            String result = parseAscii(str);
+            if (result == null) {
+                result = tokenizer.parse(str);
+            }
+
+            if (cacheable) {
+                if (cache.size() >= MAX_CACHED_IDENTIFIERS) {
+                    cache.clear();
+                }
+                cache.putIfAbsent(str, result);
+            }
+            return result;
+        }
+
+        /**
+         * 按{@link WordTokenizer}的语法转换全部为 ASCII 的字符串。
+         *
+         * @return 转换结果，如果字符串中有非 ASCII 字符则返回<code>null</code>
+         */
+        private String parseAscii(String str) {
+            int length = str.length();
+            for (int i = 0; i < length; i++) {
+                if (str.charAt(i) >= 128) {
+                    return null;
+                }
+            }
+
+            // 每个单词前最多插入一个下划线
+            char[] buffer = new char[underscores ? length << 1 : length];
+            int n = 0;
+
+            for (int index = 0; index < length; index++) {
+                char ch = str.charAt(index);
+                byte type = ASCII_TYPES[ch];
+
+                if (type == WHITESPACE) {
+                    continue;
+                }
+
+                if (type == OTHER) {
+                    if (underscores || ch != '_') {
+                        buffer[n++] = ch;
+                    }
+                    continue;
+                }
+
+                n = startWord(buffer, n, ch, type);
+
+                int end = index + 1;
+                if (type == UPPER_CASE) {
+                    while (end < length && ASCII_TYPES[str.charAt(end)] == UPPER_CASE) {
+                        end++;
+                    }
+
+                    if (end < length && ASCII_TYPES[str.charAt(end)] == LOWER_CASE) {
+                        // 最后一个大写字母属于下一个TitleCaseWord；只有一个大写字母时本身就是TitleCaseWord
+                        if (end - 1 > index) {
+                            end--;
+                        } else {
+                            type = LOWER_CASE;
+                            while (end < length && ASCII_TYPES[str.charAt(end)] == LOWER_CASE) {
+                                end++;
+                            }
+                        }
+                    }
+                } else {
+                    while (end < length && ASCII_TYPES[str.charAt(end)] == type) {
+                        end++;
+                    }
+                }
+
+                for (int i = index + 1; i < end; i++) {
+                    char c = str.charAt(i);
+                    buffer[n++] = type == DIGIT ? c : toCase(c, upperInWord);
+                }
+                index = end - 1;
+            }
+
+            return new String(buffer, 0, n);
+        }
+
+        private int startWord(char[] buffer, int n, char ch, byte type) {
+            if (n == 0) {
+                buffer[n++] = type == DIGIT ? ch : toCase(ch, upperSentence);
+                return n;
+            }
+
+            boolean afterWord = ASCII_TYPES[buffer[n - 1]] > WHITESPACE;
+            if (underscores && afterWord) {
+                buffer[n++] = '_';
+            }
+            buffer[n++] = type == DIGIT ? ch : toCase(ch, upperWord && (afterWord || !lowerAfterDelimiter));
+            return n;
+        }
+
+        private static char toCase(char ch, boolean upper) {
+            if (upper) {
+                return ch >= 'a' && ch <= 'z' ? (char) (ch - 32) : ch;
+            }
+            return ch >= 'A' && ch <= 'Z' ? (char) (ch + 32) : ch;
+        }
     }
 
     /**
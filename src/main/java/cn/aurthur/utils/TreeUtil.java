@@ -1,8 +1,13 @@
 package cn.aurthur.utils;
 
+import cn.aurthur.lang.collection.CompactTree;
 import com.alibaba.fastjson2.JSONArray;
 import com.alibaba.fastjson2.JSONObject;
 
+import java.util.*;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
 /**
  * 用于包含父子关系的 List 和树之间的转换
  *
@@ -50,4 +55,106 @@ public class TreeUtil {
         }
         return r;
     }
-}
\ No newline at end of file
+
+    /**
+     * 泛型版本的 List 转树，只遍历一次数据，不会把 ID 转成字符串，也不需要构造中间 JSON 对象。
+     * <p>
+     * 父节点可以出现在子节点之后，因此可以直接传入从数据库游标中流式读取的数据。
+     * 父 ID 为 <code>null</code> 或在数据中找不到对应节点的记录会作为根节点返回，
+     * 根节点按其父 ID 第一次出现的顺序排列，同一父节点下的子节点保持原始顺序。
+     *
+     * @param list     含有父子关系的数据
+     * @param id       取数据 ID 的函数
+     * @param parentId 取数据父 ID 的函数
+     * @param attach   将子节点挂到父节点上的函数，参数依次为父节点、子节点
+     * @param <T>      节点类型
+     * @param <K>      ID 类型，需要正确实现 <code>equals</code> 和 <code>hashCode</code>
+     * @return 根节点列表
+     */
+    public static <T, K> List<T> listToTree(Iterable<? extends T> list, Function<? super T, ? extends K> id,
+                                            Function<? super T, ? extends K> parentId,
+                                            BiConsumer<? super T, ? super T> attach) {
+        return listToTree(list.iterator(), id, parentId, attach);
+    }
+
+    /**
+     * 泛型版本的 List 转树，数据来源为 <code>Iterator</code>（例如数据库游标），详见
+     * {@link #listToTree(Iterable, Function, Function, BiConsumer)}。
+     *
+     * @param iterator 含有父子关系的数据
+     * @param id       取数据 ID 的函数
+     * @param parentId 取数据父 ID 的函数
+     * @param attach   将子节点挂到父节点上的函数，参数依次为父节点、子节点
+     * @param <T>      节点类型
+     * @param <K>      ID 类型
+     * @return 根节点列表
+     */
+    public static <T, K> List<T> listToTree(Iterator<? extends T> iterator, Function<? super T, ? extends K> id,
+                                            Function<? super T, ? extends K> parentId,
+                                            BiConsumer<? super T, ? super T> attach) {
+        // 已经出现过的节点
+        Map<K, T> nodes = new HashMap<>();
+        // 父节点还未出现的节点，按父 ID 分组
+        Map<K, List<T>> pending = new LinkedHashMap<>();
+
+        while (iterator.hasNext()) {
+            T node = iterator.next();
+            K key = id.apply(node);
+            K pKey = parentId.apply(node);
+
+            nodes.put(key, node);
+
+            // 先把等待当前节点的子节点挂上
+            List<T> children = pending.remove(key);
+            if (children != null) {
+                for (T child : children) {
+                    attach.accept(node, child);
+                }
+            }
+
+            T parent = pKey == null ? null : nodes.get(pKey);
+            if (parent != null) {
+                attach.accept(parent, node);
+            } else {
+                pending.computeIfAbsent(pKey, k -> new ArrayList<>()).add(node);
+            }
+        }
+
+        // 剩下的都是找不到父节点的，即根节点
+        List<T> r = new ArrayList<>();
+        for (List<T> roots : pending.values()) {
+            r.addAll(roots);
+        }
+        return r;
+    }
+
+    /**
+     * 将含有父子关系的 List 转为以数组存储的 {@link CompactTree}，树中节点编号即为元素在 List 中的下标。
+     * 父 ID 为 <code>null</code> 或找不到对应节点的记录作为根节点。
+     *
+     * @param list     含有父子关系的数据
+     * @param id       取数据 ID 的函数
+     * @param parentId 取数据父 ID 的函数
+     * @param <T>      节点类型
+     * @param <K>      ID 类型
+     * @return 树
+     */
+    public static <T, K> CompactTree toCompactTree(List<? extends T> list, Function<? super T, ? extends K> id,
+                                                   Function<? super T, ? extends K> parentId) {
+        int n = list.size();
+        Map<K, Integer> index = new HashMap<>(n * 4 / 3 + 1);
+        int i = 0;
+        for (T node : list) {
+            index.put(id.apply(node), i++);
+        }
+
+        int[] parent = new int[n];
+        i = 0;
+        for (T node : list) {
+            K pKey = parentId.apply(node);
+            Integer p = pKey == null ? null : index.get(pKey);
+            parent[i++] = p == null ? CompactTree.NONE : p;
+        }
+        return CompactTree.of(parent);
+    }
+}
@@ -0,0 +1,174 @@
+package cn.aurthur.lang.pool;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.lang.ref.WeakReference;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class StringInternerTest {
+
+    @Test
+    public void testIntern() {
+        StringInterner interner = new StringInterner();
+
+        String city = interner.intern(new String("北京"));
+        char[] chars = "xx北京yy".toCharArray();
+        Assert.assertSame(city, interner.intern(chars, 2, 2));
+        byte[] bytes = "x北京".getBytes(StandardCharsets.UTF_8);
+        Assert.assertSame(city, interner.intern(bytes, 1, bytes.length - 1));
+
+        String ok = interner.intern("ok!".getBytes(StandardCharsets.US_ASCII), 0, 2);
+        Assert.assertEquals("ok", ok);
+        Assert.assertSame(ok, interner.intern(new String("ok")));
+        Assert.assertSame(ok, interner.intern(new char[] { 'o', 'k' }, 0, 2));
+
+        Assert.assertEquals("", interner.intern(new char[0], 0, 0));
+        Assert.assertNull(interner.intern(null));
+
+        // 不合法的 UTF-8 与 JDK 的替换方式相同
+        byte[] malformed = { 'a', (byte) 0xC3, 'b' };
+        Assert.assertEquals(new String(malformed, StandardCharsets.UTF_8), interner.intern(malformed, 0, 3));
+
+        try {
+            interner.intern(chars, 5, 2);
+            Assert.fail();
+        } catch (IndexOutOfBoundsException e) {
+            // 预期
+        }
+
+        interner.clear();
+        Assert.assertEquals(0, interner.size());
+    }
+
+    @Test
+    public void testBoundedAndWeak() throws InterruptedException {
+        StringInterner bounded = new StringInterner(64);
+        List<String> strong = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            strong.add(bounded.intern("s" + i));
+        }
+        Assert.assertTrue(bounded.size() <= 64);
+
+        // 内部只保存弱引用，调用者不再引用后字符串可以被回收
+        StringInterner interner = new StringInterner();
+        String owned = new String("owned");
+        Assert.assertSame(owned, interner.intern(owned));
+        WeakReference<String> ref = new WeakReference<>(owned);
+        owned = null;
+        for (int i = 0; i < 50 && ref.get() != null; i++) {
+            System.gc();
+            Thread.sleep(20);
+        }
+        Assert.assertNull(ref.get());
+
+        String kept = interner.intern(new String("kept"));
+        Assert.assertSame(kept, interner.intern("kept".toCharArray(), 0, 4));
+        Assert.assertEquals("owned", interner.intern(new String("owned")));
+        Assert.assertEquals(1000, strong.size());
+    }
+
+    @Test
+    public void testConcurrent() throws Exception {
+        StringInterner interner = new StringInterner();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<String[]>> futures = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                futures.add(executor.submit(() -> {
+                    String[] result = new String[500];
+                    for (int round = 0; round < 20; round++) {
+                        for (int i = 0; i < result.length; i++) {
+                            byte[] bytes = ("tag-" + i).getBytes(StandardCharsets.UTF_8);
+                            String s = interner.intern(bytes, 0, bytes.length);
+                            if (result[i] != null && result[i] != s) {
+                                throw new AssertionError("not canonical: " + s);
+                            }
+                            result[i] = s;
+                        }
+                    }
+                    return result;
+                }));
+            }
+
+            String[] first = futures.get(0).get();
+            for (Future<String[]> future : futures) {
+                String[] result = future.get();
+                for (int i = 0; i < result.length; i++) {
+                    Assert.assertSame(first[i], result[i]);
+                }
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * 估算不同字符串实例占用的堆内存：对象头和字段 24 字节，<code>byte[]</code>头 16 字节，按 8 字节对齐
+     */
+    private static long retainedSize(String[] strings) {
+        Set<String> distinct = Collections.newSetFromMap(new IdentityHashMap<>());
+        long size = 0;
+        for (String s : strings) {
+            if (distinct.add(s)) {
+                boolean latin1 = s.chars().allMatch(c -> c < 256);
+                size += 24 + ((16 + (latin1 ? s.length() : s.length() * 2) + 7) & ~7);
+            }
+        }
+        return size;
+    }
+
+    /**
+     * 生成重复字符串拼接成的字节流，<code>offsets</code>记录每个字符串的起始位置
+     */
+    private static byte[] feed(String[] values, int[] offsets) {
+        ByteArrayOutputStream feed = new ByteArrayOutputStream();
+        int count = offsets.length - 1;
+        for (int i = 0; i < count; i++) {
+            offsets[i] = feed.size();
+            byte[] bytes = values[(int) ((long) i * 7919 % values.length)].getBytes(StandardCharsets.UTF_8);
+            feed.write(bytes, 0, bytes.length);
+        }
+        offsets[count] = feed.size();
+        return feed.toByteArray();
+    }
+
+    /**
+     * 从字节流中解析大量重复字符串时，只保留不同的字符串实例
+     */
+    @Test
+    public void testHeapSavings() {
+        String[] values = new String[1000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = (i % 3 == 0 ? "城市-" : "status_code_") + i;
+        }
+        int count = 500000;
+        int[] offsets = new int[count + 1];
+        byte[] bytes = feed(values, offsets);
+
+        String[] parsed = new String[count];
+        for (int i = 0; i < count; i++) {
+            parsed[i] = new String(bytes, offsets[i], offsets[i + 1] - offsets[i], StandardCharsets.UTF_8);
+        }
+        long plain = retainedSize(parsed);
+
+        StringInterner interner = new StringInterner();
+        for (int i = 0; i < count; i++) {
+            parsed[i] = interner.intern(bytes, offsets[i], offsets[i + 1] - offsets[i]);
+        }
+        long interned = retainedSize(parsed);
+
+        Assert.assertEquals(values.length, interner.size());
+        Assert.assertSame(parsed[0], parsed[values.length]);
+        Assert.assertTrue(interned * 100 < plain);
+    }
+}
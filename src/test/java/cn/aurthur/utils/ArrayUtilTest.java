@@ -0,0 +1,115 @@
+package cn.aurthur.utils;
+
+import cn.aurthur.lang.collection.IntArrayBuilder;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+public class ArrayUtilTest {
+
+    /**
+     * 朴素算法，作为对照
+     */
+    private static int naiveIndexOf(byte[] array, byte[] pattern, int from) {
+        outer:
+        for (int i = Math.max(from, 0); i <= array.length - pattern.length; i++) {
+            for (int k = 0; k < pattern.length; k++) {
+                if (array[i + k] != pattern[k]) {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+        return -1;
+    }
+
+    @Test
+    public void testBytePattern() {
+        Random random = new Random(42);
+        for (int round = 0; round < 2000; round++) {
+            // 小字母表，容易出现部分匹配
+            byte[] array = new byte[random.nextInt(3000)];
+            for (int i = 0; i < array.length; i++) {
+                array[i] = (byte) random.nextInt(4);
+            }
+            byte[] pattern = new byte[1 + random.nextInt(12)];
+            for (int i = 0; i < pattern.length; i++) {
+                pattern[i] = (byte) random.nextInt(4);
+            }
+            int from = random.nextInt(array.length + 1);
+
+            int expected = naiveIndexOf(array, pattern, from);
+            ArrayUtil.BytePattern compiled = ArrayUtil.compile(pattern);
+            Assert.assertEquals(expected, compiled.indexOf(array, from));
+            Assert.assertEquals(expected, ArrayUtil.indexOf(array, pattern, from));
+
+            ByteBuffer direct = ByteBuffer.allocateDirect(array.length);
+            direct.put(array).flip();
+            direct.position(from);
+            Assert.assertEquals(expected, compiled.indexOf(direct));
+            Assert.assertEquals(from, direct.position());
+
+            // arrayOffset 不为 0 的堆内 ByteBuffer
+            byte[] padded = new byte[array.length + 3];
+            System.arraycopy(array, 0, padded, 3, array.length);
+            ByteBuffer slice = ((ByteBuffer) ByteBuffer.wrap(padded).position(3)).slice();
+            slice.position(from);
+            Assert.assertEquals(expected, compiled.indexOf(slice));
+        }
+    }
+
+    @Test
+    public void testIndexOfByte() {
+        Random random = new Random(7);
+        for (int round = 0; round < 2000; round++) {
+            byte[] array = new byte[random.nextInt(200)];
+            random.nextBytes(array);
+            byte value = (byte) random.nextInt(256);
+            int from = random.nextInt(array.length + 1) - 1;
+
+            int expected = naiveIndexOf(array, new byte[]{value}, from);
+            Assert.assertEquals(expected, ArrayUtil.indexOf(array, value, from));
+            Assert.assertEquals(naiveIndexOf(array, new byte[]{value}, 0) != -1, ArrayUtil.contains(array, value));
+        }
+    }
+
+    @Test
+    public void testParallel() {
+        int[] array = new int[1000000];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = i % 1000;
+        }
+        array[700000] = -1;
+        array[900000] = -1;
+
+        Assert.assertEquals(700000, ArrayUtil.parallelIndexOf(array, -1, 1000));
+        Assert.assertEquals(900000, ArrayUtil.parallelLastIndexOf(array, -1, 1000));
+        Assert.assertEquals(ArrayUtil.indexOf(array, 999), ArrayUtil.parallelIndexOf(array, 999, 1000));
+        Assert.assertEquals(ArrayUtil.lastIndexOf(array, 5), ArrayUtil.parallelLastIndexOf(array, 5, 1000));
+        Assert.assertFalse(ArrayUtil.parallelContains(array, -2, 1000));
+
+        int[] reversed = array.clone();
+        ArrayUtil.parallelReverse(reversed, 1000);
+        ArrayUtil.reverse(array);
+        Assert.assertArrayEquals(array, reversed);
+
+        Assert.assertArrayEquals(ArrayUtil.intToString(array), ArrayUtil.parallelIntToString(array, 1000));
+    }
+
+    @Test
+    public void testPrimitiveAppend() {
+        Assert.assertArrayEquals(new int[]{1, 2, 3, 4}, ArrayUtil.append(new int[]{1, 2}, new int[]{3, 4}));
+        Assert.assertArrayEquals(new int[]{1, 9, 2}, ArrayUtil.insert(new int[]{1, 2}, -1, new int[]{9}));
+        Assert.assertArrayEquals(new long[]{1, 0, 0, 7}, ArrayUtil.insert(new long[]{1}, 3, new long[]{7}));
+
+        IntArrayBuilder builder = new IntArrayBuilder(0);
+        for (int i = 0; i < 1000; i++) {
+            builder.add(i);
+        }
+        builder.addAll(1000, 1001);
+        Assert.assertEquals(1002, builder.size());
+        Assert.assertEquals(1001, builder.toArray()[1001]);
+    }
+}
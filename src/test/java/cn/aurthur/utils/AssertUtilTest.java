@@ -0,0 +1,71 @@
+package cn.aurthur.utils;
+
+import cn.aurthur.exception.CheckedFailedException;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class AssertUtilTest {
+
+    private static String failure(Runnable check) {
+        try {
+            check.run();
+        } catch (CheckedFailedException e) {
+            return e.getMessage();
+        }
+        throw new AssertionError("expected CheckedFailedException");
+    }
+
+    @Test
+    public void testMessages() {
+        Assert.assertEquals("a", AssertUtil.notNull("a", "unused {}", 1));
+        Assert.assertTrue(AssertUtil.isTrueLazy(true, () -> {
+            throw new AssertionError("supplier must not be called");
+        }));
+
+        Assert.assertEquals("id 1 of user", failure(() -> AssertUtil.notNull(null, "id {} of {}", 1, "user")));
+        Assert.assertEquals("1, 2, 3 {}", failure(() -> AssertUtil.isTrue(false, "{}, {}, {} {}", 1, 2, 3)));
+        Assert.assertEquals("a {}", failure(() -> AssertUtil.isFalse(true, "a {}", (Object[]) null)));
+        Assert.assertEquals("x=5", failure(() -> AssertUtil.isNull("", "x=%d", 5)));
+        Assert.assertEquals("lazy", failure(() -> AssertUtil.isFalseLazy(true, () -> "lazy")));
+        Assert.assertEquals("[Assertion failed] - the expression argument must be true",
+                failure(() -> AssertUtil.isTrue(false)));
+    }
+
+    @Test
+    public void testDefaultExceptionType() {
+        Assert.assertEquals("bad value 42",
+                failure(() -> AssertUtil.isTrue(false, (AssertUtil.ExceptionType) null, "bad value {}", 42)));
+        Assert.assertEquals("id 1", failure(() -> AssertUtil.notNull(null, (AssertUtil.ExceptionType) null, "id {}", 1)));
+    }
+
+    @Test
+    public void testExceptionTypes() {
+        RuntimeException full = AssertUtil.ExceptionType.CHECK_FAILED.newInstance("m");
+        Assert.assertTrue(full.getStackTrace().length > 0);
+
+        RuntimeException stackless = AssertUtil.ExceptionType.CHECK_FAILED_STACKLESS.newInstance("m");
+        Assert.assertTrue(stackless instanceof CheckedFailedException);
+        Assert.assertEquals(0, stackless.getStackTrace().length);
+        Assert.assertEquals("m", stackless.getMessage());
+
+        RuntimeException cached = AssertUtil.ExceptionType.CHECK_FAILED_CACHED.newInstance("m");
+        Assert.assertSame(cached, AssertUtil.ExceptionType.CHECK_FAILED_CACHED.newInstance("m"));
+        cached.addSuppressed(new RuntimeException());
+        Assert.assertEquals(0, cached.getSuppressed().length);
+
+        try {
+            AssertUtil.notNull(null, AssertUtil.ExceptionType.CHECK_FAILED_CACHED, "id {}", 1);
+            Assert.fail();
+        } catch (CheckedFailedException e) {
+            Assert.assertSame(AssertUtil.ExceptionType.CHECK_FAILED_CACHED.newInstance("id 1"), e);
+        }
+
+        try {
+            AssertUtil.isTrue(false, AssertUtil.ExceptionType.CHECK_FAILED_STACKLESS, "invalid input");
+            Assert.fail();
+        } catch (CheckedFailedException e) {
+            Assert.assertEquals("invalid input", e.getMessage());
+            Assert.assertEquals(0, e.getStackTrace().length);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package cn.aurthur.utils;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.StandardCharsets;
+
+public class CharsetUtilTest {
+
+    private static final Charset GBK = Charset.forName("GBK");
+
+    @Test
+    public void testConvert() {
+        String text = "中文 abc €";
+        String garbled = new String(text.getBytes(GBK), StandardCharsets.UTF_8);
+        Assert.assertEquals(new String(garbled.getBytes(StandardCharsets.UTF_8), GBK),
+                CharsetUtil.convert(garbled, StandardCharsets.UTF_8, GBK));
+        Assert.assertEquals(new String(text.getBytes(StandardCharsets.ISO_8859_1), StandardCharsets.UTF_8),
+                CharsetUtil.convert(text, StandardCharsets.ISO_8859_1, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testTranscode() throws IOException {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 5000; i++) {
+            text.append("第").append(i).append("行 log line\n");
+        }
+        byte[] gbk = text.toString().getBytes(GBK);
+        byte[] utf8 = text.toString().getBytes(StandardCharsets.UTF_8);
+
+        ByteBuffer result = CharsetUtil.transcode(ByteBuffer.wrap(gbk), GBK, StandardCharsets.UTF_8);
+        byte[] bytes = new byte[result.remaining()];
+        result.get(bytes);
+        Assert.assertArrayEquals(utf8, bytes);
+
+        // 每次只读 3 个字节，多字节字符会被切断
+        InputStream in = new ByteArrayInputStream(utf8) {
+            @Override
+            public synchronized int read(byte[] b, int off, int len) {
+                return super.read(b, off, Math.min(len, 3));
+            }
+        };
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Assert.assertEquals(gbk.length, CharsetUtil.transcode(in, StandardCharsets.UTF_8, out, GBK));
+        Assert.assertArrayEquals(gbk, out.toByteArray());
+
+        // 不完整的结尾使用替换字符
+        out.reset();
+        CharsetUtil.transcode(new ByteArrayInputStream(new byte[] { 'a', (byte) 0xE4 }), StandardCharsets.UTF_8, out,
+                StandardCharsets.UTF_8);
+        Assert.assertEquals("a�", new String(out.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testCachedCodersNotSharedWithConvert() {
+        // 调用者正在使用的编码器不受 convert 影响
+        CharsetEncoder encoder = CharsetUtil.encoder(StandardCharsets.UTF_8);
+        ByteBuffer bytes = ByteBuffer.allocate(64);
+        CharBuffer chars = CharBuffer.wrap("中文 abc");
+        Assert.assertTrue(encoder.encode((CharBuffer) chars.limit(2), bytes, false).isUnderflow());
+        Assert.assertEquals("abc", CharsetUtil.convert("abc", StandardCharsets.UTF_8, GBK));
+        Assert.assertTrue(encoder.encode((CharBuffer) chars.limit(chars.capacity()), bytes, true).isUnderflow());
+        Assert.assertTrue(encoder.flush(bytes).isUnderflow());
+        Assert.assertEquals("中文 abc", new String(bytes.array(), 0, bytes.position(), StandardCharsets.UTF_8));
+
+        // 调用者正在使用的转码器不受 transcode 影响
+        byte[] utf8 = "中文 abc".getBytes(StandardCharsets.UTF_8);
+        CharsetUtil.Transcoder transcoder = CharsetUtil.transcoder(StandardCharsets.UTF_8, GBK);
+        ByteBuffer in = ByteBuffer.wrap(utf8, 0, 4);
+        ByteBuffer out = ByteBuffer.allocate(64);
+        Assert.assertTrue(transcoder.transcode(in, out, false).isUnderflow());
+        CharsetUtil.transcode(ByteBuffer.wrap(utf8), StandardCharsets.UTF_8, GBK);
+        in = ByteBuffer.wrap(utf8, in.position(), utf8.length - in.position());
+        Assert.assertTrue(transcoder.transcode(in, out, true).isUnderflow());
+        Assert.assertEquals("中文 abc", new String(out.array(), 0, out.position(), GBK));
+    }
+}
@@ -0,0 +1,354 @@
+package cn.aurthur.utils;
+
+import cn.aurthur.lang.able.Keyable;
+import cn.aurthur.lang.collection.IntBitmap;
+import cn.aurthur.lang.collection.LongHashMap;
+import cn.aurthur.lang.collection.LongHashSet;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.PrimitiveIterator;
+import java.util.Random;
+import java.util.RandomAccess;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.IntStream;
+
+public class CollectionUtilTest {
+
+    private static int[] randomSet(Random random, int size, int bound) {
+        return random.ints(size, -bound, bound).distinct().sorted().toArray();
+    }
+
+    private static int[] toArray(Set<Integer> set) {
+        return set.stream().mapToInt(Integer::intValue).sorted().toArray();
+    }
+
+    private static int[] toArray(PrimitiveIterator.OfInt iterator) {
+        IntStream.Builder builder = IntStream.builder();
+        iterator.forEachRemaining((int value) -> builder.add(value));
+        return builder.build().toArray();
+    }
+
+    @Test
+    public void testSortedArraySetAlgebra() {
+        Random random = new Random(3);
+        for (int round = 0; round < 500; round++) {
+            // 覆盖稠密、稀疏以及长度悬殊的情况
+            int bound = 1 + random.nextInt(round % 2 == 0 ? 100 : 1000000);
+            int[] a = randomSet(random, random.nextInt(2000), bound);
+            int[] b = randomSet(random, random.nextInt(round % 3 == 0 ? 20 : 2000), bound);
+
+            Set<Integer> sa = new TreeSet<>();
+            Arrays.stream(a).forEach(sa::add);
+            Set<Integer> sb = new TreeSet<>();
+            Arrays.stream(b).forEach(sb::add);
+
+            int[] and = toArray(CollectionUtil.intersection(sa, sb));
+            int[] sub = toArray(CollectionUtil.subtract(sa, sb));
+            Set<Integer> su = new TreeSet<>(sa);
+            su.addAll(sb);
+            int[] or = toArray(su);
+
+            Assert.assertArrayEquals(and, CollectionUtil.intersection(a, b));
+            Assert.assertArrayEquals(and, CollectionUtil.intersection(b, a));
+            Assert.assertArrayEquals(sub, CollectionUtil.subtract(a, b));
+            Assert.assertArrayEquals(or, CollectionUtil.union(a, b));
+
+            long[] la = Arrays.stream(a).asLongStream().toArray();
+            long[] lb = Arrays.stream(b).asLongStream().toArray();
+            Assert.assertArrayEquals(Arrays.stream(and).asLongStream().toArray(), CollectionUtil.intersection(la, lb));
+            Assert.assertArrayEquals(Arrays.stream(sub).asLongStream().toArray(), CollectionUtil.subtract(la, lb));
+
+            Assert.assertArrayEquals(and, toArray(CollectionUtil.intersection(Arrays.stream(a).iterator(),
+                    Arrays.stream(b).iterator())));
+            Assert.assertArrayEquals(sub, toArray(CollectionUtil.subtract(Arrays.stream(a).iterator(),
+                    Arrays.stream(b).iterator())));
+            Assert.assertArrayEquals(or, toArray(CollectionUtil.union(Arrays.stream(a).iterator(),
+                    Arrays.stream(b).iterator())));
+
+            int[] inPlace = a.clone();
+            int n = CollectionUtil.intersectionInPlace(inPlace, inPlace.length, b, b.length);
+            Assert.assertArrayEquals(and, Arrays.copyOf(inPlace, n));
+
+            IntBitmap ba = IntBitmap.of(a);
+            IntBitmap bb = IntBitmap.of(b);
+            Assert.assertArrayEquals(and, ba.and(bb).toArray());
+            Assert.assertArrayEquals(sub, ba.andNot(bb).toArray());
+            Assert.assertArrayEquals(or, ba.or(bb).toArray());
+            Assert.assertArrayEquals(or, toArray(ba.or(bb).iterator()));
+        }
+    }
+
+    @Test
+    public void testUnionReturnsCopy() {
+        int[] a = { 1, 2, 3 };
+        int[] union = CollectionUtil.union(a, new int[0]);
+        Assert.assertArrayEquals(a, union);
+        Assert.assertNotSame(a, union);
+        Assert.assertNotSame(a, CollectionUtil.union(null, a));
+
+        long[] b = { 1, 2, 3 };
+        Assert.assertNotSame(b, CollectionUtil.union(b, null));
+        Assert.assertNotSame(b, CollectionUtil.union(new long[0], b));
+        Assert.assertNull(CollectionUtil.union((long[]) null, null));
+    }
+
+    @Test
+    public void testIntBitmapContainers() {
+        // 超过 4096 个元素的块会转为位图容器
+        int[] a = IntStream.range(0, 200000).filter(i -> i % 3 != 0).toArray();
+        int[] b = IntStream.range(100000, 300000).filter(i -> i % 2 == 0).toArray();
+        IntBitmap ba = IntBitmap.of(a);
+        IntBitmap bb = IntBitmap.of(b);
+
+        Assert.assertEquals(a.length, ba.cardinality());
+        Assert.assertArrayEquals(CollectionUtil.intersection(a, b), ba.and(bb).toArray());
+        Assert.assertArrayEquals(CollectionUtil.subtract(a, b), ba.andNot(bb).toArray());
+        Assert.assertArrayEquals(CollectionUtil.union(a, b), ba.or(bb).toArray());
+
+        for (int i = 0; i < 200000; i += 3) {
+            Assert.assertFalse(ba.remove(i));
+            Assert.assertTrue(ba.remove(i + 1));
+        }
+        Assert.assertArrayEquals(IntStream.range(0, 200000).filter(i -> i % 3 == 2).toArray(), ba.toArray());
+        Assert.assertFalse(ba.contains(-1));
+        Assert.assertTrue(ba.contains(2));
+    }
+
+    @Test
+    public void testViews() {
+        List<Integer> a = Arrays.asList(1, 2, 3);
+        List<Integer> b = Collections.emptyList();
+        List<Integer> c = Arrays.asList(4, 5);
+
+        List<Integer> concat = CollectionUtil.concatView(a, b, null, c);
+        Assert.assertEquals(Arrays.asList(1, 2, 3, 4, 5), concat);
+        Assert.assertEquals(Integer.valueOf(4), concat.get(3));
+        Assert.assertEquals(new ArrayList<>(concat), concat);
+
+        List<List<Integer>> parts = CollectionUtil.partition(concat, 2);
+        Assert.assertEquals(3, parts.size());
+        Assert.assertEquals(Collections.singletonList(5), parts.get(2));
+
+        Assert.assertEquals(Arrays.asList("1", "2", "3"), CollectionUtil.mapView(a, String::valueOf));
+
+        List<Integer> odd = new ArrayList<>();
+        CollectionUtil.filterView(concat, i -> i % 2 == 1).forEach(odd::add);
+        Assert.assertEquals(Arrays.asList(1, 3, 5), odd);
+    }
+
+    @Test
+    public void testViewRandomAccess() {
+        List<Integer> array = Arrays.asList(1, 2, 3);
+        List<Integer> linked = new LinkedList<>(array);
+
+        Assert.assertTrue(CollectionUtil.concatView(array, null, array) instanceof RandomAccess);
+        Assert.assertFalse(CollectionUtil.concatView(array, linked) instanceof RandomAccess);
+        Assert.assertTrue(CollectionUtil.partition(array, 2) instanceof RandomAccess);
+        Assert.assertFalse(CollectionUtil.partition(linked, 2) instanceof RandomAccess);
+        Assert.assertTrue(CollectionUtil.mapView(array, String::valueOf) instanceof RandomAccess);
+        Assert.assertFalse(CollectionUtil.mapView(linked, String::valueOf) instanceof RandomAccess);
+        Assert.assertEquals(Arrays.asList("1", "2", "3"), CollectionUtil.mapView(linked, String::valueOf));
+
+        // 块的起止下标超过 int 范围时不溢出
+        List<Integer> huge = new AbstractList<Integer>() {
+            @Override
+            public Integer get(int index) {
+                return index;
+            }
+
+            @Override
+            public int size() {
+                return Integer.MAX_VALUE;
+            }
+        };
+        List<List<Integer>> parts = CollectionUtil.partition(huge, Integer.MAX_VALUE - 1);
+        Assert.assertEquals(2, parts.size());
+        Assert.assertEquals(Collections.singletonList(Integer.MAX_VALUE - 1), parts.get(1));
+    }
+
+    @Test
+    public void testLongKeyed() {
+        List<Row> rows = new ArrayList<>();
+        for (long i = 0; i < 10000; i++) {
+            rows.add(new Row(i * 7919 % 20000, i));
+        }
+        rows.add(new Row(0L, -1));
+
+        LongHashMap<Row> map = CollectionUtil.list2LongMap(rows);
+        Map<Long, Row> boxed = CollectionUtil.list2Map(rows);
+        Assert.assertEquals(boxed.size(), map.size());
+        for (Map.Entry<Long, Row> entry : boxed.entrySet()) {
+            Assert.assertSame(entry.getValue(), map.get(entry.getKey()));
+        }
+        Assert.assertEquals(-1, map.get(0).value);
+
+        LongHashMap<Row> parallel = CollectionUtil.parallelList2LongMap(rows);
+        Assert.assertEquals(-1, parallel.get(0).value);
+        Assert.assertEquals(boxed, CollectionUtil.parallelList2Map(rows));
+
+        // 删除后探测链仍然完整
+        for (long i = 0; i < 10000; i += 2) {
+            map.remove(i * 7919 % 20000);
+        }
+        for (long i = 0; i < 10000; i++) {
+            Assert.assertEquals(i % 2 == 1, map.containsKey(i * 7919 % 20000));
+        }
+
+        LongHashSet ids = CollectionUtil.parallelCollectLongId(rows);
+        Assert.assertEquals(boxed.size(), ids.size());
+        Assert.assertTrue(ids.remove(0));
+        Assert.assertFalse(ids.contains(0));
+        Assert.assertTrue(ids.contains(7919));
+    }
+
+    @Test
+    public void testLongKeyedRejectsNonIntegral() {
+        List<Keyable<Double>> rows = Arrays.asList(() -> 1.0, () -> 1.5);
+        try {
+            CollectionUtil.list2LongMap(rows);
+            Assert.fail();
+        } catch (IllegalArgumentException e) {
+            // 预期
+        }
+        try {
+            CollectionUtil.collectLongId(rows);
+            Assert.fail();
+        } catch (IllegalArgumentException e) {
+            // 预期
+        }
+
+        List<Keyable<Integer>> ints = Arrays.asList(() -> 1, () -> null);
+        Assert.assertEquals(1, CollectionUtil.collectLongId(ints).size());
+    }
+
+    @Test
+    public void testMerge() {
+        List<Target> list = Arrays.asList(new Target(1L, "keep"), new Target(2L, "keep"), new Target(3L, "keep"));
+        Map<Long, Source> map = CollectionUtil.list2Map(Arrays.asList(new Source(1L, "a", 10), new Source(3L, "c", 30)));
+
+        // note 在目标中不存在，被忽略；extra 在源中不存在，按 null 写入
+        CollectionUtil.merge(list, map, "name", "score", "note", "extra");
+        Assert.assertEquals("a", list.get(0).name);
+        Assert.assertEquals(10, list.get(0).score);
+        Assert.assertNull(list.get(0).extra);
+        Assert.assertEquals("keep", list.get(1).name);
+        Assert.assertEquals("keep", list.get(1).extra);
+        Assert.assertEquals(30, list.get(2).score);
+
+        list.get(0).name = "keep";
+        CollectionUtil.merge(list, map, ReflectionUtil.getField(Source.class, "name"));
+        Assert.assertEquals("a", list.get(0).name);
+
+        // 只合并 Target 中声明的 Field，Source 的 Field 被忽略
+        Map<Long, Target> targets = CollectionUtil.list2Map(Collections.singletonList(new Target(2L, "b")));
+        CollectionUtil.merge(Target.class, list, targets, ReflectionUtil.getField(Target.class, "name"),
+                ReflectionUtil.getField(Source.class, "score"));
+        Assert.assertEquals("b", list.get(1).name);
+        Assert.assertEquals(0, list.get(1).score);
+
+        Map<Long, BadSource> bad = CollectionUtil.list2Map(Collections.singletonList(new BadSource(1L)));
+        try {
+            CollectionUtil.merge(list, bad, "score");
+            Assert.fail();
+        } catch (IllegalArgumentException e) {
+            // 预期
+        }
+    }
+
+    @Test
+    public void testParallelMerge() {
+        List<Target> sequential = new ArrayList<>();
+        List<Target> parallel = new ArrayList<>();
+        List<Source> sources = new ArrayList<>();
+        for (long i = 0; i < 20000; i++) {
+            sequential.add(new Target(i, "t" + i));
+            parallel.add(new Target(i, "t" + i));
+            if (i % 3 != 0) {
+                sources.add(new Source(i, "s" + i, (int) i));
+            }
+        }
+        Map<Long, Source> map = CollectionUtil.list2Map(sources);
+
+        CollectionUtil.merge(sequential, map, "name", "score");
+        CollectionUtil.parallelMerge(parallel, map, "name", "score");
+        for (int i = 0; i < sequential.size(); i++) {
+            Assert.assertEquals(sequential.get(i).name, parallel.get(i).name);
+            Assert.assertEquals(sequential.get(i).score, parallel.get(i).score);
+        }
+        Assert.assertEquals("t3", parallel.get(3).name);
+        Assert.assertEquals("s4", parallel.get(4).name);
+    }
+
+    private static class Target implements Keyable<Long> {
+        private final Long id;
+        private String name;
+        private int score;
+        private String extra = "keep";
+
+        Target(Long id, String name) {
+            this.id = id;
+            this.name = name;
+        }
+
+        @Override
+        public Long getId() {
+            return id;
+        }
+    }
+
+    private static class Source implements Keyable<Long> {
+        private final Long id;
+        private final String name;
+        private final int score;
+        private final String note = "note";
+
+        Source(Long id, String name, int score) {
+            this.id = id;
+            this.name = name;
+            this.score = score;
+        }
+
+        @Override
+        public Long getId() {
+            return id;
+        }
+    }
+
+    private static class BadSource implements Keyable<Long> {
+        private final Long id;
+        private final String score = "bad";
+
+        BadSource(Long id) {
+            this.id = id;
+        }
+
+        @Override
+        public Long getId() {
+            return id;
+        }
+    }
+
+    private static class Row implements Keyable<Long> {
+        private final Long id;
+        private final long value;
+
+        Row(Long id, long value) {
+            this.id = id;
+            this.value = value;
+        }
+
+        @Override
+        public Long getId() {
+            return id;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package cn.aurthur.utils;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+
+public class ExceptionUtilTest {
+
+    private static RuntimeException nested(int depth) {
+        if (depth == 0) {
+            return new IllegalStateException("boom", new IOException("io"));
+        }
+        return nested(depth - 1);
+    }
+
+    @Test
+    public void testBoundedStackTrace() {
+        RuntimeException e = nested(50);
+        e.addSuppressed(new RuntimeException("suppressed"));
+
+        String full = ExceptionUtil.getStackTrace(e);
+        String bounded = ExceptionUtil.getStackTrace(e, 5);
+        Assert.assertTrue(bounded.length() < full.length());
+        Assert.assertTrue(bounded.startsWith("java.lang.IllegalStateException: boom\n\tat "));
+        Assert.assertTrue(bounded.contains("\tSuppressed: java.lang.RuntimeException: suppressed\n"));
+        Assert.assertTrue(bounded.contains("Caused by: java.io.IOException: io\n"));
+
+        // 51 个连续的 nested 栈帧折叠为一行
+        String folded = ExceptionUtil.getStackTrace(e, 100, ExceptionUtilTest.class.getName());
+        Assert.assertTrue(folded, folded.contains("\t... 52 frames in " + ExceptionUtilTest.class.getName() + "\n"));
+
+        RuntimeException a = new RuntimeException("a");
+        RuntimeException b = new RuntimeException("b", a);
+        a.initCause(b);
+        Assert.assertTrue(ExceptionUtil.getStackTrace(b, 3).contains("[CIRCULAR REFERENCE: "));
+    }
+
+    @Test
+    public void testDeduplicator() throws IOException {
+        ExceptionUtil.StackTraceDeduplicator dedup = new ExceptionUtil.StackTraceDeduplicator(5, 100, 10);
+        StringBuilder out = new StringBuilder();
+        ExceptionUtil.Occurrence first = null;
+        for (int i = 0; i < 3; i++) {
+            ExceptionUtil.Occurrence occurrence = dedup.append(nested(3), out);
+            if (i == 0) {
+                first = occurrence;
+                Assert.assertTrue(occurrence.isFirst());
+            } else {
+                Assert.assertEquals(first.getId(), occurrence.getId());
+                Assert.assertEquals(i, occurrence.getSuppressedCount());
+            }
+        }
+        Assert.assertTrue(out.toString().endsWith(
+                "[trace " + first.getId() + ", suppressed 2] java.lang.IllegalStateException: boom\n"));
+        Assert.assertNotEquals(first.getId(), dedup.record(new IllegalStateException("other")).getId());
+    }
+}
@@ -0,0 +1,204 @@
+package cn.aurthur.utils;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
+
+public class FileUtilTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private File write(String content) throws IOException {
+        File file = folder.newFile();
+        Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+
+    @Test
+    public void testMapAndChunks() throws IOException {
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            content.append(i).append(',');
+        }
+        File file = write(content.toString());
+
+        Assert.assertEquals(content.toString(), StandardCharsets.UTF_8.decode(FileUtil.map(file)).toString());
+
+        byte[] copy = new byte[(int) file.length()];
+        long total = FileUtil.forEachChunk(file, 100, (chunk, position) -> {
+            Assert.assertTrue(chunk.isDirect());
+            chunk.get(copy, (int) position, chunk.remaining());
+        });
+        Assert.assertEquals(file.length(), total);
+        Assert.assertArrayEquals(FileUtil.readBytes(file), copy);
+    }
+
+    @Test
+    public void testLineIterator() throws IOException {
+        List<String> expected = new ArrayList<>();
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < 500; i++) {
+            StringBuilder line = new StringBuilder();
+            for (int j = 0; j < i % 37; j++) {
+                line.append("行").append(i);
+            }
+            expected.add(line.toString());
+            content.append(line).append(i % 2 == 0 ? "\n" : "\r\n");
+        }
+        content.append("last");
+        expected.add("last");
+        File file = write(content.toString());
+
+        // 区域很小，覆盖跨区域的行和比区域更长的行
+        for (int regionSize : new int[] { 16, 1000, FileUtil.MappedLineIterator.DEFAULT_REGION_SIZE }) {
+            List<String> lines = new ArrayList<>();
+            try (FileUtil.MappedLineIterator it = new FileUtil.MappedLineIterator(file, StandardCharsets.UTF_8,
+                    regionSize)) {
+                it.forEachRemaining(lines::add);
+            }
+            Assert.assertEquals(expected, lines);
+        }
+
+        try (FileUtil.MappedLineIterator it = FileUtil.lineIterator(write(""))) {
+            Assert.assertFalse(it.hasNext());
+        }
+        List<String> lines = new ArrayList<>();
+        try (FileUtil.MappedLineIterator it = FileUtil.lineIterator(write("a\n\nb\n"))) {
+            it.forEachRemaining(lines::add);
+        }
+        Assert.assertEquals(Arrays.asList("a", "", "b"), lines);
+    }
+
+    /**
+     * 统计区域中的分隔符个数，只使用带位置参数的读取
+     */
+    private static long countLines(FileChannel channel, long start, long end) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(1 << 16);
+        long count = 0;
+        for (long position = start; position < end; ) {
+            buffer.clear();
+            buffer.limit((int) Math.min(buffer.capacity(), end - position));
+            int n = channel.read(buffer, position);
+            for (int i = 0; i < n; i++) {
+                if (buffer.get(i) == '\n') {
+                    count++;
+                }
+            }
+            position += n;
+        }
+        return count;
+    }
+
+    @Test
+    public void testProcessRegions() throws IOException {
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < 10000; i++) {
+            content.append(i).append('\n');
+        }
+        File file = write(content.toString());
+        long size = file.length();
+
+        for (int regions = 1; regions <= 64; regions *= 2) {
+            long[] bounds = FileUtil.splitRegions(file, regions, (byte) '\n');
+            Assert.assertEquals(0, bounds[0]);
+            Assert.assertEquals(size, bounds[bounds.length - 1]);
+            for (int i = 1; i < bounds.length - 1; i++) {
+                Assert.assertTrue(bounds[i] > bounds[i - 1]);
+                Assert.assertEquals('\n', content.charAt((int) bounds[i] - 1));
+            }
+
+            long lines = FileUtil.processRegions(file, regions, (byte) '\n', FileUtilTest::countLines, Long::sum,
+                    ForkJoinPool.commonPool());
+            Assert.assertEquals(10000, lines);
+        }
+
+        Assert.assertArrayEquals(new long[] { 0, 0 }, FileUtil.splitRegions(write(""), 4, (byte) '\n'));
+        Assert.assertArrayEquals(new long[] { 0, 3 }, FileUtil.splitRegions(write("abc"), 4, (byte) '\n'));
+    }
+
+    /**
+     * 不同的分段数统计出的行数相同
+     */
+    @Test
+    public void testProcessRegionsCounts() throws IOException {
+        File file = folder.newFile();
+        byte[] block = new byte[1 << 20];
+        long expected = 0;
+        for (int i = 0; i < block.length; i++) {
+            block[i] = (byte) (i % 100 == 99 ? '\n' : 'a' + i % 26);
+            expected += block[i] == '\n' ? 4 : 0;
+        }
+        try (FileOutputStream out = new FileOutputStream(file)) {
+            for (int i = 0; i < 4; i++) {
+                out.write(block);
+            }
+        }
+
+        for (int regions : new int[] { 1, 3, Runtime.getRuntime().availableProcessors() }) {
+            ForkJoinPool pool = new ForkJoinPool(regions);
+            try {
+                Assert.assertEquals(expected,
+                        (long) FileUtil.processRegions(file, regions, (byte) '\n', FileUtilTest::countLines, Long::sum,
+                                pool));
+            } finally {
+                pool.shutdown();
+            }
+        }
+    }
+
+    @Test
+    public void testWalkAndDelete() throws IOException {
+        File root = folder.newFolder();
+        for (int i = 0; i < 3; i++) {
+            File dir = new File(root, "d" + i + ".log");
+            Assert.assertTrue(new File(dir, "sub").mkdirs());
+            for (int j = 0; j < 20; j++) {
+                Assert.assertTrue(new File(dir, j + ".log").createNewFile());
+                Assert.assertTrue(new File(dir, "sub/" + j + ".txt").createNewFile());
+            }
+        }
+
+        try (Stream<Path> paths = FileUtil.walk(root, 1, "*.log")) {
+            Assert.assertEquals(3, paths.count());
+        }
+        try (Stream<Path> paths = FileUtil.walk(root, 2, "*.log")) {
+            Assert.assertEquals(63, paths.count());
+        }
+        try (Stream<Path> paths = FileUtil.walkSuffix(root, 3, ".txt")) {
+            Assert.assertEquals(60, paths.count());
+        }
+        try (Stream<Path> paths = FileUtil.walk(root, 3, null)) {
+            Assert.assertEquals(3 + 3 * 21 + 60, paths.count());
+        }
+        Assert.assertEquals(3, FileUtil.listDirSuffixFiles(root, ".log").length);
+        Assert.assertEquals(0, FileUtil.listDirAllConditionFiles(root, true, false).length);
+        Assert.assertEquals(3, FileUtil.listDirAnyConditionFiles(root, true, false).length);
+        // 不是目录时返回 null
+        File plain = new File(root, "d1.log/0.log");
+        Assert.assertNull(FileUtil.listDirAllConditionFiles(plain.getPath(), false));
+        Assert.assertNull(FileUtil.listDirAnyConditionFiles(plain.getPath(), false));
+        Assert.assertNull(FileUtil.listDirAllConditionFiles(plain, true));
+        Assert.assertEquals(0, FileUtil.listDirAllConditionFiles(root.getPath(), false).length);
+        Assert.assertEquals(21, FileUtil.listDirAnyConditionFiles(new File(root, "d1.log").getPath()).length);
+
+        Assert.assertTrue(FileUtil.deleteDir(new File(root, "d0.log")));
+        Assert.assertTrue(FileUtil.parallelDeleteDir(root));
+        Assert.assertFalse(root.exists());
+    }
+}
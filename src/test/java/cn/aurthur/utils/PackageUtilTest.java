@@ -0,0 +1,159 @@
+package cn.aurthur.utils;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+public class PackageUtilTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @After
+    public void reset() {
+        PackageUtil.setScanIndexFile(null);
+        PackageUtil.clearScanIndex();
+    }
+
+    /**
+     * 生成只包含空条目的<code>jar</code>，条目名长度相同时文件大小也相同
+     */
+    private static void writeJar(File jar, String... classes) throws IOException {
+        try (ZipOutputStream out = new ZipOutputStream(new FileOutputStream(jar))) {
+            for (String name : new String[] { "idxtest/", "idxtest/a/", "idxtest/a/b/" }) {
+                out.putNextEntry(stored(name));
+                out.closeEntry();
+            }
+            for (String name : classes) {
+                out.putNextEntry(stored(name));
+                out.closeEntry();
+            }
+        }
+    }
+
+    private static ZipEntry stored(String name) {
+        ZipEntry entry = new ZipEntry(name);
+        entry.setMethod(ZipEntry.STORED);
+        entry.setSize(0);
+        entry.setCrc(new CRC32().getValue());
+        entry.setTime(0);
+        return entry;
+    }
+
+    private static List<String> scan(File jar) throws IOException {
+        Thread thread = Thread.currentThread();
+        ClassLoader old = thread.getContextClassLoader();
+        try (URLClassLoader loader = new URLClassLoader(new URL[] { jar.toURI().toURL() }, null)) {
+            thread.setContextClassLoader(loader);
+            List<String> classes = PackageUtil.getClassesInPackage("idxtest.*");
+            classes.addAll(PackageUtil.getResourceInPackage("idxtest.a"));
+            Collections.sort(classes);
+            return classes;
+        } finally {
+            thread.setContextClassLoader(old);
+        }
+    }
+
+    @Test
+    public void testScanIndex() throws IOException {
+        File jar = folder.newFile("scan.jar");
+        writeJar(jar, "idxtest/a/One.class", "idxtest/a/b/Two.class", "idxtest/a/c.txt");
+        long lastModified = jar.lastModified();
+
+        List<String> unindexed = scan(jar);
+        Assert.assertEquals(Arrays.asList("idxtest.a.One", "idxtest.a.One.class", "idxtest.a.b.Two",
+                "idxtest.a.b.Two.class", "idxtest.a.c.txt"), unindexed);
+
+        // 持久化索引后重新加载，结果与不使用索引时相同
+        PackageUtil.clearScanIndex();
+        File index = new File(folder.getRoot(), "scan.idx");
+        PackageUtil.setScanIndexFile(index);
+        Assert.assertEquals(unindexed, scan(jar));
+        Assert.assertTrue(index.isFile());
+
+        PackageUtil.clearScanIndex();
+        PackageUtil.setScanIndexFile(index);
+        Assert.assertEquals(unindexed, scan(jar));
+
+        // 大小和修改时间不变时使用加载的索引
+        writeJar(jar, "idxtest/a/Uno.class", "idxtest/a/b/Dos.class", "idxtest/a/d.txt");
+        Assert.assertTrue(jar.setLastModified(lastModified));
+        PackageUtil.clearScanIndex();
+        PackageUtil.setScanIndexFile(index);
+        Assert.assertEquals(unindexed, scan(jar));
+
+        // jar 被修改后重新扫描，并更新索引文件
+        Assert.assertTrue(jar.setLastModified(lastModified + 10000));
+        List<String> modified = Arrays.asList("idxtest.a.Uno", "idxtest.a.Uno.class", "idxtest.a.b.Dos",
+                "idxtest.a.b.Dos.class", "idxtest.a.d.txt");
+        Assert.assertEquals(modified, scan(jar));
+
+        PackageUtil.clearScanIndex();
+        PackageUtil.setScanIndexFile(index);
+        Assert.assertEquals(modified, scan(jar));
+
+        // 损坏的索引文件被忽略
+        Assert.assertTrue(index.delete());
+        Assert.assertTrue(new File(folder.getRoot(), "scan.idx").createNewFile());
+        PackageUtil.clearScanIndex();
+        PackageUtil.setScanIndexFile(index);
+        Assert.assertEquals(modified, scan(jar));
+    }
+
+    @Test
+    public void testJarPathWithPlus() throws IOException {
+        File dir = folder.newFolder("a+b c");
+        File jar = new File(dir, "plus.jar");
+        writeJar(jar, "idxtest/a/One.class", "idxtest/a/c.txt");
+
+        List<String> expected = Arrays.asList("idxtest.a.One", "idxtest.a.One.class", "idxtest.a.c.txt");
+        Assert.assertEquals(expected, scan(jar));
+        PackageUtil.setScanIndexFile(new File(folder.getRoot(), "plus.idx"));
+        Assert.assertEquals(expected, scan(jar));
+    }
+
+    @Test
+    public void testCorruptIndex() throws IOException {
+        File jar = folder.newFile("corrupt.jar");
+        writeJar(jar, "idxtest/a/One.class");
+        List<String> expected = Arrays.asList("idxtest.a.One", "idxtest.a.One.class");
+        File index = new File(folder.getRoot(), "corrupt.idx");
+
+        // 第一条记录合法但内容是假的，之后的内容损坏，整个文件都应被丢弃
+        int[][] cases = { { 2, -1 }, { 2, Integer.MAX_VALUE }, { 2, 3 }, { Integer.MAX_VALUE, 0 }, { -1, 0 } };
+        for (int[] c : cases) {
+            try (DataOutputStream out = new DataOutputStream(new FileOutputStream(index))) {
+                out.writeInt(0x4A494458);
+                out.writeInt(c[0]);
+                out.writeUTF(jar.getAbsolutePath());
+                out.writeLong(jar.length());
+                out.writeLong(jar.lastModified());
+                out.writeInt(1);
+                out.writeUTF("idxtest/a/Fake.class");
+                out.writeUTF("other.jar");
+                out.writeLong(0);
+                out.writeLong(0);
+                out.writeInt(c[1]);
+            }
+
+            PackageUtil.clearScanIndex();
+            PackageUtil.setScanIndexFile(index);
+            Assert.assertEquals(expected, scan(jar));
+        }
+    }
+}
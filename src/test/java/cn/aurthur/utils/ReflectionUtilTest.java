@@ -0,0 +1,126 @@
+package cn.aurthur.utils;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.lang.reflect.Field;
+
+public class ReflectionUtilTest {
+
+    static class Base {
+        private long id;
+        private String name;
+    }
+
+    static class Item extends Base {
+        private static int counter;
+        private int count;
+        private String name;
+        private final String code = "c";
+    }
+
+    static class Other {
+        private int count;
+        private String name;
+        private long missing;
+    }
+
+    @Test
+    public void testReadWriteField() {
+        Item item = new Item();
+        ReflectionUtil.writeField(item, "count", 3);
+        ReflectionUtil.writeField(item, "name", "item");
+        ReflectionUtil.writeField(item, "id", 7L);
+        ReflectionUtil.writeField(item, "notExists", 1);
+
+        Assert.assertEquals(3, ReflectionUtil.readField("count", item));
+        // 子类的 Field 优先
+        Assert.assertEquals("item", ReflectionUtil.readField("name", item));
+        Assert.assertNull(((Base) item).name);
+        Assert.assertEquals(7L, ReflectionUtil.readField("id", item));
+        Assert.assertEquals("c", ReflectionUtil.readField("code", item));
+        Assert.assertNull(ReflectionUtil.readField("notExists", item));
+        Assert.assertNull(ReflectionUtil.readField("count", null));
+
+        Field counter = ReflectionUtil.getField(Item.class, "counter");
+        ReflectionUtil.writeField(counter, item, 5);
+        Assert.assertEquals(5, (int) ReflectionUtil.readField(counter, item));
+    }
+
+    @Test
+    public void testTypeMismatch() {
+        Item item = new Item();
+        assertIllegalArgument(() -> ReflectionUtil.writeField(item, "count", "str"));
+        assertIllegalArgument(() -> ReflectionUtil.writeField(item, "name", 5));
+        assertIllegalArgument(() -> ReflectionUtil.writeField(item, "count", null));
+        Field count = ReflectionUtil.getField(Item.class, "count");
+        assertIllegalArgument(() -> ReflectionUtil.readField(count, "notItem"));
+        assertIllegalArgument(() -> ReflectionUtil.writeField(count, (Object) "notItem", 1));
+    }
+
+    private static void assertIllegalArgument(Runnable runnable) {
+        try {
+            runnable.run();
+            Assert.fail();
+        } catch (IllegalArgumentException e) {
+            // 预期
+        }
+    }
+
+    @Test
+    public void testFieldsAreCopies() {
+        Field first = ReflectionUtil.getField(Item.class, "count");
+        Field second = ReflectionUtil.getField(Item.class, "count");
+        Assert.assertNotSame(first, second);
+        Assert.assertFalse(first.isAccessible());
+
+        Field[] accessible = ReflectionUtil.getAllInstanceFields(Item.class, true);
+        Field[] fields = ReflectionUtil.getAllInstanceFields(Item.class, false);
+        Assert.assertEquals(5, fields.length);
+        for (int i = 0; i < fields.length; i++) {
+            Assert.assertEquals(accessible[i], fields[i]);
+            Assert.assertTrue(accessible[i].isAccessible());
+            Assert.assertFalse(fields[i].isAccessible());
+        }
+
+        // 调用者修改访问权限不影响缓存的访问器
+        Item item = new Item();
+        ReflectionUtil.writeField(item, "count", 9);
+        Assert.assertEquals(9, ReflectionUtil.readField("count", item));
+    }
+
+    @Test
+    public void testCopyPlan() {
+        Item item = new Item();
+        item.count = 4;
+        item.name = "a";
+
+        ReflectionUtil.CopyPlan plan = ReflectionUtil.getCopyPlan(Item.class, Other.class, "count", "name", "missing",
+                "code");
+        Assert.assertSame(plan, ReflectionUtil.getCopyPlan(Item.class, Other.class, "count", "name", "missing",
+                "code"));
+
+        Other other = new Other();
+        other.missing = 1;
+        try {
+            // missing 在源对象中不存在，按 null 写入 long 类型时失败
+            plan.copy(item, other);
+            Assert.fail();
+        } catch (IllegalArgumentException e) {
+            // 预期
+        }
+
+        plan = ReflectionUtil.getCopyPlan(Item.class, Other.class, "count", "name", "code");
+        plan.copy(item, other);
+        Assert.assertEquals(4, other.count);
+        Assert.assertEquals("a", other.name);
+
+        Other copy = new Other();
+        ReflectionUtil.getCopyPlan(Other.class, ReflectionUtil.getAllInstanceFields(Other.class)).copy(other, copy);
+        Assert.assertEquals(4, copy.count);
+        Assert.assertEquals("a", copy.name);
+        Assert.assertEquals(1, copy.missing);
+
+        Assert.assertNull(ReflectionUtil.getCopyPlan(null, Other.class, "count"));
+    }
+}
@@ -0,0 +1,28 @@
+package cn.aurthur.utils;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class RuntimeUtilTest {
+
+    private static String deep(int depth) {
+        return depth == 0 ? RuntimeUtil.currentClassMethod() : deep(depth - 1);
+    }
+
+    @Test
+    public void testCaller() {
+        Assert.assertEquals("testCaller", RuntimeUtil.currentMethodName());
+        Assert.assertEquals(RuntimeUtilTest.class.getName(), RuntimeUtil.currentClassName());
+        Assert.assertEquals(RuntimeUtilTest.class.getName() + ".testCaller", RuntimeUtil.currentNamespace());
+        Assert.assertSame(RuntimeUtil.currentClassMethod(), RuntimeUtil.currentClassMethod());
+        Assert.assertEquals(RuntimeUtilTest.class.getName() + ".deep", deep(3));
+    }
+
+    /**
+     * 深栈下也能取得调用者
+     */
+    @Test
+    public void testDeepStack() {
+        Assert.assertEquals(RuntimeUtilTest.class.getName() + ".deep", deep(500));
+    }
+}
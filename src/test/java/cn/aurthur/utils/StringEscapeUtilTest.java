@@ -0,0 +1,126 @@
+package cn.aurthur.utils;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.CharBuffer;
+
+public class StringEscapeUtilTest {
+
+    @Test
+    public void testEscape() throws IOException {
+        String plain = "He didn't say Stop 中文";
+        Assert.assertSame(plain, StringEscapeUtil.escapeJava(plain));
+        Assert.assertSame(plain, StringEscapeUtil.escapeJson(plain));
+
+        Assert.assertEquals("He didn't say, \\\"Stop!\\\"", StringEscapeUtil.escapeJava("He didn't say, \"Stop!\""));
+        Assert.assertEquals("He didn\\'t say, \\\"Stop\\/\\\"",
+                StringEscapeUtil.escapeJavaScript("He didn't say, \"Stop/\""));
+        Assert.assertEquals("a\\tb\\n\\u0001\\u001F\\\\", StringEscapeUtil.escapeJava("a\tb\n\u0001\u001f\\"));
+        Assert.assertEquals("\\u4E2D\u00e9\\u0100", StringEscapeUtil.escapeJava("中\u00e9\u0100", true));
+        Assert.assertEquals("&lt;a href=&quot;x&quot;&gt;&amp;&#39;&lt;/a&gt;",
+                StringEscapeUtil.escapeHtml("<a href=\"x\">&'</a>"));
+        Assert.assertNull(StringEscapeUtil.escapeHtml(null));
+
+        StringBuilder out = new StringBuilder("[");
+        StringEscapeUtil.escapeJava("x\"y", out);
+        StringEscapeUtil.escapeJava("z", out);
+        StringEscapeUtil.escapeJava(null, out, true);
+        StringEscapeUtil.unescapeJava(null, out);
+        Assert.assertEquals("[x\\\"yz", out.toString());
+
+        String escaped = StringEscapeUtil.escapeJava("line1\nline2\t\"q\" \u0007", true);
+        Assert.assertEquals("line1\nline2\t\"q\" \u0007", StringEscapeUtil.unescapeJava(escaped));
+    }
+
+    @Test
+    public void testStreaming() throws IOException {
+        String escaped = "a\\u4E2D\\n\\\\x\\u12G4\\q\\u00e9\\\"end\\u12";
+        String expected = StringEscapeUtil.unescapeJava(escaped);
+        Assert.assertEquals("a中\n\\x\\u12G4q\u00e9\"end\\u12", expected);
+
+        // 转义序列在任意位置被缓冲区切断
+        for (int bufferSize = 1; bufferSize < 10; bufferSize++) {
+            StringWriter out = new StringWriter();
+            StringEscapeUtil.unescapeStream(new StringReader(escaped), out, bufferSize);
+            Assert.assertEquals(expected, out.toString());
+        }
+
+        String raw = "He didn't say, \"Stop/\"\t中";
+        CharBuffer target = CharBuffer.allocate(64);
+        StringEscapeUtil.escapeJavaScriptStream(CharBuffer.wrap(raw), target, true);
+        target.flip();
+        Assert.assertEquals(StringEscapeUtil.escapeJavaScript(raw, true), target.toString());
+    }
+
+    /**
+     * 逐块生成内容的 Reader，不在内存中保存整个输入
+     */
+    private static class GeneratedReader extends Reader {
+        private final String block;
+        private long remaining;
+        private int offset;
+
+        GeneratedReader(String block, long blocks) {
+            this.block = block;
+            this.remaining = blocks * block.length();
+        }
+
+        @Override
+        public int read(char[] cbuf, int off, int len) {
+            if (remaining == 0) {
+                return -1;
+            }
+            int n = (int) Math.min(Math.min(len, remaining), block.length() - offset);
+            block.getChars(offset, offset + n, cbuf, off);
+            offset = (offset + n) % block.length();
+            remaining -= n;
+            return n;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    /**
+     * 大量输入的流式反向转义，转义序列落在默认缓冲区的边界上
+     */
+    @Test
+    public void testStreamingLargeInput() throws IOException {
+        final String expected = "a中";
+        final long[] written = new long[1];
+        Writer checker = new Writer() {
+            @Override
+            public void write(char[] cbuf, int off, int len) {
+                for (int i = off; i < off + len; i++) {
+                    write(cbuf[i]);
+                }
+            }
+
+            @Override
+            public void write(int c) {
+                Assert.assertEquals(expected.charAt((int) (written[0]++ % expected.length())), (char) c);
+            }
+
+            @Override
+            public void flush() {
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+
+        // 长度为 7 的块，与缓冲区大小互质，转义序列会在各个位置被切断
+        String block = "a\\u4E2D";
+        long blocks = (4L << 20) / block.length();
+        StringEscapeUtil.unescapeJavaStream(new GeneratedReader(block, blocks), checker);
+        Assert.assertEquals(blocks * expected.length(), written[0]);
+    }
+}
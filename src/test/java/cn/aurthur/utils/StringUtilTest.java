@@ -0,0 +1,119 @@
+package cn.aurthur.utils;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+
+public class StringUtilTest {
+
+    private static String randomString(Random random, int length) {
+        StringBuilder buffer = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            switch (random.nextInt(6)) {
+                case 0:
+                    buffer.append((char) (0x80 + random.nextInt(0x780)));
+                    break;
+                case 1:
+                    buffer.append((char) (0x800 + random.nextInt(0xD000)));
+                    break;
+                case 2:
+                    buffer.appendCodePoint(0x10000 + random.nextInt(0x100000));
+                    break;
+                case 3:
+                    // 不成对的代理字符
+                    buffer.append((char) (0xD800 + random.nextInt(0x800)));
+                    break;
+                default:
+                    buffer.append((char) random.nextInt(0x80));
+                    break;
+            }
+        }
+        return buffer.toString();
+    }
+
+    @Test
+    public void testUTF8() {
+        Random random = new Random(48);
+        for (int round = 0; round < 500; round++) {
+            String s = round % 5 == 0 ? "plain ascii text " + round : randomString(random, random.nextInt(40));
+            byte[] expected = s.getBytes(StandardCharsets.UTF_8);
+            StringBuilder builder = new StringBuilder(s);
+
+            Assert.assertEquals(expected.length, StringUtil.utf8Length(builder));
+            byte[] dest = new byte[expected.length + 3];
+            Assert.assertEquals(expected.length, StringUtil.encodeUTF8(builder, dest, 3));
+            Assert.assertArrayEquals(expected, Arrays.copyOfRange(dest, 3, dest.length));
+
+            ByteBuffer direct = ByteBuffer.allocateDirect(expected.length);
+            StringUtil.encodeUTF8(builder, direct);
+            Assert.assertFalse(direct.hasRemaining());
+
+            char[] chars = new char[expected.length];
+            int n = StringUtil.decodeUTF8(dest, 3, expected.length, chars, 0);
+            Assert.assertEquals(new String(expected, StandardCharsets.UTF_8), new String(chars, 0, n));
+        }
+
+        byte[] valid = "中文 ok 😀".getBytes(StandardCharsets.UTF_8);
+        Assert.assertTrue(StringUtil.isValidUTF8(valid, 0, valid.length));
+        Assert.assertFalse(StringUtil.isValidUTF8(valid, 0, valid.length - 1));
+        // 截断、过长编码、代理字符、超出范围
+        Assert.assertFalse(StringUtil.isValidUTF8(new byte[] { (byte) 0xE4, (byte) 0xB8 }, 0, 2));
+        Assert.assertFalse(StringUtil.isValidUTF8(new byte[] { (byte) 0xC0, (byte) 0x80 }, 0, 2));
+        Assert.assertFalse(StringUtil.isValidUTF8(new byte[] { (byte) 0xED, (byte) 0xA0, (byte) 0x80 }, 0, 3));
+        Assert.assertFalse(StringUtil.isValidUTF8(new byte[] { (byte) 0xF4, (byte) 0x90, (byte) 0x80, (byte) 0x80 },
+                0, 4));
+        Assert.assertFalse(StringUtil.isValidUTF8(new byte[] { (byte) 0x80 }, 0, 1));
+    }
+
+    @Test
+    public void testCaseConversion() {
+        Assert.assertNull(StringUtil.toCamelCase(null));
+        Assert.assertEquals("", StringUtil.toCamelCase(""));
+        Assert.assertEquals("aBcDefGhi123", StringUtil.toCamelCase("aBc def_ghi 123"));
+        Assert.assertEquals("ABcDefGhi123", StringUtil.toPascalCase("aBc def_ghi 123"));
+        Assert.assertEquals("A_BC_DEF_GHI_123", StringUtil.toUpperCaseWithUnderscores("aBc def_ghi 123"));
+        Assert.assertEquals("__a__bc__", StringUtil.toLowerCaseWithUnderscores("__a__Bc__"));
+        Assert.assertEquals("user_id", StringUtil.toLowerCaseWithUnderscores("userId"));
+        Assert.assertEquals("userId", StringUtil.toCamelCase("USER_ID"));
+        Assert.assertEquals("http_url_2_name", StringUtil.toLowerCaseWithUnderscores("HTTPUrl2Name"));
+        Assert.assertEquals("用户id", StringUtil.toLowerCaseWithUnderscores("用户Id"));
+
+        // 末尾的全角空格是空白，不影响结果，但会使转换走非 ASCII 的分词
+        String chars = "aAbBzZ09_- .$\t";
+        Random random = new Random(49);
+        for (int round = 0; round < 5000; round++) {
+            StringBuilder buffer = new StringBuilder();
+            for (int i = random.nextInt(12); i > 0; i--) {
+                buffer.append(chars.charAt(random.nextInt(chars.length())));
+            }
+            String s = buffer.toString();
+            String slow = s + '\u2003';
+            Assert.assertEquals(s, StringUtil.toCamelCase(slow), StringUtil.toCamelCase(s));
+            Assert.assertEquals(s, StringUtil.toPascalCase(slow), StringUtil.toPascalCase(s));
+            Assert.assertEquals(s, StringUtil.toUpperCaseWithUnderscores(slow), StringUtil.toUpperCaseWithUnderscores(s));
+            Assert.assertEquals(s, StringUtil.toLowerCaseWithUnderscores(slow), StringUtil.toLowerCaseWithUnderscores(s));
+        }
+    }
+
+    /**
+     * 超过缓存长度的字符串不经过缓存，结果与缓存的相同
+     */
+    @Test
+    public void testCaseConversionLongIdentifier() {
+        StringBuilder snake = new StringBuilder("user_id");
+        StringBuilder camel = new StringBuilder("userId");
+        while (snake.length() <= 64) {
+            snake.append("_user_id");
+            camel.append("UserId");
+        }
+        for (int i = 0; i < 2; i++) {
+            Assert.assertEquals(camel.toString(), StringUtil.toCamelCase(snake.toString()));
+            Assert.assertEquals(snake.toString(), StringUtil.toLowerCaseWithUnderscores(camel.toString()));
+            Assert.assertEquals("userId", StringUtil.toCamelCase("user_id"));
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package cn.aurthur.utils;
+
+import cn.aurthur.lang.collection.CompactTree;
+import com.alibaba.fastjson2.JSONArray;
+import com.alibaba.fastjson2.JSONObject;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class TreeUtilTest {
+
+    static class Node {
+        final long id;
+        final long pid;
+        final List<Node> children = new ArrayList<>();
+
+        Node(long id, long pid) {
+            this.id = id;
+            this.pid = pid;
+        }
+    }
+
+    @Test
+    public void testListToTree() {
+        // 子节点在父节点之前出现
+        List<Node> list = new ArrayList<>();
+        list.add(new Node(3, 2));
+        list.add(new Node(2, 1));
+        list.add(new Node(1, 0));
+        list.add(new Node(4, 1));
+        list.add(new Node(5, 0));
+
+        List<Node> roots = TreeUtil.listToTree(list, n -> n.id, n -> n.pid, (p, c) -> p.children.add(c));
+
+        Assert.assertEquals(2, roots.size());
+        Assert.assertEquals(1, roots.get(0).id);
+        Assert.assertEquals(5, roots.get(1).id);
+        Assert.assertEquals(2, roots.get(0).children.size());
+        Assert.assertEquals(2, roots.get(0).children.get(0).id);
+        Assert.assertEquals(4, roots.get(0).children.get(1).id);
+        Assert.assertEquals(3, roots.get(0).children.get(0).children.get(0).id);
+    }
+
+    @Test
+    public void testCompactTree() {
+        //        0        5
+        //      /   \
+        //     1     2
+        //    / \     \
+        //   3   4     6
+        CompactTree tree = CompactTree.of(new int[]{-1, 0, 0, 1, 1, -1, 2});
+
+        Assert.assertArrayEquals(new int[]{0, 5}, tree.roots());
+        Assert.assertEquals(2, tree.depth(6));
+        Assert.assertEquals(6, tree.subtreeSize(0));
+        Assert.assertTrue(tree.isAncestor(0, 4));
+        Assert.assertFalse(tree.isAncestor(2, 4));
+        Assert.assertEquals(1, tree.lca(3, 4));
+        Assert.assertEquals(0, tree.lca(4, 6));
+        Assert.assertEquals(CompactTree.NONE, tree.lca(4, 5));
+        Assert.assertEquals(1, tree.ancestorAtDepth(3, 1));
+        Assert.assertArrayEquals(new int[]{1, 3, 4, 2, 6}, tree.descendants(0));
+        Assert.assertArrayEquals(new int[]{6, 2, 0}, tree.pathToRoot(6));
+        Assert.assertArrayEquals(new long[]{6, 3, 2, 1, 1, 1, 1}, tree.subtreeSum(new long[]{1, 1, 1, 1, 1, 1, 1}));
+    }
+
+    @Test
+    public void testCompactTreeLarge() {
+        // 一条长链加上大量叶子节点，覆盖并行聚合和跳跃指针
+        int size = 100000;
+        int[] parent = new int[size];
+        long[] values = new long[size];
+        parent[0] = -1;
+        for (int i = 1; i < size; i++) {
+            parent[i] = i < size / 2 ? i - 1 : (i % 100);
+            values[i] = 1;
+        }
+        values[0] = 1;
+        CompactTree tree = CompactTree.of(parent);
+
+        long[] sums = tree.subtreeSum(values);
+        Assert.assertEquals(size, sums[0]);
+        for (int i = 0; i < size; i += 997) {
+            int expected = 0;
+            for (int v = i; v != -1; v = parent[v]) {
+                expected++;
+            }
+            Assert.assertEquals(expected - 1, tree.depth(i));
+            Assert.assertEquals(0, tree.ancestorAtDepth(i, 0));
+            Assert.assertEquals(i < size / 2 ? Math.min(i, 40000) : i % 100, tree.lca(i, 40000));
+        }
+        Assert.assertEquals(99, tree.lca(size - 1, 99 + 100));
+
+        // 宽树：第一层 20000 个节点，每个节点各有一个子节点
+        int width = 20000;
+        parent = new int[1 + width * 2];
+        parent[0] = -1;
+        for (int i = 1; i <= width; i++) {
+            parent[i] = 0;
+            parent[i + width] = i;
+        }
+        values = new long[parent.length];
+        Arrays.fill(values, 1);
+        sums = CompactTree.of(parent).subtreeSum(values);
+        Assert.assertEquals(parent.length, sums[0]);
+        Assert.assertEquals(2, sums[width]);
+    }
+
+    @Test
+    public void testListToTreeMatchesJson() {
+        int size = 20000;
+        List<Node> list = new ArrayList<>(size);
+        JSONArray array = new JSONArray(size);
+        for (int i = 1; i <= size; i++) {
+            list.add(new Node(i, i / 10));
+            JSONObject json = new JSONObject();
+            json.put("id", i);
+            json.put("pid", i / 10);
+            array.add(json);
+        }
+
+        JSONArray jsonRoots = TreeUtil.listToTree(array, "id", "pid", "children");
+        List<Node> roots = TreeUtil.listToTree(list, n -> n.id, n -> n.pid, (p, c) -> p.children.add(c));
+
+        Assert.assertEquals(jsonRoots.size(), roots.size());
+        for (int i = 0; i < roots.size(); i++) {
+            Node root = roots.get(i);
+            JSONObject jsonRoot = jsonRoots.getJSONObject(i);
+            Assert.assertEquals(root.id, jsonRoot.getLongValue("id"));
+            Assert.assertEquals(root.children.size(), jsonRoot.getJSONArray("children").size());
+        }
+    }
+}